@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibratorBenchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.freight.carrier.Carrier;
+import org.matsim.contrib.freight.carrier.CarrierPlan;
+import org.matsim.contrib.freight.carrier.CarrierService;
+import org.matsim.contrib.freight.carrier.CarrierVehicle;
+import org.matsim.contrib.freight.carrier.CarrierVehicleType;
+import org.matsim.contrib.freight.carrier.CarrierVehicleTypeReader;
+import org.matsim.contrib.freight.carrier.CarrierVehicleTypes;
+import org.matsim.contrib.freight.carrier.ScheduledTour;
+import org.matsim.contrib.freight.carrier.Tour;
+import org.matsim.contrib.freight.carrier.Tour.Leg;
+import org.matsim.contrib.freight.router.TimeAndSpaceTourRouter;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.network.io.MatsimNetworkReader;
+import org.matsim.vehicles.VehicleType;
+
+import saCalibrator.SyntheticScenarioGenerator;
+
+//Synthetic carriers on grid networks like the ones of the tests, with a configurable number of services and vehicle types.
+//The network file is taken from the system property benchmark.network, by default the grid network of the calibrator.
+//The vehicle types file is taken from the system property benchmark.vehicleTypes
+final class BenchmarkScenario {
+
+	private static final int[] CAPACITIES = {6000, 7000, 8000, 10000, 12000};
+	
+	private BenchmarkScenario() {
+	}
+	
+	static Network loadNetwork() {
+		Network network = NetworkUtils.createNetwork();
+		new MatsimNetworkReader(network).readFile(System.getProperty("benchmark.network", "../input/gridNetwork.xml"));
+		return network;
+	}
+	
+	//Square grid with links of 1000 m in both directions between neighboring nodes, like the grid network of the calibrator
+	static Network createGridNetwork(int size) {
+		return SyntheticScenarioGenerator.createGridNetwork(size, size, 1000);
+	}
+	
+	//The first vehicle types of the vehicle types file in the order of their ids
+	static List<CarrierVehicleType> readVehicleTypes(int numberOfTypes) {
+		CarrierVehicleTypes vehicleTypes = new CarrierVehicleTypes();
+		new CarrierVehicleTypeReader(vehicleTypes).readFile(System.getProperty("benchmark.vehicleTypes", "../input/vehicleTypes.xml"));
+		List<CarrierVehicleType> types = new ArrayList<>(vehicleTypes.getVehicleTypes().values());
+		types.sort((firstType, secondType) -> firstType.getId().compareTo(secondType.getId()));
+		if(types.size() < numberOfTypes) {
+			throw new IllegalArgumentException("The vehicle types file only contains " + types.size() + " vehicle types");
+		}
+		return types.subList(0, numberOfTypes);
+	}
+	
+	static Carrier createCarrier(Network network, int numberOfServices, int numberOfTypes, Random random) {
+		List<CarrierVehicleType> types = new ArrayList<>();
+		for(int i = 0; i < numberOfTypes; i++) {
+			int capacity = CAPACITIES[i % CAPACITIES.length];
+			CarrierVehicleType.Builder typeBuilder = CarrierVehicleType.Builder.newInstance(Id.create(capacity / 1000 + "_tonner_" + i, VehicleType.class));
+			typeBuilder.setCapacity(capacity);
+			typeBuilder.setCostPerDistanceUnit(capacity / 1000.0);
+			typeBuilder.setFixCost(1000);
+			typeBuilder.setCostPerTimeUnit(0);
+			types.add(typeBuilder.build());
+		}
+		return createCarrier(network, numberOfServices, types, random);
+	}
+	
+	static Carrier createCarrier(Network network, int numberOfServices, List<CarrierVehicleType> types, Random random) {
+		int minimumCapacity = Integer.MAX_VALUE;
+		for(CarrierVehicleType type : types) {
+			minimumCapacity = Math.min(minimumCapacity, type.getCarrierVehicleCapacity());
+		}
+		//Every service fits into every vehicle type
+		int[] demands = new int[5];
+		for(int i = 0; i < demands.length; i++) {
+			demands[i] = Math.min((i + 1) * 1000, minimumCapacity);
+		}
+		SyntheticScenarioGenerator generator = new SyntheticScenarioGenerator(random.nextLong());
+		generator.setDemandDistribution(demands, new double[] {1, 1, 1, 1, 1});
+		return generator.createCarrier(network, types, numberOfServices, 1);
+	}
+	
+	//Fills randomly chosen vehicles with the services in random order and routes the tours
+	static CarrierPlan createPlan(Carrier carrier, TimeAndSpaceTourRouter router, Random random) {
+		List<CarrierVehicle> vehicleList = new ArrayList<>(carrier.getCarrierCapabilities().getCarrierVehicles());
+		List<CarrierService> services = new ArrayList<>(carrier.getServices());
+		Collections.shuffle(services, random);
+		ArrayList<ScheduledTour> scheduledTours = new ArrayList<>();
+		
+		int next = 0;
+		while(next < services.size()) {
+			CarrierVehicle vehicle = vehicleList.get(random.nextInt(vehicleList.size()));
+			int cumulativeCapacity = 0;
+			Tour.Builder tourBuilder = Tour.Builder.newInstance();
+			tourBuilder.scheduleStart(vehicle.getLocation());
+			while(next < services.size() && cumulativeCapacity + services.get(next).getCapacityDemand() <= vehicle.getVehicleType().getCarrierVehicleCapacity()) {
+				cumulativeCapacity = cumulativeCapacity + services.get(next).getCapacityDemand();
+				tourBuilder.addLeg(new Leg());
+				tourBuilder.scheduleService(services.get(next));
+				next++;
+			}
+			tourBuilder.addLeg(new Leg());
+			tourBuilder.scheduleEnd(vehicle.getLocation());
+			ScheduledTour scheduledTour = ScheduledTour.newInstance(tourBuilder.build(), vehicle, 0);
+			router.route(scheduledTour);
+			scheduledTours.add(scheduledTour);
+		}
+		return new CarrierPlan(carrier, scheduledTours);
+	}
+
+}
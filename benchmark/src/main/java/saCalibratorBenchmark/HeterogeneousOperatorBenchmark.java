@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibratorBenchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import saCalibrator.ExtendedCarrierPlan;
+import saCalibrator.OperationsWithHeterogeneusFleet;
+
+//The operators get a shallow copy of the plan like in the calibrator and route the tours they change
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HeterogeneousOperatorBenchmark {
+
+	@Benchmark
+	public ExtendedCarrierPlan switchShipmentWithinTour(HeterogeneousPlanState state) {
+		return OperationsWithHeterogeneusFleet.switchShipmentWithinTour(state.copier.makeShallowCopyOfPlan(state.plan), state.random, state.router);
+	}
+	
+	@Benchmark
+	public ExtendedCarrierPlan switchShipmentBetweenTours(HeterogeneousPlanState state) {
+		return OperationsWithHeterogeneusFleet.switchShipmentBetweenTours(state.copier.makeShallowCopyOfPlan(state.plan), state.random, state.router);
+	}
+	
+	@Benchmark
+	public ExtendedCarrierPlan moveShipmentToAnotherTour(HeterogeneousPlanState state) {
+		return OperationsWithHeterogeneusFleet.moveShipmentToAnotherTour(state.copier.makeShallowCopyOfPlan(state.plan), state.random, state.router);
+	}
+	
+	@Benchmark
+	public ExtendedCarrierPlan addFurtherVehicle(HeterogeneousPlanState state) {
+		return OperationsWithHeterogeneusFleet.addFurtherVehicle(state.copier.makeShallowCopyOfPlan(state.plan), state.random, state.router);
+	}
+	
+	@Benchmark
+	public ExtendedCarrierPlan exchangeVehicleType(HeterogeneousPlanState state) {
+		return OperationsWithHeterogeneusFleet.exchangeVehicleType(state.copier.makeShallowCopyOfPlan(state.plan), state.random, state.router);
+	}
+	
+	@Benchmark
+	public ExtendedCarrierPlan removeVehicle(HeterogeneousPlanState state) {
+		return OperationsWithHeterogeneusFleet.removeVehicle(state.copier.makeShallowCopyOfPlan(state.plan), state.random, state.router);
+	}
+
+}
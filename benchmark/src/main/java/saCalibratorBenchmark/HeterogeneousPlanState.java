@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibratorBenchmark;
+
+import java.util.Random;
+
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.freight.carrier.Carrier;
+import org.matsim.contrib.freight.router.TimeAndSpaceTourRouter;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import saCalibrator.CarrierPlanEvaluator;
+import saCalibrator.DefaultTourRouterFactory;
+import saCalibrator.ExtendedCarrierPlan;
+import saCalibrator.PlanCopier;
+
+//An evaluated plan and a reference plan of a synthetic carrier with two vehicle types. The random numbers of the operators
+//continue over the invocations, so every invocation modifies another part of the plan
+@State(Scope.Benchmark)
+public class HeterogeneousPlanState {
+
+	@Param({"20", "100", "1000", "10000"})
+	public int services;
+	
+	public Network network;
+	public Carrier carrier;
+	public TimeAndSpaceTourRouter router;
+	public CarrierPlanEvaluator evaluator;
+	public PlanCopier copier;
+	public ExtendedCarrierPlan plan;
+	public ExtendedCarrierPlan referencePlan;
+	public Random random;
+	
+	@Setup(Level.Trial)
+	public void setUp() {
+		random = new Random(1);
+		network = BenchmarkScenario.loadNetwork();
+		carrier = BenchmarkScenario.createCarrier(network, services, getNumberOfTypes(), random);
+		router = new DefaultTourRouterFactory(network, carrier).createTourRouter();
+		evaluator = new CarrierPlanEvaluator();
+		copier = new PlanCopier();
+		plan = evaluator.evaluateCarrierPlan(BenchmarkScenario.createPlan(carrier, router, random), network);
+		referencePlan = evaluator.evaluateCarrierPlan(BenchmarkScenario.createPlan(carrier, router, random), network);
+	}
+	
+	protected int getNumberOfTypes() {
+		return 2;
+	}
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibratorBenchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import saCalibrator.ExtendedCarrierPlan;
+import saCalibrator.OperationsWithHomogeneousFleet;
+
+//The operators get a shallow copy of the plan like in the calibrator, so the plan of the state stays the same
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HomogeneousOperatorBenchmark {
+
+	@Benchmark
+	public ExtendedCarrierPlan switchShipmentWithinTour(HomogeneousPlanState state) {
+		return OperationsWithHomogeneousFleet.switchShipmentWithinTour(state.copier.makeShallowCopyOfPlan(state.plan), state.random);
+	}
+	
+	@Benchmark
+	public ExtendedCarrierPlan switchShipmentBetweenTours(HomogeneousPlanState state) {
+		return OperationsWithHomogeneousFleet.switchShipmentBetweenTours(state.copier.makeShallowCopyOfPlan(state.plan), state.random);
+	}
+	
+	@Benchmark
+	public ExtendedCarrierPlan moveShipmentToAnotherTour(HomogeneousPlanState state) {
+		return OperationsWithHomogeneousFleet.moveShipmentToAnotherTour(state.copier.makeShallowCopyOfPlan(state.plan), state.random);
+	}
+	
+	@Benchmark
+	public ExtendedCarrierPlan addFurtherVehicle(HomogeneousPlanState state) {
+		return OperationsWithHomogeneousFleet.addFurtherVehicle(state.copier.makeShallowCopyOfPlan(state.plan), state.random);
+	}
+
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibratorBenchmark;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+//The same plans with a single vehicle type for the operators of a homogeneous fleet
+@State(Scope.Benchmark)
+public class HomogeneousPlanState extends HeterogeneousPlanState {
+
+	@Override
+	protected int getNumberOfTypes() {
+		return 1;
+	}
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibratorBenchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.contrib.freight.carrier.Carrier;
+import org.matsim.contrib.freight.carrier.CarrierVehicleType;
+import org.matsim.core.router.FastDijkstraFactory;
+import org.matsim.core.router.util.LeastCostPathCalculator;
+import org.matsim.core.router.util.LeastCostPathCalculator.Path;
+import org.matsim.core.router.util.TravelDisutility;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.vehicles.Vehicle;
+import org.matsim.vehicles.VehicleUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import saCalibrator.DefaultTravelCosts;
+import saCalibrator.DefaultTravelTime;
+import saCalibrator.LinkIndex;
+
+//Travel times and costs of single links and least cost paths as the path calculators of the routers request them.
+//The variant "link" reads the lengths and freespeeds from the links like the calibrator does, the variant "index" first finds
+//the number of the link in the LinkIndex and reads from its arrays. The link variant must not be slower
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LinkCostBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class LinkCostState {
+		
+		@Param({"link", "index"})
+		public String lookup;
+		
+		public Network network;
+		public Link[] links;
+		public Vehicle vehicle;
+		public TravelTime travelTime;
+		public TravelDisutility travelCosts;
+		public LeastCostPathCalculator pathCalculator;
+		public List<Link[]> linkPairs = new ArrayList<>();
+		public int nextPair;
+		
+		@Setup(Level.Trial)
+		public void setUp() {
+			Random random = new Random(1);
+			network = BenchmarkScenario.loadNetwork();
+			links = network.getLinks().values().toArray(new Link[0]);
+			Carrier carrier = BenchmarkScenario.createCarrier(network, 20, 2, random);
+			CarrierVehicleType type = carrier.getCarrierCapabilities().getVehicleTypes().iterator().next();
+			vehicle = VehicleUtils.getFactory().createVehicle(Id.createVehicleId("benchmark"), type);
+			if(lookup.equals("index")) {
+				travelTime = new IndexedTravelTime(LinkIndex.getLinkIndex(network));
+				travelCosts = new IndexedTravelCosts(travelTime, LinkIndex.getLinkIndex(network), type);
+			}
+			else {
+				travelTime = new DefaultTravelTime();
+				travelCosts = new DefaultTravelCosts(carrier, travelTime);
+			}
+			pathCalculator = new FastDijkstraFactory().createPathCalculator(network, travelCosts, travelTime);
+			for(int i = 0; i < 100; i++) {
+				linkPairs.add(new Link[] {links[random.nextInt(links.length)], links[random.nextInt(links.length)]});
+			}
+		}
+	}
+	
+	@Benchmark
+	public double getLinkTravelDisutility(LinkCostState state) {
+		double costs = 0;
+		for(Link link : state.links) {
+			costs = costs + state.travelCosts.getLinkTravelDisutility(link, 0, null, state.vehicle);
+		}
+		return costs;
+	}
+	
+	@Benchmark
+	public Path calcLeastCostPath(LinkCostState state) {
+		Link[] linkPair = state.linkPairs.get(state.nextPair);
+		state.nextPair = (state.nextPair + 1) % state.linkPairs.size();
+		return state.pathCalculator.calcLeastCostPath(linkPair[0].getToNode(), linkPair[1].getFromNode(), 0, null, state.vehicle);
+	}
+	
+	//Travel times read from the arrays of the index
+	private static class IndexedTravelTime implements TravelTime {
+		
+		private LinkIndex linkIndex;
+		
+		private IndexedTravelTime(LinkIndex linkIndex) {
+			this.linkIndex = linkIndex;
+		}
+
+		@Override
+		public double getLinkTravelTime(Link link, double time, Person person, Vehicle vehicle) {
+			int index = linkIndex.getIndex(link);
+			return linkIndex.getLength(index) / linkIndex.getFreespeed(index);
+		}
+	}
+	
+	//Costs of one vehicle type from the lengths of the index, the minimum costs are calculated in advance
+	private static class IndexedTravelCosts implements TravelDisutility {
+		
+		private TravelTime travelTime;
+		private LinkIndex linkIndex;
+		private double perMeter;
+		private double perSecond;
+		private double[] minimumDisutilities;
+		
+		private IndexedTravelCosts(TravelTime travelTime, LinkIndex linkIndex, CarrierVehicleType type) {
+			this.travelTime = travelTime;
+			this.linkIndex = linkIndex;
+			perMeter = type.getVehicleCostInformation().getPerDistanceUnit();
+			perSecond = type.getVehicleCostInformation().getPerTimeUnit();
+			minimumDisutilities = new double[linkIndex.getNumberOfLinks()];
+			for(int i = 0; i < minimumDisutilities.length; i++) {
+				minimumDisutilities[i] = perMeter * linkIndex.getLength(i) + perSecond * linkIndex.getLength(i) / linkIndex.getFreespeed(i);
+			}
+		}
+
+		@Override
+		public double getLinkTravelDisutility(Link link, double time, Person person, Vehicle vehicle) {
+			return perMeter * linkIndex.getLength(linkIndex.getIndex(link)) + perSecond * travelTime.getLinkTravelTime(link, time, person, vehicle);
+		}
+
+		@Override
+		public double getLinkMinimumTravelDisutility(Link link) {
+			return minimumDisutilities[linkIndex.getIndex(link)];
+		}
+	}
+
+}
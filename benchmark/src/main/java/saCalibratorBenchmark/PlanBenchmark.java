@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibratorBenchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import saCalibrator.CarrierPlanComparator;
+import saCalibrator.ExtendedCarrierPlan;
+
+//Evaluation, comparison and copying of a whole plan, which the calibrator does at least once per iteration
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlanBenchmark {
+
+	@Benchmark
+	public ExtendedCarrierPlan evaluateCarrierPlan(HeterogeneousPlanState state) {
+		return state.evaluator.evaluateCarrierPlan(state.plan, state.network);
+	}
+	
+	@Benchmark
+	public double getDistanceToBestPlan(HeterogeneousPlanState state) {
+		CarrierPlanComparator comparator = new CarrierPlanComparator();
+		comparator.setIncumbentPlan(state.referencePlan);
+		comparator.setEntrantPlan(state.plan);
+		return comparator.getDistanceToBestPlan();
+	}
+	
+	@Benchmark
+	public ExtendedCarrierPlan makeDeepCopyOfPlan(HeterogeneousPlanState state) {
+		return state.copier.makeDeepCopyOfPlan(state.plan);
+	}
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibratorBenchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.freight.carrier.Carrier;
+import org.matsim.contrib.freight.router.TimeAndSpaceTourRouter;
+
+import saCalibrator.Calibrator;
+import saCalibrator.CarrierPlanEvaluator;
+import saCalibrator.DefaultTourRouterFactory;
+import saCalibrator.ExtendedCarrierPlan;
+
+//Runs the complete two-level annealing for every combination of carrier size, number of vehicle types and grid size and writes
+//wall time, iterations per second, allocation rate, peak heap and final distance to the reference plan as JSON. The wall time includes the warmup,
+//which is also reported on its own. The iterations per second are taken over the annealing after the warmup, whose neighbors are not counted as iterations.
+//The matrix is set with the system properties benchmark.services, benchmark.types and benchmark.grids, the iterations of a run
+//with benchmark.iterations. The allocation rate is the one of the calibrating thread, the peak heap is the sum of the peaks of the heap pools
+public class ScalingBenchmark {
+
+	public static void main(String[] args) throws IOException {
+		int[] services = getValues("benchmark.services", "20,100,1000");
+		int[] types = getValues("benchmark.types", "1,2,5");
+		int[] grids = getValues("benchmark.grids", "10,20,40");
+		int iterations = Integer.parseInt(System.getProperty("benchmark.iterations", "2000"));
+		File resultFile = new File(args.length > 0 ? args[0] : "target/scaling.json");
+		
+		List<String> results = new ArrayList<>();
+		for(int gridSize : grids) {
+			Network network = BenchmarkScenario.createGridNetwork(gridSize);
+			for(int numberOfTypes : types) {
+				for(int numberOfServices : services) {
+					String result = run(network, gridSize, numberOfServices, numberOfTypes, iterations);
+					System.out.println(result);
+					results.add(result);
+				}
+			}
+		}
+		
+		if(resultFile.getParentFile() != null) {
+			resultFile.getParentFile().mkdirs();
+		}
+		try(PrintWriter writer = new PrintWriter(resultFile, "UTF-8")) {
+			writer.println("[");
+			for(int i = 0; i < results.size(); i++) {
+				writer.println("  " + results.get(i) + (i < results.size() - 1 ? "," : ""));
+			}
+			writer.println("]");
+		}
+	}
+	
+	private static String run(Network network, int gridSize, int numberOfServices, int numberOfTypes, int iterations) {
+		Random random = new Random(1);
+		Carrier carrier = BenchmarkScenario.createCarrier(network, numberOfServices, BenchmarkScenario.readVehicleTypes(numberOfTypes), random);
+		TimeAndSpaceTourRouter router = new DefaultTourRouterFactory(network, carrier).createTourRouter();
+		CarrierPlanEvaluator evaluator = new CarrierPlanEvaluator();
+		ExtendedCarrierPlan referencePlan = evaluator.evaluateCarrierPlan(BenchmarkScenario.createPlan(carrier, router, random), network);
+		ExtendedCarrierPlan initialPlan = evaluator.evaluateCarrierPlan(BenchmarkScenario.createPlan(carrier, router, random), network);
+		
+		Calibrator calibrator = new Calibrator(network, router, random);
+		calibrator.setRecordIterations(false);
+		calibrator.setMaxIterations(iterations);
+		
+		System.gc();
+		for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if(pool.getType() == MemoryType.HEAP) {
+				pool.resetPeakUsage();
+			}
+		}
+		long allocatedBytesBefore = getAllocatedBytes();
+		long start = System.nanoTime();
+		calibrator.run(initialPlan, referencePlan);
+		double seconds = (System.nanoTime() - start) / 1e9;
+		long allocatedBytes = allocatedBytesBefore < 0 ? -1 : getAllocatedBytes() - allocatedBytesBefore;
+		long peakHeap = 0;
+		for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if(pool.getType() == MemoryType.HEAP) {
+				peakHeap = peakHeap + pool.getPeakUsage().getUsed();
+			}
+		}
+		
+		double warmupSeconds = calibrator.getWarmupSeconds();
+		
+		return String.format(Locale.ROOT, "{\"gridSize\": %d, \"services\": %d, \"vehicleTypes\": %d, \"iterations\": %d, \"wallTimeSeconds\": %s, "
+				+ "\"warmupSeconds\": %s, \"iterationsPerSecond\": %s, \"allocationRateMBPerSecond\": %s, \"peakHeapMB\": %s, \"finalDistance\": %s}",
+				gridSize, numberOfServices, numberOfTypes, calibrator.getIterations(), toJson(seconds, "%.3f"), toJson(warmupSeconds, "%.3f"),
+				toJson(calibrator.getIterations() / (seconds - warmupSeconds), "%.1f"), toJson(allocatedBytes < 0 ? -1 : allocatedBytes / seconds / (1 << 20), "%.1f"),
+				toJson(peakHeap / (double) (1 << 20), "%.1f"), toJson(calibrator.getBestDistance(), "%.6f"));
+	}
+	
+	//JSON has no literals for NaN and infinity, such values are written as null
+	private static String toJson(double value, String format) {
+		if(Double.isNaN(value) || Double.isInfinite(value)) {
+			return "null";
+		}
+		return String.format(Locale.ROOT, format, value);
+	}
+	
+	//Returns -1 if the virtual machine does not measure the allocations of threads
+	private static long getAllocatedBytes() {
+		ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		if(threadBean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+	
+	private static int[] getValues(String property, String defaultValues) {
+		String[] values = System.getProperty(property, defaultValues).split(",");
+		int[] result = new int[values.length];
+		for(int i = 0; i < values.length; i++) {
+			result[i] = Integer.parseInt(values[i].trim());
+		}
+		return result;
+	}
+
+}
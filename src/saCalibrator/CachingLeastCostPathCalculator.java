@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.router.util.LeastCostPathCalculator;
+import org.matsim.vehicles.Vehicle;
+import org.matsim.vehicles.VehicleType;
+
+//Looks up paths in a leg route cache first and only searches the network for paths that are not cached yet
+public class CachingLeastCostPathCalculator implements LeastCostPathCalculator {
+
+	private LeastCostPathCalculator delegate;
+	private LegRouteCache cache;
+	
+	public CachingLeastCostPathCalculator(LeastCostPathCalculator delegate, LegRouteCache cache) {
+		this.delegate = delegate;
+		this.cache = cache;
+	}
+	
+	@Override
+	public Path calcLeastCostPath(Node fromNode, Node toNode, double starttime, Person person, Vehicle vehicle) {
+		Id<VehicleType> vehicleTypeId = vehicle == null ? null : vehicle.getType().getId();
+		Path path = cache.getPath(fromNode, toNode, vehicleTypeId, starttime);
+		if(path == null) {
+			path = delegate.calcLeastCostPath(fromNode, toNode, starttime, person, vehicle);
+			cache.putPath(fromNode, toNode, vehicleTypeId, starttime, path);
+		}
+		return path;
+	}
+
+}
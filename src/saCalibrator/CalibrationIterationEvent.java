@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+//Flight recorder event for one iteration of the inner loop of the calibrator. Like all events of the calibrator it is disabled by default
+//and has to be enabled by its name in the settings of a recording. A disabled event is neither timed nor filled
+@Name("saCalibrator.CalibrationIteration")
+@Label("Calibration Iteration")
+@Category({"TourCalibration", "Calibrator"})
+@Description("One iteration of the inner annealing loop")
+@Enabled(false)
+@StackTrace(false)
+class CalibrationIterationEvent extends Event {
+
+	@Label("Iteration")
+	long iteration;
+	
+	@Label("Inner Temperature")
+	double innerTemperature;
+	
+	@Label("Outer Temperature")
+	double outerTemperature;
+	
+	@Label("Inner Strategy")
+	int innerStrategy;
+	
+	@Label("Outer Strategy")
+	int outerStrategy;
+	
+	@Label("Accepted")
+	@Description("The neighbor became the current plan of the inner loop")
+	boolean accepted;
+	
+	@Label("Distance")
+	@Description("Distance of the neighbor to the reference plan")
+	double distance;
+	
+	@Label("Best Distance")
+	double bestDistance;
+
+}
@@ -0,0 +1,623 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.freight.router.TimeAndSpaceTourRouter;
+
+//Two-level simulated annealing: the outer loop modifies the fleet, the inner loop modifies the tours of the fleet chosen by the outer loop.
+//Every neighbor is evaluated exactly once and the distances of the current, best and best inner plan are kept, so no plan is evaluated twice.
+public class Calibrator {
+
+	private Network network;
+	private TimeAndSpaceTourRouter router;
+	private Random random;
+	private CarrierPlanEvaluator evaluator;
+	private CarrierPlanComparator comparator;
+	private PlanCopier copier;
+
+	private double alpha = 0.9;
+	private double initialAcceptanceProbability = 0.8;
+	private double finalAcceptanceProbability = 0.01;
+	private int warmupIterations = 100;
+	private int innerIterationsPerTemperature = 1;
+	private int outerIterationsPerTemperature = 15;
+	private int maxIterations = Integer.MAX_VALUE;
+	private int maxOuterIterations = Integer.MAX_VALUE;
+	private double distanceTolerance = 0.02;
+	private boolean recordIterations = false;
+	private boolean lazyRouting = false;
+	private IterationTraceSink traceSink;
+	private ParallelTourRouter parallelRouter;
+	private OperatorMetrics operatorMetrics;
+
+	private ArrayList<IterationInformation> infoList = new ArrayList<>();
+	private HashMap<Integer, Integer> outerStrategyMap = getInitialStrategyMap();
+	private int iteration;
+	private int outerIteration;
+	private int numberOfImprovements;
+	private double bestDistance;
+	private long warmupNanos;
+	private int lastStrategy;
+
+	public Calibrator(Network network, TimeAndSpaceTourRouter router, Random random) {
+		this.network = network;
+		this.router = router;
+		this.random = random;
+		this.evaluator = new CarrierPlanEvaluator();
+		this.comparator = new CarrierPlanComparator();
+		this.copier = new PlanCopier();
+	}
+
+	public ExtendedCarrierPlan run(ExtendedCarrierPlan initialPlan, ExtendedCarrierPlan referencePlan) {
+		if(lazyRouting && !(router instanceof MatrixTourRouter)) {
+			throw new IllegalStateException("lazy routing needs a MatrixTourRouter");
+		}
+		comparator.setIncumbentPlan(referencePlan);
+		//Every plan that becomes the best plan is materialized and compared with its network routes, the initial plan as well
+		initialPlan = materialize(initialPlan);
+		infoList.clear();
+		outerStrategyMap = getInitialStrategyMap();
+		iteration = 0;
+		outerIteration = 0;
+		numberOfImprovements = 0;
+
+		ExtendedCarrierPlan currentPlan = initialPlan;
+		ExtendedCarrierPlan currentBestPlan = initialPlan;
+		double currentBestDistance = getDistance(initialPlan);
+
+		if(recordIterations || traceSink != null) {
+			IterationInformation info = new IterationInformation();
+			info.setNumber(0);
+			info.setBestPlan(currentBestPlan);
+			info.setCurrentPlan(currentPlan);
+			record(info);
+		}
+
+		long warmupStart = System.nanoTime();
+		double innerAverageDisimprovement = getAverageInnerDisimprovement(initialPlan, currentBestDistance);
+		double initialInnerTemperature = getTemperature(innerAverageDisimprovement, initialAcceptanceProbability);
+		double endInnerTemperature = getTemperature(innerAverageDisimprovement, finalAcceptanceProbability);
+
+		double outerAverageDisimprovement = getAverageOuterDisimprovement(initialPlan, currentBestDistance, initialInnerTemperature, endInnerTemperature);
+		double initialOuterTemperature = getTemperature(outerAverageDisimprovement, initialAcceptanceProbability);
+		double endOuterTemperature = getTemperature(outerAverageDisimprovement, finalAcceptanceProbability);
+		warmupNanos = System.nanoTime() - warmupStart;
+		double t_outer = initialOuterTemperature;
+
+		int iterationAtCurrentTemperature = 0;
+		double minimumDistance = currentBestDistance;
+
+		while(t_outer > endOuterTemperature && minimumDistance >= distanceTolerance && iteration < maxIterations && outerIteration < maxOuterIterations) {
+			outerIteration++;
+			iterationAtCurrentTemperature++;
+
+			ExtendedCarrierPlan neighborPlan = materialize(createFleetNeighbor(currentPlan, outerStrategyMap));
+			int currentStrategy = lastStrategy;
+
+			double t_inner = initialInnerTemperature;
+			int iterationAtCurrentInnerTemperature = 0;
+			ExtendedCarrierPlan currentInnerPlan = neighborPlan;
+			ExtendedCarrierPlan currentBestInnerPlan = neighborPlan;
+			double currentBestInnerDistance = getDistance(neighborPlan);
+			HashMap<Integer, Integer> innerStrategyMap = getInitialStrategyMap();
+
+			while(t_inner > endInnerTemperature && iteration < maxIterations) {
+				iteration++;
+				iterationAtCurrentInnerTemperature++;
+				CalibrationIterationEvent iterationEvent = new CalibrationIterationEvent();
+				iterationEvent.begin();
+				boolean accepted = false;
+
+				ExtendedCarrierPlan innerNeighborPlan = createTourNeighbor(currentInnerPlan, innerStrategyMap);
+				int currentInnerStrategy = lastStrategy;
+				double distanceToNeighborPlan = getDistance(innerNeighborPlan);
+
+				//With lazy routing the distance of a neighbor is an estimate of the matrix. Before the neighbor can become a best plan
+				//it is materialized and decided on with the distance of its network routes, which may be worse than the estimate
+				if(lazyRouting && (distanceToNeighborPlan <= currentBestDistance || distanceToNeighborPlan <= currentBestInnerDistance)) {
+					innerNeighborPlan = materialize(innerNeighborPlan);
+					distanceToNeighborPlan = getDistance(innerNeighborPlan);
+				}
+
+				//Distance to best plan ever found is checked and updated
+				if(distanceToNeighborPlan < minimumDistance) {
+					minimumDistance = distanceToNeighborPlan;
+				}
+
+				//What to do if the found plan is better than the absolute best plan
+				if(distanceToNeighborPlan <= currentBestDistance) {
+					numberOfImprovements++;
+					increaseWeight(outerStrategyMap, currentStrategy);
+					increaseWeight(innerStrategyMap, currentInnerStrategy);
+					recordAcceptance(getTourOperator(currentInnerStrategy));
+					accepted = true;
+					currentBestPlan = innerNeighborPlan;
+					currentBestDistance = distanceToNeighborPlan;
+					currentInnerPlan = innerNeighborPlan;
+					currentBestInnerPlan = innerNeighborPlan;
+					currentBestInnerDistance = distanceToNeighborPlan;
+				}
+				//What to do if the found plan is at least better than the best plan in the current inner loop
+				else if(distanceToNeighborPlan <= currentBestInnerDistance) {
+					currentBestInnerPlan = innerNeighborPlan;
+					currentBestInnerDistance = distanceToNeighborPlan;
+					currentInnerPlan = innerNeighborPlan;
+					increaseWeight(innerStrategyMap, currentInnerStrategy);
+					recordAcceptance(getTourOperator(currentInnerStrategy));
+					accepted = true;
+				}
+				//What to do if the found plan is not an improvement in any respect
+				else {
+					double distanceOfDistances = Math.abs(currentBestDistance - distanceToNeighborPlan);
+					double rnd = random.nextDouble();
+					if(rnd < Math.exp((-1 * distanceOfDistances) / t_inner)) {
+						innerNeighborPlan = materialize(innerNeighborPlan);
+						currentInnerPlan = innerNeighborPlan;
+						recordAcceptance(getTourOperator(currentInnerStrategy));
+						accepted = true;
+					}
+				}
+
+				//Neighbors are never modified after their evaluation, so they are recorded without a copy
+				if(recordIterations || traceSink != null) {
+					IterationInformation information = new IterationInformation(false);
+					information.setNumber(iteration);
+					information.setInnerTemperature(t_inner);
+					information.setOuterTemperature(t_outer);
+					information.setInnerStrategy(currentInnerStrategy);
+					information.setOuterStrategy(currentStrategy);
+					information.setNeighborPlan(innerNeighborPlan);
+					information.setCurrentPlan(currentInnerPlan);
+					information.setBestPlan(currentBestPlan);
+					record(information);
+				}
+
+				iterationEvent.end();
+				if(iterationEvent.shouldCommit()) {
+					iterationEvent.iteration = iteration;
+					iterationEvent.innerTemperature = t_inner;
+					iterationEvent.outerTemperature = t_outer;
+					iterationEvent.innerStrategy = currentInnerStrategy;
+					iterationEvent.outerStrategy = currentStrategy;
+					iterationEvent.accepted = accepted;
+					iterationEvent.distance = distanceToNeighborPlan;
+					iterationEvent.bestDistance = currentBestDistance;
+					iterationEvent.commit();
+				}
+
+				//Determines how many iterations of the inner loop are performed at the current inner temperature
+				if(iterationAtCurrentInnerTemperature == innerIterationsPerTemperature) {
+					iterationAtCurrentInnerTemperature = 0;
+					t_inner = alpha * t_inner;
+				}
+			}
+
+			//The best plan of the inner loop is compared with the best overall plan. Both distances are already known.
+			//The fleet move counts as accepted if the best plan of its inner loop becomes the current plan
+			if(currentBestInnerDistance <= currentBestDistance) {
+				currentBestPlan = currentBestInnerPlan;
+				currentBestDistance = currentBestInnerDistance;
+				currentPlan = currentBestInnerPlan;
+				recordAcceptance(getFleetOperator(currentStrategy));
+			}
+			else {
+				double distanceOfDistances = Math.abs(currentBestDistance - currentBestInnerDistance);
+				double rnd = random.nextDouble();
+				if(rnd < Math.exp((-1 * distanceOfDistances) / t_outer)) {
+					currentPlan = currentBestInnerPlan;
+					recordAcceptance(getFleetOperator(currentStrategy));
+				}
+			}
+
+			//Determines how many iterations of the outer loop are performed at the current outer temperature
+			if(iterationAtCurrentTemperature == outerIterationsPerTemperature) {
+				iterationAtCurrentTemperature = 0;
+				t_outer = alpha * t_outer;
+			}
+		}
+
+		bestDistance = currentBestDistance;
+		return currentBestPlan;
+	}
+
+	//With lazy routing the neighbors only carry the routes of the distance matrix. Network routes are created when a plan may become the current or the best plan,
+	//so rejected neighbors never pay for them. The plan is evaluated again with the network routes. The plans of the warmup are never materialized
+	private ExtendedCarrierPlan materialize(ExtendedCarrierPlan plan) {
+		if(!lazyRouting) {
+			return plan;
+		}
+		return ((MatrixTourRouter) router).routeOnNetwork(plan, evaluator, network);
+	}
+
+
+	ExtendedCarrierPlan createTourNeighbor(ExtendedCarrierPlan plan, HashMap<Integer, Integer> strategyMap) {
+		int strategy = getNextStrategy(strategyMap);
+		ExtendedCarrierPlan neighborPlan = modifyTours(plan, strategy);
+
+		//If a service was to be switched between two tours, but this is not feasible, choose one of the other strategies
+		if(strategy == 2 && isUnchanged(neighborPlan)) {
+			if(random.nextDouble() < 0.5) {
+				strategy = 3;
+				neighborPlan = modifyTours(plan, strategy);
+				//If a service was to be moved to another tour and this is not feasible, switch two services in the same tour (works always)
+				if(isUnchanged(neighborPlan)) {
+					strategy = 1;
+					neighborPlan = modifyTours(plan, strategy);
+				}
+			}
+		}
+		//If a service was to be moved to another tour and this is not feasible, choose one of the other strategies
+		if(strategy == 3 && isUnchanged(neighborPlan)) {
+			if(random.nextDouble() < 0.5) {
+				strategy = 2;
+				neighborPlan = modifyTours(plan, strategy);
+				//If a service was to be switched between two tours, but this is not feasible, switch two services in the same tour (works always)
+				if(isUnchanged(neighborPlan)) {
+					strategy = 1;
+					neighborPlan = modifyTours(plan, strategy);
+				}
+			}
+		}
+
+		lastStrategy = strategy;
+		OperationsWithHeterogeneusFleet.removeEmptyTours(neighborPlan);
+		return evaluator.evaluateChangedTours(neighborPlan, plan, neighborPlan.getRemovedTours(), neighborPlan.getAddedTours(), network);
+	}
+
+	ExtendedCarrierPlan createFleetNeighbor(ExtendedCarrierPlan plan, HashMap<Integer, Integer> strategyMap) {
+		int strategy = getNextStrategy(strategyMap);
+		ExtendedCarrierPlan neighborPlan = modifyFleet(plan, strategy);
+
+		//If a vehicle was to be removed, but this was not feasible, choose one of the other strategies
+		if(strategy == 3 && isUnchanged(neighborPlan)) {
+			if(random.nextDouble() < 0.5) {
+				strategy = 1;
+			}
+			else {
+				strategy = 2;
+			}
+			neighborPlan = modifyFleet(plan, strategy);
+			//If a vehicle type was to be switched, but this was not feasible, add a further vehicle (works always, empty tours are removed later)
+			if(strategy == 2 && isUnchanged(neighborPlan)) {
+				strategy = 1;
+				neighborPlan = modifyFleet(plan, strategy);
+			}
+		}
+		//If a vehicle type was to be switched, but this was not feasible, choose one of the other strategies
+		if(strategy == 2 && isUnchanged(neighborPlan)) {
+			if(random.nextDouble() < 0.5) {
+				strategy = 1;
+			}
+			else {
+				strategy = 3;
+			}
+			neighborPlan = modifyFleet(plan, strategy);
+			//If a vehicle was to be removed, but this was not feasible, add a further vehicle (works always, empty tours are removed later)
+			if(strategy == 3 && isUnchanged(neighborPlan)) {
+				strategy = 1;
+				neighborPlan = modifyFleet(plan, strategy);
+			}
+		}
+
+		lastStrategy = strategy;
+		OperationsWithHeterogeneusFleet.removeEmptyTours(neighborPlan);
+		return evaluator.evaluateChangedTours(neighborPlan, plan, neighborPlan.getRemovedTours(), neighborPlan.getAddedTours(), network);
+	}
+
+	//With a trace sink the sink alone decides how many iterations are kept, the list would otherwise grow with every iteration
+	private void record(IterationInformation information) {
+		if(traceSink != null) {
+			traceSink.addIteration(information);
+		}
+		else if(recordIterations) {
+			infoList.add(information);
+		}
+	}
+
+	//The operators work on a copy that shares the unchanged tours with the plan, so the plan itself stays valid if the neighbor is rejected
+	private ExtendedCarrierPlan modifyTours(ExtendedCarrierPlan plan, int strategyNumber) {
+		long start = operatorMetrics != null ? System.nanoTime() : 0;
+		ExtendedCarrierPlan planCopy = copier.makeShallowCopyOfPlan(plan);
+		ExtendedCarrierPlan neighborPlan;
+		if(strategyNumber == 1) {
+			neighborPlan = AdaptiveOperationsWithHeterogeneusFleet.switchShipmentWithinTour(planCopy, random, router);
+		}
+		else if(strategyNumber == 2) {
+			neighborPlan = AdaptiveOperationsWithHeterogeneusFleet.switchShipmentBetweenTours(planCopy, random, router);
+		}
+		else {
+			neighborPlan = AdaptiveOperationsWithHeterogeneusFleet.moveShipmentToAnotherTour(planCopy, random, router);
+		}
+		if(operatorMetrics != null) {
+			operatorMetrics.recordCall(getTourOperator(strategyNumber), System.nanoTime() - start, isUnchanged(neighborPlan));
+		}
+		return neighborPlan;
+	}
+
+	private ExtendedCarrierPlan modifyFleet(ExtendedCarrierPlan plan, int strategyNumber) {
+		long start = operatorMetrics != null ? System.nanoTime() : 0;
+		ExtendedCarrierPlan planCopy = copier.makeShallowCopyOfPlan(plan);
+		ExtendedCarrierPlan neighborPlan;
+		if(strategyNumber == 1) {
+			neighborPlan = AdaptiveOperationsWithHeterogeneusFleet.addFurtherVehicle(planCopy, random, router, parallelRouter);
+		}
+		else if(strategyNumber == 2) {
+			neighborPlan = AdaptiveOperationsWithHeterogeneusFleet.exchangeVehicleType(planCopy, random, router);
+		}
+		else {
+			neighborPlan = AdaptiveOperationsWithHeterogeneusFleet.removeVehicle(planCopy, random, router, parallelRouter);
+		}
+		if(operatorMetrics != null) {
+			operatorMetrics.recordCall(getFleetOperator(strategyNumber), System.nanoTime() - start, isUnchanged(neighborPlan));
+		}
+		return neighborPlan;
+	}
+
+	//The strategy numbers 1 to 3 of the inner and the outer loop in the numbering of the operator metrics
+	private static int getTourOperator(int strategyNumber) {
+		return OperatorMetrics.SWITCH_SHIPMENT_WITHIN_TOUR + strategyNumber - 1;
+	}
+
+	private static int getFleetOperator(int strategyNumber) {
+		return OperatorMetrics.ADD_FURTHER_VEHICLE + strategyNumber - 1;
+	}
+
+	private void recordAcceptance(int operator) {
+		if(operatorMetrics != null) {
+			operatorMetrics.recordAcceptance(operator);
+		}
+	}
+
+	//An operator that is not feasible leaves all tours untouched, every operator that is feasible replaces at least one tour.
+	//The operators record the tours they replace, so the neighbor is not compared tour by tour with the plan
+	private boolean isUnchanged(ExtendedCarrierPlan neighborPlan) {
+		return neighborPlan.getRemovedTours().isEmpty() && neighborPlan.getAddedTours().isEmpty();
+	}
+
+	private double getAverageInnerDisimprovement(ExtendedCarrierPlan initialPlan, double initialDistance) {
+		double sumOfDisimprovements = 0;
+		int numberOfDisimprovements = 0;
+		ExtendedCarrierPlan currentPlan = initialPlan;
+		double currentBestDistance = initialDistance;
+		HashMap<Integer, Integer> innerStrategyMap = getInitialStrategyMap();
+
+		for(int i = 0; i < warmupIterations; i++) {
+			ExtendedCarrierPlan neighborPlan = createTourNeighbor(currentPlan, innerStrategyMap);
+			double distanceToNeighborPlan = getDistance(neighborPlan);
+			if(distanceToNeighborPlan > currentBestDistance) {
+				sumOfDisimprovements = sumOfDisimprovements + (distanceToNeighborPlan - currentBestDistance);
+				numberOfDisimprovements++;
+			}
+			else {
+				currentBestDistance = distanceToNeighborPlan;
+				increaseWeight(innerStrategyMap, lastStrategy);
+			}
+			currentPlan = neighborPlan;
+		}
+		return getAverage(sumOfDisimprovements, numberOfDisimprovements);
+	}
+
+	private double getAverageOuterDisimprovement(ExtendedCarrierPlan initialPlan, double initialDistance, double initialInnerTemperature, double endInnerTemperature) {
+		double sumOfDisimprovements = 0;
+		int numberOfDisimprovements = 0;
+		ExtendedCarrierPlan currentPlan = initialPlan;
+		double currentBestDistance = initialDistance;
+		HashMap<Integer, Integer> outerStrategyMap = getInitialStrategyMap();
+
+		for(int i = 0; i < warmupIterations; i++) {
+			ExtendedCarrierPlan neighborPlan = createFleetNeighbor(currentPlan, outerStrategyMap);
+			int currentOuterStrategy = lastStrategy;
+
+			ExtendedCarrierPlan currentInnerPlan = neighborPlan;
+			ExtendedCarrierPlan currentBestInnerPlan = neighborPlan;
+			double currentBestInnerDistance = getDistance(neighborPlan);
+			HashMap<Integer, Integer> innerStrategyMap = getInitialStrategyMap();
+
+			for(double t_inner = initialInnerTemperature; t_inner > endInnerTemperature; t_inner = alpha * t_inner) {
+				ExtendedCarrierPlan innerNeighborPlan = createTourNeighbor(currentInnerPlan, innerStrategyMap);
+				double distanceToNeighborPlan = getDistance(innerNeighborPlan);
+				if(distanceToNeighborPlan <= currentBestInnerDistance) {
+					currentBestInnerPlan = innerNeighborPlan;
+					currentBestInnerDistance = distanceToNeighborPlan;
+					currentInnerPlan = innerNeighborPlan;
+					increaseWeight(innerStrategyMap, lastStrategy);
+				}
+				else {
+					double distanceOfDistances = Math.abs(currentBestInnerDistance - distanceToNeighborPlan);
+					if(random.nextDouble() < Math.exp((-1 * distanceOfDistances) / t_inner)) {
+						currentInnerPlan = innerNeighborPlan;
+					}
+				}
+			}
+
+			if(currentBestInnerDistance > currentBestDistance) {
+				sumOfDisimprovements = sumOfDisimprovements + (currentBestInnerDistance - currentBestDistance);
+				numberOfDisimprovements++;
+			}
+			else {
+				currentBestDistance = currentBestInnerDistance;
+				increaseWeight(outerStrategyMap, currentOuterStrategy);
+			}
+			currentPlan = currentBestInnerPlan;
+		}
+		return getAverage(sumOfDisimprovements, numberOfDisimprovements);
+	}
+
+	//Without any disimprovement during the warmup the temperatures are derived from the stopping tolerance
+	private double getAverage(double sumOfDisimprovements, int numberOfDisimprovements) {
+		if(numberOfDisimprovements == 0) {
+			return distanceTolerance;
+		}
+		return sumOfDisimprovements / numberOfDisimprovements;
+	}
+
+	private double getTemperature(double averageDisimprovement, double acceptanceProbability) {
+		return (-1 * averageDisimprovement) / Math.log(acceptanceProbability);
+	}
+
+	//Derives the initial and the end temperature of the inner loop from the disimprovements of a warmup starting at the initial plan
+	double[] getInnerTemperatures(ExtendedCarrierPlan initialPlan) {
+		double innerAverageDisimprovement = getAverageInnerDisimprovement(initialPlan, getDistance(initialPlan));
+		return new double[] {getTemperature(innerAverageDisimprovement, initialAcceptanceProbability), getTemperature(innerAverageDisimprovement, finalAcceptanceProbability)};
+	}
+
+	void setReferencePlan(ExtendedCarrierPlan referencePlan) {
+		comparator.setIncumbentPlan(referencePlan);
+	}
+
+	double getDistance(ExtendedCarrierPlan plan) {
+		comparator.setEntrantPlan(plan);
+		return comparator.getDistanceToBestPlan();
+	}
+
+	HashMap<Integer, Integer> getInitialStrategyMap() {
+		HashMap<Integer, Integer> strategyMap = new HashMap<>();
+		for(int i = 1; i < 4; i++) {
+			strategyMap.put(i, 1);
+		}
+		return strategyMap;
+	}
+
+	void increaseWeight(HashMap<Integer, Integer> strategyMap, int strategy) {
+		strategyMap.put(strategy, strategyMap.get(strategy) + 1);
+	}
+
+	int getNextStrategy(HashMap<Integer, Integer> strategyMap) {
+		double allWeights = 0;
+		for(Entry<Integer, Integer> entry : strategyMap.entrySet()) {
+			allWeights = allWeights + entry.getValue();
+		}
+
+		double rnd = random.nextDouble();
+		double upperBound = 0;
+		int strategy = 0;
+		for(Entry<Integer, Integer> entry : strategyMap.entrySet()) {
+			strategy = entry.getKey();
+			upperBound = upperBound + (entry.getValue() / allWeights);
+			if(rnd < upperBound) {
+				return strategy;
+			}
+		}
+		return strategy;
+	}
+
+	int getLastStrategy() {
+		return lastStrategy;
+	}
+
+	//Empty if a trace sink is set, the recorded iterations are then kept by the sink
+	public ArrayList<IterationInformation> getIterationInformation() {
+		return infoList;
+	}
+
+	public HashMap<Integer, Integer> getOuterStrategyMap() {
+		return outerStrategyMap;
+	}
+
+	public int getIterations() {
+		return iteration;
+	}
+
+	public int getOuterIterations() {
+		return outerIteration;
+	}
+
+	public int getNumberOfImprovements() {
+		return numberOfImprovements;
+	}
+
+	public double getBestDistance() {
+		return bestDistance;
+	}
+
+	//Time of the warmup of the last run that estimates the temperatures, its neighbors are not counted as iterations
+	public double getWarmupSeconds() {
+		return warmupNanos / 1e9;
+	}
+
+	public void setAlpha(double alpha) {
+		this.alpha = alpha;
+	}
+
+	public void setInitialAcceptanceProbability(double initialAcceptanceProbability) {
+		this.initialAcceptanceProbability = initialAcceptanceProbability;
+	}
+
+	public void setFinalAcceptanceProbability(double finalAcceptanceProbability) {
+		this.finalAcceptanceProbability = finalAcceptanceProbability;
+	}
+
+	public void setWarmupIterations(int warmupIterations) {
+		this.warmupIterations = warmupIterations;
+	}
+
+	public void setInnerIterationsPerTemperature(int innerIterationsPerTemperature) {
+		this.innerIterationsPerTemperature = innerIterationsPerTemperature;
+	}
+
+	public void setOuterIterationsPerTemperature(int outerIterationsPerTemperature) {
+		this.outerIterationsPerTemperature = outerIterationsPerTemperature;
+	}
+
+	public void setMaxIterations(int maxIterations) {
+		this.maxIterations = maxIterations;
+	}
+
+	public void setMaxOuterIterations(int maxOuterIterations) {
+		this.maxOuterIterations = maxOuterIterations;
+	}
+
+	public void setDistanceTolerance(double distanceTolerance) {
+		this.distanceTolerance = distanceTolerance;
+	}
+
+	public void setRecordIterations(boolean recordIterations) {
+		this.recordIterations = recordIterations;
+	}
+
+	//Needs a MatrixTourRouter, see materialize
+	public void setLazyRouting(boolean lazyRouting) {
+		this.lazyRouting = lazyRouting;
+	}
+
+	public boolean isLazyRouting() {
+		return lazyRouting;
+	}
+
+	//Fleet moves that change several tours route them on the parallel router. Its routers must route like the router of the calibrator
+	public void setParallelRouter(ParallelTourRouter parallelRouter) {
+		this.parallelRouter = parallelRouter;
+	}
+
+	//The metrics may be shared by several calibrators. Without metrics the operators are not timed
+	public void setOperatorMetrics(OperatorMetrics operatorMetrics) {
+		this.operatorMetrics = operatorMetrics;
+	}
+
+	//Recorded iterations are passed to the sink instead of the list of iteration information, also if recordIterations is set
+	public void setTraceSink(IterationTraceSink traceSink) {
+		this.traceSink = traceSink;
+	}
+
+}
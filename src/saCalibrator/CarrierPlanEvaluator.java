@@ -1,215 +1,542 @@
-/*
- * Copyright (c) 2022 DLR Institute of Transport Research
- * All rights reserved.
- * 
- * This file is part of the "TourCalibration" tool
- * http://github.com/DLR-VF/TourCalibration
- * Licensed under the GNU General Public License v3.0
- * 
- * German Aerospace Center (DLR)
- * Institute of Transport Research (VF)
- * Rudower Chaussee 7
- * 12489 Berlin
- * Germany
- * http://www.dlr.de/vf
- */
-
-
-package saCalibrator;
-
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map.Entry;
-
-import org.matsim.api.core.v01.Id;
-import org.matsim.api.core.v01.network.Link;
-import org.matsim.api.core.v01.network.Network;
-import org.matsim.contrib.freight.carrier.CarrierPlan;
-import org.matsim.contrib.freight.carrier.ScheduledTour;
-import org.matsim.contrib.freight.carrier.Tour.End;
-import org.matsim.contrib.freight.carrier.Tour.Leg;
-import org.matsim.contrib.freight.carrier.Tour.ServiceActivity;
-import org.matsim.contrib.freight.carrier.Tour.Start;
-import org.matsim.contrib.freight.carrier.Tour.TourElement;
-import org.matsim.core.population.routes.NetworkRoute;
-import org.matsim.vehicles.VehicleType;
-
-
-
-
-public class CarrierPlanEvaluator {
-
-	public ExtendedCarrierPlan evaluateCarrierPlan(CarrierPlan plan, Network network) {
-		
-		ExtendedCarrierPlan extendedPlan = new ExtendedCarrierPlan(plan.getCarrier(), plan.getScheduledTours());
-		
-		extendedPlan.setNumberOfTours(plan.getScheduledTours().size());
-		extendedPlan.setAverageCapacityUtilization(calculateAverageUtilization(plan.getScheduledTours()));
-		extendedPlan.setAverageStopsPerTour(calculateAverageStopsPerTour(plan.getScheduledTours()));
-		extendedPlan.setAverageTourLength(calculateAverageTourLength(plan.getScheduledTours(), network));
-		extendedPlan.setAverageDistanceBetweenStops(calculateAverageDistanceBetweenStops(plan.getScheduledTours(), network));
-		extendedPlan.setOverallLength(calculateOverallLength(plan.getScheduledTours(), network));
-		extendedPlan.setVehicleMap(collectVehicleTypes(plan.getScheduledTours()));
-		return extendedPlan;
-	
-	}
-	
-	
-	private double calculateAverageUtilization(Collection<ScheduledTour> scheduledTours) {
-		double sumOfAverages = 0;
-		double numberOfTours = scheduledTours.size();
-		for(ScheduledTour scheduledTour : scheduledTours) {
-			double capacity = scheduledTour.getVehicle().getVehicleType().getCarrierVehicleCapacity();
-			double totalLoad = 0;
-			for(TourElement element : scheduledTour.getTour().getTourElements()) {
-				if(element instanceof ServiceActivity){
-					ServiceActivity service = (ServiceActivity) element;
-					totalLoad = totalLoad + service.getService().getCapacityDemand();
-				}
-			}
-			sumOfAverages = sumOfAverages + (totalLoad/capacity);
-		}
-		return sumOfAverages/numberOfTours;
-	}
-	
-	private double calculateAverageStopsPerTour(Collection<ScheduledTour> scheduledTours) {
-		double totalStops = 0;
-		double numberOfTours = scheduledTours.size();
-		for(ScheduledTour scheduledTour : scheduledTours) {
-			for(TourElement element : scheduledTour.getTour().getTourElements()) {
-				if(element instanceof ServiceActivity){
-					totalStops = totalStops + 1;
-				}
-			}
-		}
-		return totalStops/numberOfTours;
-	}
-	
-	private double calculateAverageTourLength(Collection<ScheduledTour> scheduledTours, Network network) {
-		double totalDistance = 0;
-		double numberOfTours = scheduledTours.size();
-		for(ScheduledTour scheduledTour : scheduledTours) {
-			for(TourElement element : scheduledTour.getTour().getTourElements()) {
-				if(element instanceof ServiceActivity){
-					ServiceActivity service = (ServiceActivity) element;
-					Link serviceLink = network.getLinks().get(service.getLocation());
-					totalDistance = totalDistance + serviceLink.getLength();
-				}
-				if(element instanceof Start) {
-					Start start = (Start) element;
-					Link startLink = network.getLinks().get(start.getLocation());
-					totalDistance = totalDistance + startLink.getLength();
-				}
-				if(element instanceof End) {
-					End end = (End) element;
-					Link endLink = network.getLinks().get(end.getLocation());
-					totalDistance = totalDistance + endLink.getLength();
-				}
-				if(element instanceof Leg) {
-					Leg leg = (Leg) element;
-					if(leg.getRoute() instanceof NetworkRoute) {
-						NetworkRoute netRoute = (NetworkRoute) leg.getRoute();	
-						for(Id<Link> linkId : netRoute.getLinkIds()) {
-							Link link = network.getLinks().get(linkId);
-							totalDistance = totalDistance + link.getLength();
-						}
-					}					
-				}
-			}
-		}
-		return totalDistance/numberOfTours;
-	}
-	
-	private double calculateOverallLength(Collection<ScheduledTour> scheduledTours, Network network) {
-		double totalDistance = 0;
-		for(ScheduledTour scheduledTour : scheduledTours) {
-			for(TourElement element : scheduledTour.getTour().getTourElements()) {
-				if(element instanceof ServiceActivity){
-					ServiceActivity service = (ServiceActivity) element;
-					Link serviceLink = network.getLinks().get(service.getLocation());
-					totalDistance = totalDistance + serviceLink.getLength();
-				}
-				if(element instanceof Start) {
-					Start start = (Start) element;
-					Link startLink = network.getLinks().get(start.getLocation());
-					totalDistance = totalDistance + startLink.getLength();
-				}
-				if(element instanceof End) {
-					End end = (End) element;
-					Link endLink = network.getLinks().get(end.getLocation());
-					totalDistance = totalDistance + endLink.getLength();
-				}
-				if(element instanceof Leg) {
-					Leg leg = (Leg) element;
-					if(leg.getRoute() instanceof NetworkRoute) {
-						NetworkRoute netRoute = (NetworkRoute) leg.getRoute();	
-						for(Id<Link> linkId : netRoute.getLinkIds()) {
-							Link link = network.getLinks().get(linkId);
-							totalDistance = totalDistance + link.getLength();
-						}
-					}					
-				}
-			}
-		}
-		return totalDistance;
-	}
-	
-	private double calculateAverageDistanceBetweenStops(Collection<ScheduledTour> scheduledTours, Network network) {
-		double totalDistance = 0;
-		double numberOfStops = 0;
-		for(ScheduledTour scheduledTour : scheduledTours) {
-			for(TourElement element : scheduledTour.getTour().getTourElements()) {
-				if(element instanceof ServiceActivity){
-					ServiceActivity service = (ServiceActivity) element;
-					Link serviceLink = network.getLinks().get(service.getLocation());
-					totalDistance = totalDistance + serviceLink.getLength();
-					numberOfStops = numberOfStops + 1;
-				}
-				if(element instanceof Leg) {
-					Leg leg = (Leg) element;
-					if(leg.getRoute() instanceof NetworkRoute) {
-						NetworkRoute netRoute = (NetworkRoute) leg.getRoute();	
-						for(Id<Link> linkId : netRoute.getLinkIds()) {
-							Link link = network.getLinks().get(linkId);
-							totalDistance = totalDistance + link.getLength();
-						}
-					}					
-				}
-			}
-		}
-		return totalDistance/numberOfStops;
-	}
-	
-	private HashMap<Id<VehicleType>, Double> collectVehicleTypes(Collection<ScheduledTour> scheduledTours){
-		HashMap<Id<VehicleType>, Double> vehicleMap = new HashMap<>();
-		
-		for(ScheduledTour scheduledTour : scheduledTours) {
-			if(vehicleMap.containsKey(scheduledTour.getVehicle().getVehicleType().getId())) {
-				double numberOfVehiclesBefore = vehicleMap.get(scheduledTour.getVehicle().getVehicleType().getId());
-				numberOfVehiclesBefore++;
-				vehicleMap.put(scheduledTour.getVehicle().getVehicleType().getId(), new Double(numberOfVehiclesBefore));
-			}
-			else {
-				vehicleMap.put(scheduledTour.getVehicle().getVehicleType().getId(), 1.0);
-			}
-		}
-		
-		double allVehicles = 0;
-		
-		for(Entry<Id<VehicleType>, Double> entry : vehicleMap.entrySet()) {
-			allVehicles = allVehicles + entry.getValue();
-		}
-		
-		for(Entry<Id<VehicleType>, Double> entry : vehicleMap.entrySet()) {
-			double absoluteValue = entry.getValue();
-			double relativeValue = entry.getValue()/allVehicles;
-			entry.setValue(relativeValue);
-		}
-		
-		return vehicleMap;
-	}
-
-
-}
-
-
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ * 
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ * 
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.freight.carrier.CarrierPlan;
+import org.matsim.contrib.freight.carrier.ScheduledTour;
+import org.matsim.contrib.freight.carrier.Tour.End;
+import org.matsim.contrib.freight.carrier.Tour.Leg;
+import org.matsim.contrib.freight.carrier.Tour.ServiceActivity;
+import org.matsim.contrib.freight.carrier.Tour.Start;
+import org.matsim.contrib.freight.carrier.Tour.TourElement;
+import org.matsim.core.population.routes.NetworkRoute;
+import org.matsim.vehicles.VehicleType;
+
+
+
+
+public class CarrierPlanEvaluator {
+
+	//Aggregates are cached per tour object. The operators never change a tour after it was routed but build a new one, so an aggregate stays valid as long as its tour lives
+	private Map<ScheduledTour, TourAggregate> aggregateCache = new WeakHashMap<>();
+	
+	private Network indexedNetwork;
+	private LinkIndex linkIndex;
+	
+	//If true, all key figures are collected in one pass over the plan. Otherwise every key figure is calculated in a pass of its own
+	private boolean fusedEvaluation = true;
+	
+	//Every delta evaluation adds and subtracts rounded sums. After this number of delta evaluations in a row the totals are summed up again from the aggregates of all tours, so the rounding errors do not accumulate
+	private int resummationInterval = 100;
+	
+	public ExtendedCarrierPlan evaluateCarrierPlan(CarrierPlan plan, Network network) {
+		PlanEvaluationEvent event = new PlanEvaluationEvent();
+		event.begin();
+		ExtendedCarrierPlan extendedPlan = fusedEvaluation ? evaluateInOnePass(plan, network) : evaluateInSeveralPasses(plan, network);
+		event.end();
+		if(event.shouldCommit()) {
+			event.tours = plan.getScheduledTours().size();
+			event.changedTours = -1;
+			event.commit();
+		}
+		return extendedPlan;
+	}
+	
+	private ExtendedCarrierPlan evaluateInSeveralPasses(CarrierPlan plan, Network network) {
+		ExtendedCarrierPlan extendedPlan = new ExtendedCarrierPlan(plan.getCarrier(), plan.getScheduledTours());
+		
+		extendedPlan.setNumberOfTours(plan.getScheduledTours().size());
+		extendedPlan.setAverageCapacityUtilization(calculateAverageUtilization(plan.getScheduledTours()));
+		extendedPlan.setAverageStopsPerTour(calculateAverageStopsPerTour(plan.getScheduledTours()));
+		extendedPlan.setAverageTourLength(calculateAverageTourLength(plan.getScheduledTours(), network));
+		extendedPlan.setAverageDistanceBetweenStops(calculateAverageDistanceBetweenStops(plan.getScheduledTours(), network));
+		extendedPlan.setOverallLength(calculateOverallLength(plan.getScheduledTours(), network));
+		extendedPlan.setVehicleMap(collectVehicleTypes(plan.getScheduledTours()));
+		setTotals(extendedPlan, plan.getScheduledTours(), network);
+		return extendedPlan;
+	
+	}
+	
+	//Sums up in the same order as the single calculations, so the results are exactly the same
+	private ExtendedCarrierPlan evaluateInOnePass(CarrierPlan plan, Network network) {
+		LinkIndex linkIndex = getLinkIndex(network);
+		double sumOfUtilizations = 0;
+		double totalStops = 0;
+		double totalDistance = 0;
+		double totalStopDistance = 0;
+		
+		//The vehicle types of a carrier are few, so they are counted in arrays instead of a map
+		int numberOfTypes = 0;
+		Object[] typeIds = new Object[4];
+		int[] typeCounts = new int[4];
+		
+		for(ScheduledTour scheduledTour : plan.getScheduledTours()) {
+			double capacity = scheduledTour.getVehicle().getVehicleType().getCarrierVehicleCapacity();
+			double totalLoad = 0;
+			for(TourElement element : scheduledTour.getTour().getTourElements()) {
+				if(element instanceof ServiceActivity){
+					ServiceActivity service = (ServiceActivity) element;
+					double length = linkIndex.getLength(service.getLocation());
+					totalLoad = totalLoad + service.getService().getCapacityDemand();
+					totalStops = totalStops + 1;
+					totalDistance = totalDistance + length;
+					totalStopDistance = totalStopDistance + length;
+				}
+				else if(element instanceof Leg) {
+					Leg leg = (Leg) element;
+					if(leg.getRoute() instanceof NetworkRoute) {
+						NetworkRoute netRoute = (NetworkRoute) leg.getRoute();	
+						for(Id<Link> linkId : netRoute.getLinkIds()) {
+							double length = linkIndex.getLength(linkId);
+							totalDistance = totalDistance + length;
+							totalStopDistance = totalStopDistance + length;
+						}
+					}
+					else if(leg.getRoute() != null && !Double.isNaN(leg.getRoute().getDistance())) {
+						//Legs routed on a distance matrix carry only their distance
+						totalDistance = totalDistance + leg.getRoute().getDistance();
+						totalStopDistance = totalStopDistance + leg.getRoute().getDistance();
+					}					
+				}
+				else if(element instanceof Start) {
+					totalDistance = totalDistance + linkIndex.getLength(((Start) element).getLocation());
+				}
+				else if(element instanceof End) {
+					totalDistance = totalDistance + linkIndex.getLength(((End) element).getLocation());
+				}
+			}
+			sumOfUtilizations = sumOfUtilizations + (totalLoad/capacity);
+			
+			Id<VehicleType> typeId = scheduledTour.getVehicle().getVehicleType().getId();
+			int typeIndex = 0;
+			while(typeIndex < numberOfTypes && typeIds[typeIndex] != typeId && !typeIds[typeIndex].equals(typeId)) {
+				typeIndex++;
+			}
+			if(typeIndex == numberOfTypes) {
+				if(numberOfTypes == typeIds.length) {
+					typeIds = Arrays.copyOf(typeIds, numberOfTypes * 2);
+					typeCounts = Arrays.copyOf(typeCounts, numberOfTypes * 2);
+				}
+				typeIds[typeIndex] = typeId;
+				numberOfTypes++;
+			}
+			typeCounts[typeIndex]++;
+		}
+		
+		double numberOfTours = plan.getScheduledTours().size();
+		ExtendedCarrierPlan extendedPlan = new ExtendedCarrierPlan(plan.getCarrier(), plan.getScheduledTours());
+		extendedPlan.setNumberOfTours(plan.getScheduledTours().size());
+		extendedPlan.setAverageCapacityUtilization(sumOfUtilizations/numberOfTours);
+		extendedPlan.setAverageStopsPerTour(totalStops/numberOfTours);
+		extendedPlan.setAverageTourLength(totalDistance/numberOfTours);
+		extendedPlan.setAverageDistanceBetweenStops(totalStopDistance/totalStops);
+		extendedPlan.setOverallLength(totalDistance);
+		
+		//Every tour has one vehicle, so the number of all vehicles is the number of tours
+		HashMap<Id<VehicleType>, Double> vehicleMap = new HashMap<>();
+		HashMap<Id<VehicleType>, Integer> vehicleCounts = new HashMap<>();
+		for(int i = 0; i < numberOfTypes; i++) {
+			@SuppressWarnings("unchecked")
+			Id<VehicleType> typeId = (Id<VehicleType>) typeIds[i];
+			vehicleMap.put(typeId, typeCounts[i]/numberOfTours);
+			vehicleCounts.put(typeId, typeCounts[i]);
+		}
+		extendedPlan.setVehicleMap(vehicleMap);
+		extendedPlan.setTotalCapacityUtilization(sumOfUtilizations);
+		extendedPlan.setTotalStops(totalStops);
+		extendedPlan.setTotalStopDistance(totalStopDistance);
+		extendedPlan.setVehicleCounts(vehicleCounts);
+		return extendedPlan;
+	}
+	
+	//Evaluates a plan that was derived from an already evaluated plan. Only the tours that are not contained in the base plan are scanned, the others are taken from the totals of the base plan 
+	public ExtendedCarrierPlan evaluateCarrierPlan(CarrierPlan plan, Network network, ExtendedCarrierPlan basePlan) {
+		if(basePlan == null || (basePlan.getVehicleCounts().isEmpty() && !basePlan.getScheduledTours().isEmpty())) {
+			return evaluateCarrierPlan(plan, network);
+		}
+		
+		Set<ScheduledTour> baseTours = Collections.newSetFromMap(new IdentityHashMap<ScheduledTour, Boolean>());
+		baseTours.addAll(basePlan.getScheduledTours());
+		Set<ScheduledTour> newTours = Collections.newSetFromMap(new IdentityHashMap<ScheduledTour, Boolean>());
+		newTours.addAll(plan.getScheduledTours());
+		
+		ArrayList<ScheduledTour> addedTours = new ArrayList<>();
+		for(ScheduledTour scheduledTour : plan.getScheduledTours()) {
+			if(!baseTours.contains(scheduledTour)) {
+				addedTours.add(scheduledTour);
+			}
+		}
+		ArrayList<ScheduledTour> removedTours = new ArrayList<>();
+		for(ScheduledTour scheduledTour : basePlan.getScheduledTours()) {
+			if(!newTours.contains(scheduledTour)) {
+				removedTours.add(scheduledTour);
+			}
+		}
+		return evaluateChangedTours(plan, basePlan, removedTours, addedTours, network);
+	}
+	
+	//Evaluates a plan that differs from the base plan only by the given tours. A base plan without totals is no base, the plan is then evaluated completely
+	public ExtendedCarrierPlan evaluateChangedTours(CarrierPlan plan, ExtendedCarrierPlan basePlan, Collection<ScheduledTour> removedTours, Collection<ScheduledTour> addedTours, Network network) {
+		if(basePlan.getVehicleCounts().isEmpty() && !basePlan.getScheduledTours().isEmpty()) {
+			return evaluateCarrierPlan(plan, network);
+		}
+		PlanEvaluationEvent event = new PlanEvaluationEvent();
+		event.begin();
+		int incrementalUpdates = basePlan.getIncrementalUpdates() + 1;
+		double totalCapacityUtilization = basePlan.getTotalCapacityUtilization();
+		double totalStops = basePlan.getTotalStops();
+		double totalStopDistance = basePlan.getTotalStopDistance();
+		double overallLength = basePlan.getOverallLength();
+		HashMap<Id<VehicleType>, Integer> vehicleCounts = new HashMap<>(basePlan.getVehicleCounts());
+		Collection<ScheduledTour> subtractedTours = removedTours;
+		Collection<ScheduledTour> summedTours = addedTours;
+		
+		if(incrementalUpdates >= resummationInterval) {
+			//The aggregates of the unchanged tours are cached, so summing them up does not scan any tour again
+			incrementalUpdates = 0;
+			totalCapacityUtilization = 0;
+			totalStops = 0;
+			totalStopDistance = 0;
+			overallLength = 0;
+			vehicleCounts.clear();
+			subtractedTours = Collections.emptyList();
+			summedTours = plan.getScheduledTours();
+		}
+		for(ScheduledTour scheduledTour : subtractedTours) {
+			TourAggregate aggregate = getTourAggregate(scheduledTour, network);
+			totalCapacityUtilization = totalCapacityUtilization - aggregate.getCapacityUtilization();
+			totalStops = totalStops - aggregate.stops;
+			totalStopDistance = totalStopDistance - aggregate.stopDistance;
+			overallLength = overallLength - aggregate.tourLength;
+			int numberOfVehicles = vehicleCounts.get(aggregate.vehicleTypeId) - 1;
+			if(numberOfVehicles == 0) {
+				vehicleCounts.remove(aggregate.vehicleTypeId);
+			}
+			else {
+				vehicleCounts.put(aggregate.vehicleTypeId, numberOfVehicles);
+			}
+		}
+		for(ScheduledTour scheduledTour : summedTours) {
+			TourAggregate aggregate = getTourAggregate(scheduledTour, network);
+			totalCapacityUtilization = totalCapacityUtilization + aggregate.getCapacityUtilization();
+			totalStops = totalStops + aggregate.stops;
+			totalStopDistance = totalStopDistance + aggregate.stopDistance;
+			overallLength = overallLength + aggregate.tourLength;
+			Integer numberOfVehicles = vehicleCounts.get(aggregate.vehicleTypeId);
+			vehicleCounts.put(aggregate.vehicleTypeId, numberOfVehicles == null ? 1 : numberOfVehicles + 1);
+		}
+		
+		ExtendedCarrierPlan extendedPlan = new ExtendedCarrierPlan(plan.getCarrier(), plan.getScheduledTours());
+		double numberOfTours = plan.getScheduledTours().size();
+		extendedPlan.setNumberOfTours(plan.getScheduledTours().size());
+		extendedPlan.setAverageCapacityUtilization(totalCapacityUtilization/numberOfTours);
+		extendedPlan.setAverageStopsPerTour(totalStops/numberOfTours);
+		extendedPlan.setAverageTourLength(overallLength/numberOfTours);
+		extendedPlan.setAverageDistanceBetweenStops(totalStopDistance/totalStops);
+		extendedPlan.setOverallLength(overallLength);
+		HashMap<Id<VehicleType>, Double> vehicleMap = new HashMap<>();
+		for(Entry<Id<VehicleType>, Integer> entry : vehicleCounts.entrySet()) {
+			vehicleMap.put(entry.getKey(), entry.getValue()/numberOfTours);
+		}
+		extendedPlan.setVehicleMap(vehicleMap);
+		extendedPlan.setTotalCapacityUtilization(totalCapacityUtilization);
+		extendedPlan.setTotalStops(totalStops);
+		extendedPlan.setTotalStopDistance(totalStopDistance);
+		extendedPlan.setVehicleCounts(vehicleCounts);
+		extendedPlan.setIncrementalUpdates(incrementalUpdates);
+		event.end();
+		if(event.shouldCommit()) {
+			event.tours = plan.getScheduledTours().size();
+			event.changedTours = removedTours.size() + addedTours.size();
+			event.commit();
+		}
+		return extendedPlan;
+	}
+	
+	private void setTotals(ExtendedCarrierPlan extendedPlan, Collection<ScheduledTour> scheduledTours, Network network) {
+		double totalCapacityUtilization = 0;
+		double totalStops = 0;
+		double totalStopDistance = 0;
+		HashMap<Id<VehicleType>, Integer> vehicleCounts = new HashMap<>();
+		for(ScheduledTour scheduledTour : scheduledTours) {
+			TourAggregate aggregate = getTourAggregate(scheduledTour, network);
+			totalCapacityUtilization = totalCapacityUtilization + aggregate.getCapacityUtilization();
+			totalStops = totalStops + aggregate.stops;
+			totalStopDistance = totalStopDistance + aggregate.stopDistance;
+			Integer numberOfVehicles = vehicleCounts.get(aggregate.vehicleTypeId);
+			vehicleCounts.put(aggregate.vehicleTypeId, numberOfVehicles == null ? 1 : numberOfVehicles + 1);
+		}
+		extendedPlan.setTotalCapacityUtilization(totalCapacityUtilization);
+		extendedPlan.setTotalStops(totalStops);
+		extendedPlan.setTotalStopDistance(totalStopDistance);
+		extendedPlan.setVehicleCounts(vehicleCounts);
+	}
+	
+	//Collects load, stops and distances of a tour in one pass over its elements
+	TourAggregate getTourAggregate(ScheduledTour scheduledTour, Network network) {
+		TourAggregate aggregate = aggregateCache.get(scheduledTour);
+		if(aggregate != null) {
+			return aggregate;
+		}
+		LinkIndex linkIndex = getLinkIndex(network);
+		aggregate = new TourAggregate();
+		aggregate.capacity = scheduledTour.getVehicle().getVehicleType().getCarrierVehicleCapacity();
+		aggregate.vehicleTypeId = scheduledTour.getVehicle().getVehicleType().getId();
+		for(TourElement element : scheduledTour.getTour().getTourElements()) {
+			if(element instanceof ServiceActivity){
+				ServiceActivity service = (ServiceActivity) element;
+				double length = linkIndex.getLength(service.getLocation());
+				aggregate.load = aggregate.load + service.getService().getCapacityDemand();
+				aggregate.stops = aggregate.stops + 1;
+				aggregate.tourLength = aggregate.tourLength + length;
+				aggregate.stopDistance = aggregate.stopDistance + length;
+			}
+			if(element instanceof Start) {
+				Start start = (Start) element;
+				aggregate.tourLength = aggregate.tourLength + linkIndex.getLength(start.getLocation());
+			}
+			if(element instanceof End) {
+				End end = (End) element;
+				aggregate.tourLength = aggregate.tourLength + linkIndex.getLength(end.getLocation());
+			}
+			if(element instanceof Leg) {
+				Leg leg = (Leg) element;
+				if(leg.getRoute() instanceof NetworkRoute) {
+					NetworkRoute netRoute = (NetworkRoute) leg.getRoute();	
+					for(Id<Link> linkId : netRoute.getLinkIds()) {
+						double length = linkIndex.getLength(linkId);
+						aggregate.tourLength = aggregate.tourLength + length;
+						aggregate.stopDistance = aggregate.stopDistance + length;
+					}
+				}
+				else if(leg.getRoute() != null && !Double.isNaN(leg.getRoute().getDistance())) {
+					aggregate.tourLength = aggregate.tourLength + leg.getRoute().getDistance();
+					aggregate.stopDistance = aggregate.stopDistance + leg.getRoute().getDistance();
+				}					
+			}
+		}
+		aggregateCache.put(scheduledTour, aggregate);
+		return aggregate;
+	}
+	
+	
+	private LinkIndex getLinkIndex(Network network) {
+		if(network != indexedNetwork) {
+			linkIndex = LinkIndex.getLinkIndex(network);
+			indexedNetwork = network;
+		}
+		return linkIndex;
+	}
+	
+	public boolean isFusedEvaluation() {
+		return fusedEvaluation;
+	}
+
+	public void setFusedEvaluation(boolean fusedEvaluation) {
+		this.fusedEvaluation = fusedEvaluation;
+	}
+	
+	public int getResummationInterval() {
+		return resummationInterval;
+	}
+
+	public void setResummationInterval(int resummationInterval) {
+		this.resummationInterval = resummationInterval;
+	}
+	
+	private double calculateAverageUtilization(Collection<ScheduledTour> scheduledTours) {
+		double sumOfAverages = 0;
+		double numberOfTours = scheduledTours.size();
+		for(ScheduledTour scheduledTour : scheduledTours) {
+			double capacity = scheduledTour.getVehicle().getVehicleType().getCarrierVehicleCapacity();
+			double totalLoad = 0;
+			for(TourElement element : scheduledTour.getTour().getTourElements()) {
+				if(element instanceof ServiceActivity){
+					ServiceActivity service = (ServiceActivity) element;
+					totalLoad = totalLoad + service.getService().getCapacityDemand();
+				}
+			}
+			sumOfAverages = sumOfAverages + (totalLoad/capacity);
+		}
+		return sumOfAverages/numberOfTours;
+	}
+	
+	private double calculateAverageStopsPerTour(Collection<ScheduledTour> scheduledTours) {
+		double totalStops = 0;
+		double numberOfTours = scheduledTours.size();
+		for(ScheduledTour scheduledTour : scheduledTours) {
+			for(TourElement element : scheduledTour.getTour().getTourElements()) {
+				if(element instanceof ServiceActivity){
+					totalStops = totalStops + 1;
+				}
+			}
+		}
+		return totalStops/numberOfTours;
+	}
+	
+	private double calculateAverageTourLength(Collection<ScheduledTour> scheduledTours, Network network) {
+		double totalDistance = 0;
+		double numberOfTours = scheduledTours.size();
+		for(ScheduledTour scheduledTour : scheduledTours) {
+			for(TourElement element : scheduledTour.getTour().getTourElements()) {
+				if(element instanceof ServiceActivity){
+					ServiceActivity service = (ServiceActivity) element;
+					Link serviceLink = network.getLinks().get(service.getLocation());
+					totalDistance = totalDistance + serviceLink.getLength();
+				}
+				if(element instanceof Start) {
+					Start start = (Start) element;
+					Link startLink = network.getLinks().get(start.getLocation());
+					totalDistance = totalDistance + startLink.getLength();
+				}
+				if(element instanceof End) {
+					End end = (End) element;
+					Link endLink = network.getLinks().get(end.getLocation());
+					totalDistance = totalDistance + endLink.getLength();
+				}
+				if(element instanceof Leg) {
+					Leg leg = (Leg) element;
+					if(leg.getRoute() instanceof NetworkRoute) {
+						NetworkRoute netRoute = (NetworkRoute) leg.getRoute();	
+						for(Id<Link> linkId : netRoute.getLinkIds()) {
+							Link link = network.getLinks().get(linkId);
+							totalDistance = totalDistance + link.getLength();
+						}
+					}
+					else if(leg.getRoute() != null && !Double.isNaN(leg.getRoute().getDistance())) {
+						totalDistance = totalDistance + leg.getRoute().getDistance();
+					}					
+				}
+			}
+		}
+		return totalDistance/numberOfTours;
+	}
+	
+	private double calculateOverallLength(Collection<ScheduledTour> scheduledTours, Network network) {
+		double totalDistance = 0;
+		for(ScheduledTour scheduledTour : scheduledTours) {
+			for(TourElement element : scheduledTour.getTour().getTourElements()) {
+				if(element instanceof ServiceActivity){
+					ServiceActivity service = (ServiceActivity) element;
+					Link serviceLink = network.getLinks().get(service.getLocation());
+					totalDistance = totalDistance + serviceLink.getLength();
+				}
+				if(element instanceof Start) {
+					Start start = (Start) element;
+					Link startLink = network.getLinks().get(start.getLocation());
+					totalDistance = totalDistance + startLink.getLength();
+				}
+				if(element instanceof End) {
+					End end = (End) element;
+					Link endLink = network.getLinks().get(end.getLocation());
+					totalDistance = totalDistance + endLink.getLength();
+				}
+				if(element instanceof Leg) {
+					Leg leg = (Leg) element;
+					if(leg.getRoute() instanceof NetworkRoute) {
+						NetworkRoute netRoute = (NetworkRoute) leg.getRoute();	
+						for(Id<Link> linkId : netRoute.getLinkIds()) {
+							Link link = network.getLinks().get(linkId);
+							totalDistance = totalDistance + link.getLength();
+						}
+					}
+					else if(leg.getRoute() != null && !Double.isNaN(leg.getRoute().getDistance())) {
+						totalDistance = totalDistance + leg.getRoute().getDistance();
+					}					
+				}
+			}
+		}
+		return totalDistance;
+	}
+	
+	private double calculateAverageDistanceBetweenStops(Collection<ScheduledTour> scheduledTours, Network network) {
+		double totalDistance = 0;
+		double numberOfStops = 0;
+		for(ScheduledTour scheduledTour : scheduledTours) {
+			for(TourElement element : scheduledTour.getTour().getTourElements()) {
+				if(element instanceof ServiceActivity){
+					ServiceActivity service = (ServiceActivity) element;
+					Link serviceLink = network.getLinks().get(service.getLocation());
+					totalDistance = totalDistance + serviceLink.getLength();
+					numberOfStops = numberOfStops + 1;
+				}
+				if(element instanceof Leg) {
+					Leg leg = (Leg) element;
+					if(leg.getRoute() instanceof NetworkRoute) {
+						NetworkRoute netRoute = (NetworkRoute) leg.getRoute();	
+						for(Id<Link> linkId : netRoute.getLinkIds()) {
+							Link link = network.getLinks().get(linkId);
+							totalDistance = totalDistance + link.getLength();
+						}
+					}
+					else if(leg.getRoute() != null && !Double.isNaN(leg.getRoute().getDistance())) {
+						totalDistance = totalDistance + leg.getRoute().getDistance();
+					}					
+				}
+			}
+		}
+		return totalDistance/numberOfStops;
+	}
+	
+	private HashMap<Id<VehicleType>, Double> collectVehicleTypes(Collection<ScheduledTour> scheduledTours){
+		HashMap<Id<VehicleType>, Double> vehicleMap = new HashMap<>();
+		
+		for(ScheduledTour scheduledTour : scheduledTours) {
+			if(vehicleMap.containsKey(scheduledTour.getVehicle().getVehicleType().getId())) {
+				double numberOfVehiclesBefore = vehicleMap.get(scheduledTour.getVehicle().getVehicleType().getId());
+				numberOfVehiclesBefore++;
+				vehicleMap.put(scheduledTour.getVehicle().getVehicleType().getId(), new Double(numberOfVehiclesBefore));
+			}
+			else {
+				vehicleMap.put(scheduledTour.getVehicle().getVehicleType().getId(), 1.0);
+			}
+		}
+		
+		double allVehicles = 0;
+		
+		for(Entry<Id<VehicleType>, Double> entry : vehicleMap.entrySet()) {
+			allVehicles = allVehicles + entry.getValue();
+		}
+		
+		for(Entry<Id<VehicleType>, Double> entry : vehicleMap.entrySet()) {
+			double absoluteValue = entry.getValue();
+			double relativeValue = entry.getValue()/allVehicles;
+			entry.setValue(relativeValue);
+		}
+		
+		return vehicleMap;
+	}
+
+
+}
+
+
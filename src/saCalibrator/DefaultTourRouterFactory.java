@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.freight.carrier.Carrier;
+import org.matsim.contrib.freight.router.TimeAndSpaceTourRouter;
+import org.matsim.core.router.FastDijkstraFactory;
+import org.matsim.core.router.util.LeastCostPathCalculator;
+import org.matsim.core.router.util.TravelTime;
+
+//Creates routers with the default travel costs of a carrier and travel times that respect the maximum velocities of its vehicle types.
+//The travel times are shared by all routers and must be thread-safe, every router gets its own path calculator.
+//Without a distance matrix the routers only search the legs of a tour that changed
+public class DefaultTourRouterFactory implements TourRouterFactory {
+
+	private Network network;
+	private Carrier carrier;
+	private TravelTime travelTime;
+	private LegRouteCache legRouteCache;
+	private ServiceDistanceMatrix distanceMatrix;
+	
+	public DefaultTourRouterFactory(Network network, Carrier carrier) {
+		this.network = network;
+		this.carrier = carrier;
+		this.travelTime = new TypeSpecificTravelTime(carrier);
+	}
+	
+	@Override
+	public TimeAndSpaceTourRouter createTourRouter() {
+		DefaultTravelCosts travelCosts = new DefaultTravelCosts(carrier, travelTime);
+		LeastCostPathCalculator pathCalculator = new FastDijkstraFactory().createPathCalculator(network, travelCosts, travelTime);
+		if(legRouteCache != null) {
+			pathCalculator = new CachingLeastCostPathCalculator(pathCalculator, legRouteCache);
+		}
+		if(distanceMatrix != null) {
+			return new MatrixTourRouter(pathCalculator, network, travelTime, travelCosts, distanceMatrix);
+		}
+		return new IncrementalTourRouter(pathCalculator, network, travelTime, travelCosts);
+	}
+	
+	//Replaces the type specific travel times, e.g. by a TimeBinnedTravelTime. A shared leg route cache then needs the time bins of the travel times
+	public void setTravelTime(TravelTime travelTime) {
+		this.travelTime = travelTime;
+	}
+	
+	public TravelTime getTravelTime() {
+		return travelTime;
+	}
+	
+	//All routers created afterwards share the cache
+	public void setLegRouteCache(LegRouteCache legRouteCache) {
+		this.legRouteCache = legRouteCache;
+	}
+	
+	public LegRouteCache getLegRouteCache() {
+		return legRouteCache;
+	}
+	
+	//If a matrix is set, all routers created afterwards route tours with the matrix instead of the network
+	public void setDistanceMatrix(ServiceDistanceMatrix distanceMatrix) {
+		this.distanceMatrix = distanceMatrix;
+	}
+	
+	public ServiceDistanceMatrix getDistanceMatrix() {
+		return distanceMatrix;
+	}
+
+}
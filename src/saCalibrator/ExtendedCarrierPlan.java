@@ -1,100 +1,196 @@
-/*
- * Copyright (c) 2022 DLR Institute of Transport Research
- * All rights reserved.
- * 
- * This file is part of the "TourCalibration" tool
- * http://github.com/DLR-VF/TourCalibration
- * Licensed under the GNU General Public License v3.0
- * 
- * German Aerospace Center (DLR)
- * Institute of Transport Research (VF)
- * Rudower Chaussee 7
- * 12489 Berlin
- * Germany
- * http://www.dlr.de/vf
- */
-
-package saCalibrator;
-
-import java.util.Collection;
-import java.util.HashMap;
-
-import org.matsim.api.core.v01.Id;
-import org.matsim.contrib.freight.carrier.Carrier;
-import org.matsim.contrib.freight.carrier.CarrierPlan;
-import org.matsim.contrib.freight.carrier.CarrierVehicle;
-import org.matsim.contrib.freight.carrier.ScheduledTour;
-import org.matsim.vehicles.VehicleType;
-
-public class ExtendedCarrierPlan extends CarrierPlan{
-
-	private double averageCapacityUtilization;
-	private int numberOfTours;
-	private double averageTourLength;
-	private double averageStopsPerTour;
-	private double averageDistanceBetweenStops;
-	private double overallLength;
-	private HashMap <Id<VehicleType> , Double> vehicleMap;
-	
-	public ExtendedCarrierPlan(Carrier carrier, Collection<ScheduledTour> scheduledTours) {
-		super(carrier, scheduledTours);
-		vehicleMap =new HashMap<>();
-	}
-
-	public double getAverageCapacityUtilization() {
-		return averageCapacityUtilization;
-	}
-
-	public int getNumberOfTours() {
-		return numberOfTours;
-	}
-
-	public double getAverageTourLength() {
-		return averageTourLength;
-	}
-
-	public double getAverageStopsPerTour() {
-		return averageStopsPerTour;
-	}
-
-	public double getAverageDistanceBetweenStops() {
-		return averageDistanceBetweenStops;
-	}
-
-	public void setAverageCapacityUtilization(double capacityUtilization) {
-		this.averageCapacityUtilization = capacityUtilization;
-	}
-
-	public void setNumberOfTours(int numberOfTours) {
-		this.numberOfTours = numberOfTours;
-	}
-
-	public void setAverageTourLength(double averageTourLength) {
-		this.averageTourLength = averageTourLength;
-	}
-
-	public void setAverageStopsPerTour(double averageStopsPerTour) {
-		this.averageStopsPerTour = averageStopsPerTour;
-	}
-
-	public void setAverageDistanceBetweenStops(double averageDistanceBetweenStops) {
-		this.averageDistanceBetweenStops = averageDistanceBetweenStops;
-	}
-
-	public double getOverallLength() {
-		return overallLength;
-	}
-
-	public void setOverallLength(double overallLength) {
-		this.overallLength = overallLength;
-	}
-
-	public HashMap<Id<VehicleType>, Double> getVehicleMap() {
-		return vehicleMap;
-	}
-
-	public void setVehicleMap(HashMap<Id<VehicleType>, Double> vehicleMap) {
-		this.vehicleMap = vehicleMap;
-	}
-	
-}
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ * 
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ * 
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+package saCalibrator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.contrib.freight.carrier.Carrier;
+import org.matsim.contrib.freight.carrier.CarrierPlan;
+import org.matsim.contrib.freight.carrier.CarrierVehicle;
+import org.matsim.contrib.freight.carrier.ScheduledTour;
+import org.matsim.vehicles.VehicleType;
+
+public class ExtendedCarrierPlan extends CarrierPlan{
+
+	private double averageCapacityUtilization;
+	private int numberOfTours;
+	private double averageTourLength;
+	private double averageStopsPerTour;
+	private double averageDistanceBetweenStops;
+	private double overallLength;
+	private HashMap <Id<VehicleType> , Double> vehicleMap;
+	
+	//Sums over all tours, the key figures above are derived from them. They allow to update the key figures when only some tours change
+	private double totalCapacityUtilization;
+	private double totalStops;
+	private double totalStopDistance;
+	private HashMap <Id<VehicleType> , Integer> vehicleCounts;
+	
+	//Number of delta evaluations since the totals were last summed up over all tours
+	private int incrementalUpdates;
+	
+	//Tours that were removed from or added to the plan since it was created. An operator working on a shallow copy records its changes here,
+	//so the neighbor can be evaluated without comparing all of its tours with the plan it was copied from
+	private ArrayList<ScheduledTour> removedTours;
+	private ArrayList<ScheduledTour> addedTours;
+	
+	public ExtendedCarrierPlan(Carrier carrier, Collection<ScheduledTour> scheduledTours) {
+		super(carrier, scheduledTours);
+		vehicleMap =new HashMap<>();
+		vehicleCounts = new HashMap<>();
+		removedTours = new ArrayList<>();
+		addedTours = new ArrayList<>();
+	}
+
+	public double getAverageCapacityUtilization() {
+		return averageCapacityUtilization;
+	}
+
+	public int getNumberOfTours() {
+		return numberOfTours;
+	}
+
+	public double getAverageTourLength() {
+		return averageTourLength;
+	}
+
+	public double getAverageStopsPerTour() {
+		return averageStopsPerTour;
+	}
+
+	public double getAverageDistanceBetweenStops() {
+		return averageDistanceBetweenStops;
+	}
+
+	public void setAverageCapacityUtilization(double capacityUtilization) {
+		this.averageCapacityUtilization = capacityUtilization;
+	}
+
+	public void setNumberOfTours(int numberOfTours) {
+		this.numberOfTours = numberOfTours;
+	}
+
+	public void setAverageTourLength(double averageTourLength) {
+		this.averageTourLength = averageTourLength;
+	}
+
+	public void setAverageStopsPerTour(double averageStopsPerTour) {
+		this.averageStopsPerTour = averageStopsPerTour;
+	}
+
+	public void setAverageDistanceBetweenStops(double averageDistanceBetweenStops) {
+		this.averageDistanceBetweenStops = averageDistanceBetweenStops;
+	}
+
+	public double getOverallLength() {
+		return overallLength;
+	}
+
+	public void setOverallLength(double overallLength) {
+		this.overallLength = overallLength;
+	}
+
+	public HashMap<Id<VehicleType>, Double> getVehicleMap() {
+		return vehicleMap;
+	}
+
+	public void setVehicleMap(HashMap<Id<VehicleType>, Double> vehicleMap) {
+		this.vehicleMap = vehicleMap;
+	}
+	
+	public double getTotalCapacityUtilization() {
+		return totalCapacityUtilization;
+	}
+
+	public void setTotalCapacityUtilization(double totalCapacityUtilization) {
+		this.totalCapacityUtilization = totalCapacityUtilization;
+	}
+
+	public double getTotalStops() {
+		return totalStops;
+	}
+
+	public void setTotalStops(double totalStops) {
+		this.totalStops = totalStops;
+	}
+
+	public double getTotalStopDistance() {
+		return totalStopDistance;
+	}
+
+	public void setTotalStopDistance(double totalStopDistance) {
+		this.totalStopDistance = totalStopDistance;
+	}
+
+	public HashMap<Id<VehicleType>, Integer> getVehicleCounts() {
+		return vehicleCounts;
+	}
+
+	public void setVehicleCounts(HashMap<Id<VehicleType>, Integer> vehicleCounts) {
+		this.vehicleCounts = vehicleCounts;
+	}
+
+	public int getIncrementalUpdates() {
+		return incrementalUpdates;
+	}
+
+	public void setIncrementalUpdates(int incrementalUpdates) {
+		this.incrementalUpdates = incrementalUpdates;
+	}
+	
+	//A tour that is added again after it was removed is no change at all
+	public void addScheduledTour(ScheduledTour scheduledTour) {
+		getScheduledTours().add(scheduledTour);
+		if(!removedTours.remove(scheduledTour)) {
+			addedTours.add(scheduledTour);
+		}
+	}
+	
+	public void addScheduledTours(Collection<ScheduledTour> scheduledTours) {
+		for(ScheduledTour scheduledTour : scheduledTours) {
+			addScheduledTour(scheduledTour);
+		}
+	}
+	
+	public void removeScheduledTour(ScheduledTour scheduledTour) {
+		if(!getScheduledTours().remove(scheduledTour)) {
+			return;
+		}
+		if(!addedTours.remove(scheduledTour)) {
+			removedTours.add(scheduledTour);
+		}
+	}
+	
+	public void removeScheduledTours(Collection<ScheduledTour> scheduledTours) {
+		for(ScheduledTour scheduledTour : scheduledTours) {
+			removeScheduledTour(scheduledTour);
+		}
+	}
+	
+	public List<ScheduledTour> getRemovedTours() {
+		return removedTours;
+	}
+	
+	public List<ScheduledTour> getAddedTours() {
+		return addedTours;
+	}
+	
+}
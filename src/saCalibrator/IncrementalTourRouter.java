@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.contrib.freight.carrier.ScheduledTour;
+import org.matsim.contrib.freight.carrier.Tour.Leg;
+import org.matsim.contrib.freight.carrier.Tour.ServiceActivity;
+import org.matsim.contrib.freight.carrier.Tour.TourElement;
+import org.matsim.contrib.freight.router.TimeAndSpaceTourRouter;
+import org.matsim.core.population.routes.NetworkRoute;
+import org.matsim.core.router.util.LeastCostPathCalculator;
+import org.matsim.core.router.util.TravelDisutility;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.vehicles.Vehicle;
+
+//Router that only searches the network for legs whose start or end changed. The operators copy the legs of the tour they modify, 
+//so a leg that still connects the same two locations carries its old route. The links of that route are taken over and only its travel time and costs
+//are calculated again for the new departure time. All other legs are searched with the path calculator.
+//Every route is marked with the vehicle it was searched for. A carrier vehicle has exactly one type, so a route is only taken over for the same vehicle
+//and therefore the same type. With time binned travel times the leg must also depart in the same time bin as before
+public class IncrementalTourRouter extends TimeAndSpaceTourRouter {
+
+	private Network network;
+	private ReusingPathCalculator pathCalculator;
+	
+	public IncrementalTourRouter(LeastCostPathCalculator router, Network network, TravelTime travelTime, TravelDisutility travelCosts) {
+		this(new ReusingPathCalculator(router, network, travelTime, travelCosts), network, travelTime);
+	}
+	
+	private IncrementalTourRouter(ReusingPathCalculator pathCalculator, Network network, TravelTime travelTime) {
+		super(pathCalculator, network, travelTime);
+		this.network = network;
+		this.pathCalculator = pathCalculator;
+	}
+	
+	@Override
+	public void route(ScheduledTour tour) {
+		Id<Vehicle> vehicleId = tour.getVehicle().getVehicleId();
+		Id<Link> currentLocation = tour.getTour().getStartLinkId();
+		List<TourElement> elements = tour.getTour().getTourElements();
+		for(int i = 0; i < elements.size(); i++) {
+			if(elements.get(i) instanceof ServiceActivity) {
+				currentLocation = ((ServiceActivity) elements.get(i)).getLocation();
+			}
+			else if(elements.get(i) instanceof Leg) {
+				Leg leg = (Leg) elements.get(i);
+				Id<Link> nextLocation;
+				if(i + 1 < elements.size() && elements.get(i + 1) instanceof ServiceActivity) {
+					nextLocation = ((ServiceActivity) elements.get(i + 1)).getLocation();
+				}
+				else {
+					nextLocation = tour.getTour().getEndLinkId();
+				}
+				if(leg.getRoute() instanceof NetworkRoute && !currentLocation.equals(nextLocation)
+						&& currentLocation.equals(leg.getRoute().getStartLinkId()) && nextLocation.equals(leg.getRoute().getEndLinkId())
+						&& vehicleId.equals(((NetworkRoute) leg.getRoute()).getVehicleId())) {
+					Node fromNode = network.getLinks().get(currentLocation).getToNode();
+					Node toNode = network.getLinks().get(nextLocation).getFromNode();
+					pathCalculator.addRoute(fromNode, toNode, ((NetworkRoute) leg.getRoute()).getLinkIds(), leg.getExpectedDepartureTime());
+				}
+			}
+		}
+		try {
+			super.route(tour);
+		}
+		finally {
+			pathCalculator.clearRoutes();
+		}
+		for(TourElement element : elements) {
+			if(element instanceof Leg && ((Leg) element).getRoute() instanceof NetworkRoute) {
+				((NetworkRoute) ((Leg) element).getRoute()).setVehicleId(vehicleId);
+			}
+		}
+	}
+	
+	public long getReusedLegs() {
+		return pathCalculator.reusedLegs;
+	}
+	
+	public long getSearchedLegs() {
+		return pathCalculator.searchedLegs;
+	}
+	
+	//Returns the path of a route taken over from the tour if there is one for the two nodes, otherwise the path is searched
+	private static class ReusingPathCalculator implements LeastCostPathCalculator {
+		
+		private LeastCostPathCalculator delegate;
+		private Network network;
+		private TravelTime travelTime;
+		private TravelDisutility travelCosts;
+		private ArrayList<Node> fromNodes = new ArrayList<>();
+		private ArrayList<Node> toNodes = new ArrayList<>();
+		private ArrayList<List<Id<Link>>> linkIds = new ArrayList<>();
+		private ArrayList<Double> departureTimes = new ArrayList<>();
+		private long reusedLegs;
+		private long searchedLegs;
+		
+		private ReusingPathCalculator(LeastCostPathCalculator delegate, Network network, TravelTime travelTime, TravelDisutility travelCosts) {
+			this.delegate = delegate;
+			this.network = network;
+			this.travelTime = travelTime;
+			this.travelCosts = travelCosts;
+		}
+		
+		private void addRoute(Node fromNode, Node toNode, List<Id<Link>> routeLinkIds, double departureTime) {
+			fromNodes.add(fromNode);
+			toNodes.add(toNode);
+			linkIds.add(routeLinkIds);
+			departureTimes.add(departureTime);
+		}
+		
+		private void clearRoutes() {
+			fromNodes.clear();
+			toNodes.clear();
+			linkIds.clear();
+			departureTimes.clear();
+		}
+		
+		//Time independent travel times give the same path at any time
+		private boolean isSameTimeBin(double departureTime, double starttime) {
+			if(!(travelTime instanceof TimeBinnedTravelTime)) {
+				return true;
+			}
+			TimeBinnedTravelTime timeBinnedTravelTime = (TimeBinnedTravelTime) travelTime;
+			return timeBinnedTravelTime.getBin(departureTime) == timeBinnedTravelTime.getBin(starttime);
+		}
+
+		@Override
+		public Path calcLeastCostPath(Node fromNode, Node toNode, double starttime, Person person, Vehicle vehicle) {
+			//A tour has a few dozen legs at most, so the routes are searched linearly
+			for(int i = 0; i < fromNodes.size(); i++) {
+				if(fromNodes.get(i) == fromNode && toNodes.get(i) == toNode) {
+					List<Id<Link>> routeLinkIds = linkIds.get(i);
+					double departureTime = departureTimes.get(i);
+					fromNodes.remove(i);
+					toNodes.remove(i);
+					linkIds.remove(i);
+					departureTimes.remove(i);
+					if(!isSameTimeBin(departureTime, starttime)) {
+						break;
+					}
+					reusedLegs++;
+					return createPath(fromNode, routeLinkIds, starttime, person, vehicle);
+				}
+			}
+			searchedLegs++;
+			return delegate.calcLeastCostPath(fromNode, toNode, starttime, person, vehicle);
+		}
+		
+		private Path createPath(Node fromNode, List<Id<Link>> routeLinkIds, double starttime, Person person, Vehicle vehicle) {
+			List<Node> nodes = new ArrayList<>(routeLinkIds.size() + 1);
+			List<Link> links = new ArrayList<>(routeLinkIds.size());
+			nodes.add(fromNode);
+			double time = starttime;
+			double cost = 0;
+			for(Id<Link> linkId : routeLinkIds) {
+				Link link = network.getLinks().get(linkId);
+				links.add(link);
+				nodes.add(link.getToNode());
+				cost = cost + travelCosts.getLinkTravelDisutility(link, time, person, vehicle);
+				time = time + travelTime.getLinkTravelTime(link, time, person, vehicle);
+			}
+			return new Path(nodes, links, time - starttime, cost);
+		}
+	}
+
+}
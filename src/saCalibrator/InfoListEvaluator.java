@@ -1,371 +1,279 @@
-/*
- * Copyright (c) 2022 DLR Institute of Transport Research
- * All rights reserved.
- * 
- * This file is part of the "TourCalibration" tool
- * http://github.com/DLR-VF/TourCalibration
- * Licensed under the GNU General Public License v3.0
- * 
- * German Aerospace Center (DLR)
- * Institute of Transport Research (VF)
- * Rudower Chaussee 7
- * 12489 Berlin
- * Germany
- * http://www.dlr.de/vf
- */
-
-
-package saCalibrator;
-
-import java.io.File;
-import java.util.ArrayList;
-
-import org.jfree.chart.ChartFactory;
-import org.jfree.chart.ChartUtils;
-import org.jfree.chart.JFreeChart;
-import org.jfree.chart.plot.PlotOrientation;
-import org.jfree.data.category.DefaultCategoryDataset;
-
-public class InfoListEvaluator {
-
-	private ArrayList<IterationInformation> infoList;
-	private ExtendedCarrierPlan referencePlan;
-	
-	public InfoListEvaluator(ArrayList<IterationInformation> infoList,ExtendedCarrierPlan referencePlan) {
-		this.infoList  = infoList;
-		this.referencePlan = referencePlan;
-	}
-	
-	private ArrayList<Double> distanceOfDistancesCurrent(){
-		ArrayList<Double> distances = new ArrayList<>();
-		for(IterationInformation info : infoList) {
-			distances.add(Math.abs((referencePlan.getOverallLength() - info.getCurrentPlan().getOverallLength())/referencePlan.getOverallLength()));
-		}
-		return distances;
-	}
-
-	private ArrayList<Double> distanceOfDistancesBest(){
-		ArrayList<Double> distances = new ArrayList<>();
-		for(IterationInformation info : infoList) {
-			distances.add(Math.abs((referencePlan.getOverallLength() - info.getBestPlan().getOverallLength())/referencePlan.getOverallLength()));
-		}
-		return distances;
-	}
-	
-	private ArrayList<Double> distanceOfAverageDistancesBest(){
-		ArrayList<Double> distances = new ArrayList<>();
-		for(IterationInformation info : infoList) {
-			distances.add(Math.abs((referencePlan.getAverageTourLength() - info.getBestPlan().getAverageTourLength())/referencePlan.getAverageTourLength()));
-		}
-		return distances;
-	}
-	
-	private ArrayList<Double> distanceOfBetweenDistancesBest(){
-		ArrayList<Double> distances = new ArrayList<>();
-		for(IterationInformation info : infoList) {
-			distances.add(Math.abs((referencePlan.getAverageDistanceBetweenStops() - info.getBestPlan().getAverageDistanceBetweenStops())/referencePlan.getAverageDistanceBetweenStops()));
-		}
-		return distances;
-	}
-	
-	private ArrayList<Double> distanceOfStopsBest(){
-		ArrayList<Double> distances = new ArrayList<>();
-		for(IterationInformation info : infoList) {
-			distances.add(Math.abs((referencePlan.getAverageStopsPerTour() - info.getBestPlan().getAverageStopsPerTour())/referencePlan.getAverageStopsPerTour()));
-		}
-		return distances;
-	}
-	
-	private ArrayList<Double> distanceOfToursBest(){
-		ArrayList<Double> distances = new ArrayList<>();
-		for(IterationInformation info : infoList) {
-			distances.add((double) Math.abs((referencePlan.getNumberOfTours() - info.getBestPlan().getNumberOfTours())/referencePlan.getNumberOfTours()));
-		}
-		return distances;
-	}
-	
-	private ArrayList<Double> distanceOfCapacitiesBest(){
-		ArrayList<Double> distances = new ArrayList<>();
-		for(IterationInformation info : infoList) {
-			distances.add(Math.abs((referencePlan.getAverageCapacityUtilization() - info.getBestPlan().getAverageCapacityUtilization())/referencePlan.getAverageCapacityUtilization()));
-		}
-		return distances;
-	}
-	
-	private ArrayList<Double> distanceOfVehicletypesBest(){
-		ArrayList<Double> distances = new ArrayList<>();
-		for(IterationInformation info : infoList) {
-			CarrierPlanComparator comparator = new CarrierPlanComparator();
-			
-			distances.add(comparator.getDistanceBetweenVehicleTypes(referencePlan, info.getBestPlan()));
-		}
-		return distances;
-	}
-	
-	
-	
-	private ArrayList<Double> distanceOfObjectiveFuntionsCurrent(){
-		ArrayList<Double> distances = new ArrayList<>();
-		CarrierPlanComparator comparator = new CarrierPlanComparator();
-		comparator.setIncumbentPlan(referencePlan);
-		for(IterationInformation info : infoList) {
-			comparator.setEntrantPlan(info.getCurrentPlan());
-			distances.add(comparator.getDistanceToBestPlan());
-		}
-		return distances;
-	}
-		
-	private ArrayList<Double> bestObjectiveFunctions(){
-		ArrayList<Double> objectives = new ArrayList<>();
-		CarrierPlanComparator comparator = new CarrierPlanComparator();
-		comparator.setIncumbentPlan(referencePlan);
-		for(IterationInformation info : infoList) {
-			comparator.setEntrantPlan(info.getBestPlan());
-			objectives.add(comparator.getDistanceToBestPlan());
-		}
-		return objectives;
-	}
-	
-	public void createOverallDistanceLineChart() throws Exception{
-		DefaultCategoryDataset line_chart_current = new DefaultCategoryDataset();
-		DefaultCategoryDataset line_chart_best = new DefaultCategoryDataset();
-		ArrayList<Double> distancesCurrent = distanceOfDistancesCurrent();
-		ArrayList<Double> distancesBest = distanceOfDistancesBest();
-		
-		int i = 1;
-		for(Double dist : distancesCurrent) {
-			line_chart_current.addValue(dist, "deviation of current to reference solution", i+"");	
-			i++;
-		}
-
-		i = 1;
-		for(Double dist : distancesBest) {
-			line_chart_best.addValue(dist, "deviation of best to reference solution", i+"");	
-			i++;
-		}
-		
-		
-		JFreeChart lineChartObject = ChartFactory.createLineChart(
-		         "Convergence of algorithm: Overall distance","Iteration",
-		         "Standardized absolute deviation of overall distances",
-		         line_chart_best,PlotOrientation.VERTICAL,
-		         true,true,false);
-
-		      int width = 640;    /* Width of the image */
-		      int height = 480;   /* Height of the image */ 
-		      File lineChart = new File( "output/OverallDistances.jpeg" ); 
-		      ChartUtils.saveChartAsJPEG(lineChart ,lineChartObject, width ,height);
-	 }
-
-	public void createDistanceBetweeenStopsLineChart() throws Exception{
-		DefaultCategoryDataset line_chart_current = new DefaultCategoryDataset();
-		DefaultCategoryDataset line_chart_best = new DefaultCategoryDataset();
-		//ArrayList<Double> distancesCurrent = distanceOfBetweenDistancesCurrent();
-		ArrayList<Double> distancesBest = distanceOfBetweenDistancesBest();
-		
-		/*int i = 1;
-		for(Double dist : distancesCurrent) {
-			line_chart_current.addValue(dist, "deviation of current to reference solution", i+"");	
-			i++;
-		}*/
-
-		int i = 1;
-		for(Double dist : distancesBest) {
-			line_chart_best.addValue(dist, "deviation of best to reference solution", i+"");	
-			i++;
-		}
-		
-		
-		JFreeChart lineChartObject = ChartFactory.createLineChart(
-		         "Convergence of algorithm: Distance between stops","Iteration",
-		         "Standardized absolute deviation of distance between stops",
-		         line_chart_best,PlotOrientation.VERTICAL,
-		         true,true,false);
-
-		      int width = 640;    /* Width of the image */
-		      int height = 480;   /* Height of the image */ 
-		      File lineChart = new File( "output/DistanceBetweenJobs.jpeg" ); 
-		      ChartUtils.saveChartAsJPEG(lineChart ,lineChartObject, width ,height);
-	 }
-	
-	public void createDistanceBetweeenNumberOfStopsLineChart() throws Exception{
-		DefaultCategoryDataset line_chart_current = new DefaultCategoryDataset();
-		DefaultCategoryDataset line_chart_best = new DefaultCategoryDataset();
-		//ArrayList<Double> distancesCurrent = distanceOfBetweenDistancesCurrent();
-		ArrayList<Double> distancesBest = distanceOfStopsBest();
-		
-		/*int i = 1;
-		for(Double dist : distancesCurrent) {
-			line_chart_current.addValue(dist, "deviation of current to reference solution", i+"");	
-			i++;
-		}*/
-
-		int i = 1;
-		for(Double dist : distancesBest) {
-			line_chart_best.addValue(dist, "deviation of best to reference solution", i+"");	
-			i++;
-		}
-		
-		
-		JFreeChart lineChartObject = ChartFactory.createLineChart(
-		         "Convergence of algorithm: Distance between number of stops","Iteration",
-		         "Standardized absolute deviation of distance between number of stops",
-		         line_chart_best,PlotOrientation.VERTICAL,
-		         true,true,false);
-
-		      int width = 640;    /* Width of the image */
-		      int height = 480;   /* Height of the image */ 
-		      File lineChart = new File( "output/DistanceBetweenNumberOfJobs.jpeg" ); 
-		      ChartUtils.saveChartAsJPEG(lineChart ,lineChartObject, width ,height);
-	 }
-	
-	public void createDistanceBetweeenCapacityUtilizationLineChart() throws Exception{
-		DefaultCategoryDataset line_chart_current = new DefaultCategoryDataset();
-		DefaultCategoryDataset line_chart_best = new DefaultCategoryDataset();
-		//ArrayList<Double> distancesCurrent = distanceOfBetweenDistancesCurrent();
-		ArrayList<Double> distancesBest = distanceOfCapacitiesBest();
-		
-		/*int i = 1;
-		for(Double dist : distancesCurrent) {
-			line_chart_current.addValue(dist, "deviation of current to reference solution", i+"");	
-			i++;
-		}*/
-
-		int i = 1;
-		for(Double dist : distancesBest) {
-			line_chart_best.addValue(dist, "deviation of best to reference solution", i+"");	
-			i++;
-		}
-		
-		
-		JFreeChart lineChartObject = ChartFactory.createLineChart(
-		         "Convergence of algorithm: Distance between capacity utilitzation","Iteration",
-		         "Standardized absolute deviation of distance between capacity utilitzation",
-		         line_chart_best,PlotOrientation.VERTICAL,
-		         true,true,false);
-
-		      int width = 640;    /* Width of the image */
-		      int height = 480;   /* Height of the image */ 
-		      File lineChart = new File( "output/DistanceBetweenCapacityUtilization.jpeg" ); 
-		      ChartUtils.saveChartAsJPEG(lineChart ,lineChartObject, width ,height);
-	 }
-	
-	public void createDistanceBetweeenNumberOfToursLineChart() throws Exception{
-		DefaultCategoryDataset line_chart_current = new DefaultCategoryDataset();
-		DefaultCategoryDataset line_chart_best = new DefaultCategoryDataset();
-		//ArrayList<Double> distancesCurrent = distanceOfBetweenDistancesCurrent();
-		ArrayList<Double> distancesBest = distanceOfToursBest();
-		
-		/*int i = 1;
-		for(Double dist : distancesCurrent) {
-			line_chart_current.addValue(dist, "deviation of current to reference solution", i+"");	
-			i++;
-		}*/
-
-		int i = 1;
-		for(Double dist : distancesBest) {
-			line_chart_best.addValue(dist, "deviation of best to reference solution", i+"");	
-			i++;
-		}
-		
-		
-		JFreeChart lineChartObject = ChartFactory.createLineChart(
-		         "Convergence of algorithm: Distance between number of tours","Iteration",
-		         "Standardized absolute deviation of distance between number of tours",
-		         line_chart_best,PlotOrientation.VERTICAL,
-		         true,true,false);
-
-		      int width = 640;    /* Width of the image */
-		      int height = 480;   /* Height of the image */ 
-		      File lineChart = new File( "output/DistanceBetweenNumberOfTours.jpeg" ); 
-		      ChartUtils.saveChartAsJPEG(lineChart ,lineChartObject, width ,height);
-	 }
-	
-	public void createDistanceBetweeenVehicleTypesLineChart() throws Exception{
-		DefaultCategoryDataset line_chart_current = new DefaultCategoryDataset();
-		DefaultCategoryDataset line_chart_best = new DefaultCategoryDataset();
-		//ArrayList<Double> distancesCurrent = distanceOfBetweenDistancesCurrent();
-		ArrayList<Double> distancesBest = distanceOfVehicletypesBest();
-		
-		/*int i = 1;
-		for(Double dist : distancesCurrent) {
-			line_chart_current.addValue(dist, "deviation of current to reference solution", i+"");	
-			i++;
-		}*/
-
-		int i = 1;
-		for(Double dist : distancesBest) {
-			line_chart_best.addValue(dist, "deviation of best to reference solution", i+"");	
-			i++;
-		}
-		
-		
-		JFreeChart lineChartObject = ChartFactory.createLineChart(
-		         "Convergence of algorithm: Distance between vehicle types","Iteration",
-		         "Standardized absolute deviation of distance between vehicle types",
-		         line_chart_best,PlotOrientation.VERTICAL,
-		         true,true,false);
-
-		      int width = 640;    /* Width of the image */
-		      int height = 480;   /* Height of the image */ 
-		      File lineChart = new File( "output/DistanceBetweenVehicleTypes.jpeg" ); 
-		      ChartUtils.saveChartAsJPEG(lineChart ,lineChartObject, width ,height);
-	 }
-	
-	public void createDistanceBetweeenAverageDistancesChart() throws Exception{
-		DefaultCategoryDataset line_chart_current = new DefaultCategoryDataset();
-		DefaultCategoryDataset line_chart_best = new DefaultCategoryDataset();
-		//ArrayList<Double> distancesCurrent = distanceOfBetweenDistancesCurrent();
-		ArrayList<Double> distancesBest = distanceOfAverageDistancesBest();
-		
-		/*int i = 1;
-		for(Double dist : distancesCurrent) {
-			line_chart_current.addValue(dist, "deviation of current to reference solution", i+"");	
-			i++;
-		}*/
-
-		int i = 1;
-		for(Double dist : distancesBest) {
-			line_chart_best.addValue(dist, "deviation of best to reference solution", i+"");	
-			i++;
-		}
-		
-		
-		JFreeChart lineChartObject = ChartFactory.createLineChart(
-		         "Convergence of algorithm: Distance between average distances","Iteration",
-		         "Standardized absolute deviation of distance between average distances",
-		         line_chart_best,PlotOrientation.VERTICAL,
-		         true,true,false);
-
-		      int width = 640;    /* Width of the image */
-		      int height = 480;   /* Height of the image */ 
-		      File lineChart = new File( "output/DistanceBetweenAverageDistances.jpeg" ); 
-		      ChartUtils.saveChartAsJPEG(lineChart ,lineChartObject, width ,height);
-	 }
-	
-	
-	public void createObjectiveFunctionLineChart() throws Exception{
-		DefaultCategoryDataset line_chart_dataset = new DefaultCategoryDataset();
-		ArrayList<Double> distances = bestObjectiveFunctions();
-		
-		int i = 1;
-		for(Double dist : distances) {
-			line_chart_dataset.addValue(dist, "objective function", i+"");	
-			i++;
-		}
-
-		
-		JFreeChart lineChartObject = ChartFactory.createLineChart(
-		         "Convergence of algorithm: Objective function","Iteration",
-		         "Objective function",
-		         line_chart_dataset,PlotOrientation.VERTICAL,
-		         true,true,false);
-
-		      int width = 640;    /* Width of the image */
-		      int height = 480;   /* Height of the image */ 
-		      File lineChart = new File( "output/ObjectiveFunctions.jpeg" ); 
-		      ChartUtils.saveChartAsJPEG(lineChart ,lineChartObject, width ,height);
-	 }		
-	
-	
-}
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ * 
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ * 
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartUtils;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+
+public class InfoListEvaluator {
+
+	private KpiTrace trace;
+	private ExtendedCarrierPlan referencePlan;
+	private File outputDirectory = new File("output");
+	private int maxPointsPerSeries = 2000;
+	
+	public InfoListEvaluator(ArrayList<IterationInformation> infoList,ExtendedCarrierPlan referencePlan) {
+		this(KpiTrace.fromIterations(infoList, referencePlan), referencePlan);
+	}
+	
+	//Evaluates the iterations kept by a trace sink. Only key figures of the plans are used, so the plans of a streamed trace are sufficient
+	public InfoListEvaluator(IterationTraceSink traceSink,ExtendedCarrierPlan referencePlan) {
+		this(traceSink instanceof KpiTrace ? (KpiTrace) traceSink : KpiTrace.fromIterations(traceSink.getIterations(), referencePlan), referencePlan);
+	}
+	
+	//All series are derived from the columns of the trace
+	public InfoListEvaluator(KpiTrace trace,ExtendedCarrierPlan referencePlan) {
+		this.trace = trace;
+		this.referencePlan = referencePlan;
+	}
+	
+	private double[] getRelativeDeviations(int column, double referenceValue) {
+		double[] values = trace.getColumn(column);
+		for(int i = 0; i < values.length; i++) {
+			values[i] = Math.abs((referenceValue - values[i])/referenceValue);
+		}
+		return values;
+	}
+	
+	private double[] distanceOfDistancesBest(){
+		return getRelativeDeviations(KpiTrace.BEST + KpiTrace.OVERALL_LENGTH, referencePlan.getOverallLength());
+	}
+	
+	private double[] distanceOfAverageDistancesBest(){
+		return getRelativeDeviations(KpiTrace.BEST + KpiTrace.AVERAGE_TOUR_LENGTH, referencePlan.getAverageTourLength());
+	}
+	
+	private double[] distanceOfBetweenDistancesBest(){
+		return getRelativeDeviations(KpiTrace.BEST + KpiTrace.AVERAGE_DISTANCE_BETWEEN_STOPS, referencePlan.getAverageDistanceBetweenStops());
+	}
+	
+	private double[] distanceOfStopsBest(){
+		return getRelativeDeviations(KpiTrace.BEST + KpiTrace.AVERAGE_STOPS_PER_TOUR, referencePlan.getAverageStopsPerTour());
+	}
+	
+	//The numbers of tours are compared as integers like before
+	private double[] distanceOfToursBest(){
+		double[] distances = trace.getColumn(KpiTrace.BEST + KpiTrace.NUMBER_OF_TOURS);
+		for(int i = 0; i < distances.length; i++) {
+			distances[i] = (double) Math.abs((referencePlan.getNumberOfTours() - (int) distances[i])/referencePlan.getNumberOfTours());
+		}
+		return distances;
+	}
+	
+	private double[] distanceOfCapacitiesBest(){
+		return getRelativeDeviations(KpiTrace.BEST + KpiTrace.AVERAGE_CAPACITY_UTILIZATION, referencePlan.getAverageCapacityUtilization());
+	}
+	
+	private double[] distanceOfVehicletypesBest(){
+		return trace.getColumn(KpiTrace.BEST + KpiTrace.VEHICLE_TYPE_DISTANCE);
+	}
+	
+	private double[] bestObjectiveFunctions(){
+		return trace.getColumn(KpiTrace.BEST + KpiTrace.DISTANCE_TO_REFERENCE);
+	}
+	
+	public void createOverallDistanceLineChart() throws Exception{
+		overallDistanceLineChart().save();
+	}
+	
+	public void createDistanceBetweeenStopsLineChart() throws Exception{
+		distanceBetweenStopsLineChart().save();
+	}
+	
+	public void createDistanceBetweeenNumberOfStopsLineChart() throws Exception{
+		distanceBetweenNumberOfStopsLineChart().save();
+	}
+	
+	public void createDistanceBetweeenCapacityUtilizationLineChart() throws Exception{
+		distanceBetweenCapacityUtilizationLineChart().save();
+	}
+	
+	public void createDistanceBetweeenNumberOfToursLineChart() throws Exception{
+		distanceBetweenNumberOfToursLineChart().save();
+	}
+	
+	public void createDistanceBetweeenVehicleTypesLineChart() throws Exception{
+		distanceBetweenVehicleTypesLineChart().save();
+	}
+	
+	public void createDistanceBetweeenAverageDistancesChart() throws Exception{
+		distanceBetweenAverageDistancesLineChart().save();
+	}
+	
+	public void createObjectiveFunctionLineChart() throws Exception{
+		objectiveFunctionLineChart().save();
+	}
+	
+	//Renders all charts at the same time on threads of their own, so the caller can go on while they are written. The series are taken from the trace
+	//before the method returns, iterations added afterwards are not plotted. The future completes when all charts are written or fails with the exception of a chart
+	public CompletableFuture<Void> createAllCharts(int numberOfThreads) {
+		if(System.getProperty("java.awt.headless") == null) {
+			System.setProperty("java.awt.headless", "true");
+		}
+		ArrayList<LineChart> charts = new ArrayList<>();
+		charts.add(overallDistanceLineChart());
+		charts.add(distanceBetweenStopsLineChart());
+		charts.add(distanceBetweenNumberOfStopsLineChart());
+		charts.add(distanceBetweenCapacityUtilizationLineChart());
+		charts.add(distanceBetweenNumberOfToursLineChart());
+		charts.add(distanceBetweenVehicleTypesLineChart());
+		charts.add(distanceBetweenAverageDistancesLineChart());
+		charts.add(objectiveFunctionLineChart());
+		
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, numberOfThreads));
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[charts.size()];
+		for(int i = 0; i < charts.size(); i++) {
+			final LineChart chart = charts.get(i);
+			futures[i] = CompletableFuture.runAsync(new Runnable() {
+				public void run() {
+					try {
+						chart.save();
+					}
+					catch(Exception e) {
+						throw new CompletionException(e);
+					}
+				}
+			}, executor);
+		}
+		CompletableFuture<Void> allCharts = CompletableFuture.allOf(futures);
+		allCharts.whenComplete(new BiConsumer<Void, Throwable>() {
+			public void accept(Void result, Throwable exception) {
+				executor.shutdown();
+			}
+		});
+		return allCharts;
+	}
+	
+	private LineChart overallDistanceLineChart() {
+		return new LineChart("Convergence of algorithm: Overall distance", "Standardized absolute deviation of overall distances", "deviation of best to reference solution", distanceOfDistancesBest(), "OverallDistances.jpeg");
+	}
+	
+	private LineChart distanceBetweenStopsLineChart() {
+		return new LineChart("Convergence of algorithm: Distance between stops", "Standardized absolute deviation of distance between stops", "deviation of best to reference solution", distanceOfBetweenDistancesBest(), "DistanceBetweenJobs.jpeg");
+	}
+	
+	private LineChart distanceBetweenNumberOfStopsLineChart() {
+		return new LineChart("Convergence of algorithm: Distance between number of stops", "Standardized absolute deviation of distance between number of stops", "deviation of best to reference solution", distanceOfStopsBest(), "DistanceBetweenNumberOfJobs.jpeg");
+	}
+	
+	private LineChart distanceBetweenCapacityUtilizationLineChart() {
+		return new LineChart("Convergence of algorithm: Distance between capacity utilitzation", "Standardized absolute deviation of distance between capacity utilitzation", "deviation of best to reference solution", distanceOfCapacitiesBest(), "DistanceBetweenCapacityUtilization.jpeg");
+	}
+	
+	private LineChart distanceBetweenNumberOfToursLineChart() {
+		return new LineChart("Convergence of algorithm: Distance between number of tours", "Standardized absolute deviation of distance between number of tours", "deviation of best to reference solution", distanceOfToursBest(), "DistanceBetweenNumberOfTours.jpeg");
+	}
+	
+	private LineChart distanceBetweenVehicleTypesLineChart() {
+		return new LineChart("Convergence of algorithm: Distance between vehicle types", "Standardized absolute deviation of distance between vehicle types", "deviation of best to reference solution", distanceOfVehicletypesBest(), "DistanceBetweenVehicleTypes.jpeg");
+	}
+	
+	private LineChart distanceBetweenAverageDistancesLineChart() {
+		return new LineChart("Convergence of algorithm: Distance between average distances", "Standardized absolute deviation of distance between average distances", "deviation of best to reference solution", distanceOfAverageDistancesBest(), "DistanceBetweenAverageDistances.jpeg");
+	}
+	
+	private LineChart objectiveFunctionLineChart() {
+		return new LineChart("Convergence of algorithm: Objective function", "Objective function", "objective function", bestObjectiveFunctions(), "ObjectiveFunctions.jpeg");
+	}
+	
+	//A chart with its series, the series and the numbers of its iterations are taken from the trace when the chart is created
+	private class LineChart {
+		
+		private String title;
+		private String valueAxisLabel;
+		private String seriesName;
+		private double[] iterations;
+		private double[] values;
+		private String fileName;
+		
+		private LineChart(String title, String valueAxisLabel, String seriesName, double[] values, String fileName) {
+			this.title = title;
+			this.valueAxisLabel = valueAxisLabel;
+			this.seriesName = seriesName;
+			this.iterations = trace.getColumn(KpiTrace.ITERATION);
+			this.values = values;
+			this.fileName = fileName;
+		}
+		
+		private void save() throws Exception {
+			saveLineChart(title, valueAxisLabel, seriesName, iterations, values, fileName);
+		}
+	}
+	
+	//The series is plotted over the numbers of the iterations with a numeric axis, a ring buffer therefore starts at the first iteration it kept.
+	//Long series are reduced to their minimum and maximum per bucket before plotting
+	private void saveLineChart(String title, String valueAxisLabel, String seriesName, double[] iterations, double[] values, String fileName) throws Exception{
+		XYSeries series = new XYSeries(seriesName, false, true);
+		int numberOfBuckets = Math.max(1, maxPointsPerSeries / 2);
+		int bucketSize = Math.max(1, (values.length + numberOfBuckets - 1) / numberOfBuckets);
+		for(int start = 0; start < values.length; start = start + bucketSize) {
+			int end = Math.min(values.length, start + bucketSize);
+			int minIndex = start;
+			int maxIndex = start;
+			for(int i = start + 1; i < end; i++) {
+				if(values[i] < values[minIndex]) {
+					minIndex = i;
+				}
+				if(values[i] > values[maxIndex]) {
+					maxIndex = i;
+				}
+			}
+			//Both extremes are added in the order of the iterations, so the line keeps its shape
+			int firstIndex = Math.min(minIndex, maxIndex);
+			int secondIndex = Math.max(minIndex, maxIndex);
+			series.add(iterations[firstIndex], values[firstIndex], false);
+			if(secondIndex != firstIndex) {
+				series.add(iterations[secondIndex], values[secondIndex], false);
+			}
+		}
+		XYSeriesCollection dataset = new XYSeriesCollection(series);
+		
+		JFreeChart lineChartObject = ChartFactory.createXYLineChart(
+		         title,"Iteration",
+		         valueAxisLabel,
+		         dataset,PlotOrientation.VERTICAL,
+		         true,true,false);
+
+		      int width = 640;    /* Width of the image */
+		      int height = 480;   /* Height of the image */ 
+		      File lineChart = new File(outputDirectory, fileName); 
+		      ChartUtils.saveChartAsJPEG(lineChart ,lineChartObject, width ,height);
+	}
+	
+	public void setOutputDirectory(File outputDirectory) {
+		this.outputDirectory = outputDirectory;
+	}
+	
+	//Upper bound of the points of a plotted series, longer series are downsampled
+	public void setMaxPointsPerSeries(int maxPointsPerSeries) {
+		this.maxPointsPerSeries = maxPointsPerSeries;
+	}
+	
+}
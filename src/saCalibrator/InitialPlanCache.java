@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.population.Route;
+import org.matsim.contrib.freight.carrier.Carrier;
+import org.matsim.contrib.freight.carrier.CarrierPlan;
+import org.matsim.contrib.freight.carrier.CarrierService;
+import org.matsim.contrib.freight.carrier.CarrierVehicle;
+import org.matsim.contrib.freight.carrier.CarrierVehicleType;
+import org.matsim.contrib.freight.carrier.ScheduledTour;
+import org.matsim.contrib.freight.carrier.Tour;
+import org.matsim.contrib.freight.carrier.Tour.Leg;
+import org.matsim.contrib.freight.carrier.Tour.ServiceActivity;
+import org.matsim.contrib.freight.carrier.Tour.TourElement;
+import org.matsim.core.population.routes.NetworkRoute;
+import org.matsim.core.population.routes.RouteUtils;
+import org.matsim.vehicles.VehicleType;
+
+//Persistent cache of the initial plans that are built with jsprit before the annealing starts. The plan of a carrier only depends on its
+//services, its vehicles and vehicle types and on the network, so the plans are stored under a SHA-256 hash of these inputs.
+//A cached plan keeps the order of the services, the vehicles, the departure times and the routes of the legs. The settings of the
+//solver are not part of the key, the cache directory has to be cleared if they change
+public class InitialPlanCache {
+
+	private static final int MAGIC_NUMBER = 0x504C414E;
+	private static final int VERSION = 1;
+	
+	private static final byte LEG = 0;
+	private static final byte SERVICE = 1;
+	
+	private static final byte NO_ROUTE = 0;
+	private static final byte NETWORK_ROUTE = 1;
+	private static final byte GENERIC_ROUTE = 2;
+	
+	private File cacheDirectory;
+	private boolean loadedFromCache;
+	
+	public InitialPlanCache(File cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+	}
+	
+	//Returns the cached plan or builds it with the solver and stores it
+	public CarrierPlan getPlan(Carrier carrier, Network network, Supplier<CarrierPlan> solver) throws IOException {
+		String key = getKey(carrier, network);
+		CarrierPlan plan = load(carrier, key);
+		if(plan != null) {
+			loadedFromCache = true;
+			return plan;
+		}
+		plan = solver.get();
+		store(plan, key);
+		loadedFromCache = false;
+		return plan;
+	}
+	
+	//True if the last plan was read from the cache
+	public boolean isLoadedFromCache() {
+		return loadedFromCache;
+	}
+	
+	public File getPlanFile(String key) {
+		return new File(cacheDirectory, key + ".plan");
+	}
+	
+	public String getKey(Carrier carrier, Network network) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch(NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+		OutputStream nullStream = new OutputStream() {
+			@Override
+			public void write(int b) {
+			}
+		};
+		try(DataOutputStream output = new DataOutputStream(new DigestOutputStream(nullStream, digest))) {
+			output.writeUTF(carrier.getId().toString());
+			output.writeInt(carrier.getServices().size());
+			for(CarrierService service : carrier.getServices()) {
+				output.writeUTF(service.getId().toString());
+				output.writeUTF(service.getLocationLinkId().toString());
+				output.writeInt(service.getCapacityDemand());
+				output.writeDouble(service.getServiceDuration());
+				output.writeDouble(service.getServiceStartTimeWindow().getStart());
+				output.writeDouble(service.getServiceStartTimeWindow().getEnd());
+			}
+			output.writeUTF(carrier.getCarrierCapabilities().getFleetSize().toString());
+			output.writeInt(carrier.getCarrierCapabilities().getCarrierVehicles().size());
+			for(CarrierVehicle vehicle : carrier.getCarrierCapabilities().getCarrierVehicles()) {
+				writeVehicle(output, vehicle);
+			}
+			output.writeInt(carrier.getCarrierCapabilities().getVehicleTypes().size());
+			for(CarrierVehicleType type : carrier.getCarrierCapabilities().getVehicleTypes()) {
+				output.writeUTF(type.getId().toString());
+				output.writeInt(type.getCarrierVehicleCapacity());
+				output.writeDouble(type.getMaximumVelocity());
+				output.writeDouble(type.getVehicleCostInformation().getFix());
+				output.writeDouble(type.getVehicleCostInformation().getPerDistanceUnit());
+				output.writeDouble(type.getVehicleCostInformation().getPerTimeUnit());
+			}
+			output.writeInt(network.getLinks().size());
+			for(Link link : network.getLinks().values()) {
+				output.writeUTF(link.getId().toString());
+				output.writeUTF(link.getFromNode().getId().toString());
+				output.writeUTF(link.getToNode().getId().toString());
+				output.writeDouble(link.getLength());
+				output.writeDouble(link.getFreespeed());
+				output.writeDouble(link.getCapacity());
+			}
+		}
+		catch(IOException e) {
+			throw new IllegalStateException(e);
+		}
+		StringBuilder key = new StringBuilder();
+		for(byte b : digest.digest()) {
+			key.append(String.format("%02x", b));
+		}
+		return key.toString();
+	}
+	
+	//Returns null if no plan is cached for the key
+	public CarrierPlan load(Carrier carrier, String key) throws IOException {
+		File planFile = getPlanFile(key);
+		if(!planFile.exists()) {
+			return null;
+		}
+		Map<Id<CarrierService>, CarrierService> services = new HashMap<>();
+		for(CarrierService service : carrier.getServices()) {
+			services.put(service.getId(), service);
+		}
+		Map<Id<VehicleType>, CarrierVehicleType> types = new HashMap<>();
+		for(CarrierVehicleType type : carrier.getCarrierCapabilities().getVehicleTypes()) {
+			types.put(type.getId(), type);
+		}
+		Map<String, CarrierVehicle> vehicles = new HashMap<>();
+		for(CarrierVehicle vehicle : carrier.getCarrierCapabilities().getCarrierVehicles()) {
+			vehicles.put(vehicle.getVehicleId().toString(), vehicle);
+		}
+		
+		try(DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(planFile.toPath())))) {
+			if(input.readInt() != MAGIC_NUMBER || input.readInt() != VERSION) {
+				return null;
+			}
+			boolean hasScore = input.readBoolean();
+			double score = input.readDouble();
+			int numberOfTours = input.readInt();
+			ArrayList<ScheduledTour> scheduledTours = new ArrayList<>(numberOfTours);
+			for(int i = 0; i < numberOfTours; i++) {
+				CarrierVehicle vehicle = readVehicle(input, vehicles, types);
+				double departureTime = input.readDouble();
+				Tour.Builder tourBuilder = Tour.Builder.newInstance();
+				tourBuilder.scheduleStart(Id.createLinkId(input.readUTF()));
+				int numberOfElements = input.readInt();
+				for(int j = 0; j < numberOfElements; j++) {
+					if(input.readByte() == LEG) {
+						tourBuilder.addLeg(readLeg(input));
+					}
+					else {
+						CarrierService service = services.get(Id.create(input.readUTF(), CarrierService.class));
+						if(service == null) {
+							return null;
+						}
+						tourBuilder.scheduleService(service);
+					}
+				}
+				tourBuilder.scheduleEnd(Id.createLinkId(input.readUTF()));
+				scheduledTours.add(ScheduledTour.newInstance(tourBuilder.build(), vehicle, departureTime));
+			}
+			CarrierPlan plan = new CarrierPlan(carrier, scheduledTours);
+			if(hasScore) {
+				plan.setScore(score);
+			}
+			return plan;
+		}
+	}
+	
+	//The plan is written to a temporary file of its own first, so a run that is aborted never leaves a broken plan behind
+	//and runs that store the same plan at the same time do not write into the same file
+	public void store(CarrierPlan plan, String key) throws IOException {
+		Files.createDirectories(cacheDirectory.toPath());
+		File planFile = getPlanFile(key);
+		Path temporaryFile = Files.createTempFile(cacheDirectory.toPath(), planFile.getName(), ".tmp");
+		try {
+			write(plan, temporaryFile);
+			Files.move(temporaryFile, planFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally {
+			Files.deleteIfExists(temporaryFile);
+		}
+	}
+	
+	private static void write(CarrierPlan plan, Path file) throws IOException {
+		try(DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+			output.writeInt(MAGIC_NUMBER);
+			output.writeInt(VERSION);
+			output.writeBoolean(plan.getScore() != null);
+			output.writeDouble(plan.getScore() != null ? plan.getScore() : 0);
+			output.writeInt(plan.getScheduledTours().size());
+			for(ScheduledTour scheduledTour : plan.getScheduledTours()) {
+				writeVehicle(output, scheduledTour.getVehicle());
+				output.writeDouble(scheduledTour.getDeparture());
+				output.writeUTF(scheduledTour.getTour().getStartLinkId().toString());
+				output.writeInt(scheduledTour.getTour().getTourElements().size());
+				for(TourElement element : scheduledTour.getTour().getTourElements()) {
+					if(element instanceof Leg) {
+						output.writeByte(LEG);
+						writeLeg(output, (Leg) element);
+					}
+					else {
+						output.writeByte(SERVICE);
+						output.writeUTF(((ServiceActivity) element).getService().getId().toString());
+					}
+				}
+				output.writeUTF(scheduledTour.getTour().getEndLinkId().toString());
+			}
+		}
+	}
+	
+	private static void writeVehicle(DataOutputStream output, CarrierVehicle vehicle) throws IOException {
+		output.writeUTF(vehicle.getVehicleId().toString());
+		output.writeUTF(vehicle.getLocation().toString());
+		output.writeUTF(vehicle.getVehicleTypeId().toString());
+		output.writeDouble(vehicle.getEarliestStartTime());
+		output.writeDouble(vehicle.getLatestEndTime());
+	}
+	
+	//The vehicles of the carrier are taken over if they match, other vehicles like the ones that jsprit adds to an infinite fleet are rebuilt
+	private static CarrierVehicle readVehicle(DataInputStream input, Map<String, CarrierVehicle> vehicles, Map<Id<VehicleType>, CarrierVehicleType> types) throws IOException {
+		String vehicleId = input.readUTF();
+		Id<Link> location = Id.createLinkId(input.readUTF());
+		Id<VehicleType> typeId = Id.create(input.readUTF(), VehicleType.class);
+		double earliestStart = input.readDouble();
+		double latestEnd = input.readDouble();
+		CarrierVehicle vehicle = vehicles.get(vehicleId);
+		if(vehicle != null && vehicle.getLocation().equals(location) && vehicle.getVehicleTypeId().equals(typeId)
+				&& vehicle.getEarliestStartTime() == earliestStart && vehicle.getLatestEndTime() == latestEnd) {
+			return vehicle;
+		}
+		CarrierVehicle.Builder vehicleBuilder = CarrierVehicle.Builder.newInstance(Id.createVehicleId(vehicleId), location);
+		vehicleBuilder.setEarliestStart(earliestStart);
+		vehicleBuilder.setLatestEnd(latestEnd);
+		vehicleBuilder.setType(types.get(typeId));
+		vehicleBuilder.setTypeId(typeId);
+		vehicle = vehicleBuilder.build();
+		vehicles.put(vehicleId, vehicle);
+		return vehicle;
+	}
+	
+	private static void writeLeg(DataOutputStream output, Leg leg) throws IOException {
+		output.writeDouble(leg.getExpectedDepartureTime());
+		output.writeDouble(leg.getExpectedTransportTime());
+		Route route = leg.getRoute();
+		if(route == null) {
+			output.writeByte(NO_ROUTE);
+			return;
+		}
+		if(route instanceof NetworkRoute) {
+			NetworkRoute networkRoute = (NetworkRoute) route;
+			output.writeByte(NETWORK_ROUTE);
+			output.writeInt(networkRoute.getLinkIds().size());
+			for(Id<Link> linkId : networkRoute.getLinkIds()) {
+				output.writeUTF(linkId.toString());
+			}
+		}
+		else {
+			output.writeByte(GENERIC_ROUTE);
+		}
+		output.writeUTF(route.getStartLinkId().toString());
+		output.writeUTF(route.getEndLinkId().toString());
+		output.writeDouble(route.getDistance());
+		output.writeDouble(route.getTravelTime());
+	}
+	
+	private static Leg readLeg(DataInputStream input) throws IOException {
+		Leg leg = new Leg();
+		leg.setDepartureTime(input.readDouble());
+		leg.setExpectedTransportTime(input.readDouble());
+		byte routeType = input.readByte();
+		if(routeType == NO_ROUTE) {
+			return leg;
+		}
+		List<Id<Link>> linkIds = new ArrayList<>();
+		if(routeType == NETWORK_ROUTE) {
+			int numberOfLinks = input.readInt();
+			for(int i = 0; i < numberOfLinks; i++) {
+				linkIds.add(Id.createLinkId(input.readUTF()));
+			}
+		}
+		Id<Link> startLinkId = Id.createLinkId(input.readUTF());
+		Id<Link> endLinkId = Id.createLinkId(input.readUTF());
+		Route route;
+		if(routeType == NETWORK_ROUTE) {
+			route = RouteUtils.createLinkNetworkRouteImpl(startLinkId, linkIds, endLinkId);
+		}
+		else {
+			route = RouteUtils.createGenericRouteImpl(startLinkId, endLinkId);
+		}
+		route.setDistance(input.readDouble());
+		route.setTravelTime(input.readDouble());
+		leg.setRoute(route);
+		return leg;
+	}
+
+}
@@ -1,70 +1,109 @@
-/*
- * Copyright (c) 2022 DLR Institute of Transport Research
- * All rights reserved.
- * 
- * This file is part of the "TourCalibration" tool
- * http://github.com/DLR-VF/TourCalibration
- * Licensed under the GNU General Public License v3.0
- * 
- * German Aerospace Center (DLR)
- * Institute of Transport Research (VF)
- * Rudower Chaussee 7
- * 12489 Berlin
- * Germany
- * http://www.dlr.de/vf
- */
-
-
-package saCalibrator;
-
-public class IterationInformation {
-
-	private int number;
-	private ExtendedCarrierPlan currentPlan;
-	private ExtendedCarrierPlan bestPlan;
-	private ExtendedCarrierPlan neighborPlan;
-	private PlanCopier copier;
-	private double innerTemperature;
-	private double outerTemperature;
-	
-	public IterationInformation() {
-		copier = new PlanCopier();
-	}
-	
-	public int getNumber() {
-		return number;
-	}
-	public void setNumber(int number) {
-		this.number = number;
-	}
-	public ExtendedCarrierPlan getCurrentPlan() {
-		return currentPlan;
-	}
-	public void setCurrentPlan(ExtendedCarrierPlan currentPlan) {
-		this.currentPlan = copier.makeDeepCopyOfPlan(currentPlan);
-	}
-	public ExtendedCarrierPlan getBestPlan() {
-		return bestPlan;
-	}
-	public void setBestPlan(ExtendedCarrierPlan bestPlan) {
-		this.bestPlan = copier.makeDeepCopyOfPlan(bestPlan);
-	}
-	public ExtendedCarrierPlan getNeighborPlan() {
-		return neighborPlan;
-	}
-	public void setNeighborPlan(ExtendedCarrierPlan neighborPlan) {
-		this.neighborPlan = copier.makeDeepCopyOfPlan(neighborPlan);
-	}
-	public double getInnerTemperature() {
-		return innerTemperature;
-	}
-	public void setInnerTemperature(double temperature) {
-		this.innerTemperature = temperature;
-	}
-	public double getOuterTemperature() {
-		return outerTemperature;
-	}
-	public void setOuterTemperature(double outerTemperature) {
-		this.outerTemperature = outerTemperature;
-	}	
-}
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ * 
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ * 
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+//Plans are recorded as snapshots that share their scheduled tours with the recorded plan. The operators never change a tour of a plan but replace it
+//by a new one, so a snapshot only needs its own list of tours. Callers that route the tours of a plan again after recording it have to copy the tours as well,
+//callers that never modify a plan after recording it can switch off even the copy of the list
+public class IterationInformation {
+
+	private int number;
+	private ExtendedCarrierPlan currentPlan;
+	private ExtendedCarrierPlan bestPlan;
+	private ExtendedCarrierPlan neighborPlan;
+	private PlanCopier copier;
+	private double innerTemperature;
+	private double outerTemperature;
+	private int innerStrategy;
+	private int outerStrategy;
+	private boolean copyPlans;
+	private boolean copyTours;
+	
+	public IterationInformation() {
+		this(true);
+	}
+	
+	public IterationInformation(boolean copyPlans) {
+		this(copyPlans, false);
+	}
+	
+	public IterationInformation(boolean copyPlans, boolean copyTours) {
+		copier = new PlanCopier();
+		this.copyPlans = copyPlans;
+		this.copyTours = copyTours;
+	}
+	
+	private ExtendedCarrierPlan makeSnapshot(ExtendedCarrierPlan plan) {
+		if(copyTours) {
+			return copier.makeDeepCopyOfPlan(plan);
+		}
+		if(!copyPlans) {
+			return plan;
+		}
+		return copier.makeShallowCopyOfPlan(plan);
+	}
+	
+	public int getNumber() {
+		return number;
+	}
+	public void setNumber(int number) {
+		this.number = number;
+	}
+	public ExtendedCarrierPlan getCurrentPlan() {
+		return currentPlan;
+	}
+	public void setCurrentPlan(ExtendedCarrierPlan currentPlan) {
+		this.currentPlan = makeSnapshot(currentPlan);
+	}
+	public ExtendedCarrierPlan getBestPlan() {
+		return bestPlan;
+	}
+	public void setBestPlan(ExtendedCarrierPlan bestPlan) {
+		this.bestPlan = makeSnapshot(bestPlan);
+	}
+	public ExtendedCarrierPlan getNeighborPlan() {
+		return neighborPlan;
+	}
+	public void setNeighborPlan(ExtendedCarrierPlan neighborPlan) {
+		this.neighborPlan = makeSnapshot(neighborPlan);
+	}
+	public double getInnerTemperature() {
+		return innerTemperature;
+	}
+	public void setInnerTemperature(double temperature) {
+		this.innerTemperature = temperature;
+	}
+	public double getOuterTemperature() {
+		return outerTemperature;
+	}
+	public void setOuterTemperature(double outerTemperature) {
+		this.outerTemperature = outerTemperature;
+	}	
+	public int getInnerStrategy() {
+		return innerStrategy;
+	}
+	public void setInnerStrategy(int innerStrategy) {
+		this.innerStrategy = innerStrategy;
+	}
+	public int getOuterStrategy() {
+		return outerStrategy;
+	}
+	public void setOuterStrategy(int outerStrategy) {
+		this.outerStrategy = outerStrategy;
+	}
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import java.io.Closeable;
+
+//Receives the information of every recorded iteration of a calibration. Implementations decide how much of it is kept,
+//so that the memory of a calibration does not grow with the number of iterations
+public interface IterationTraceSink extends Closeable {
+
+	public void addIteration(IterationInformation information);
+	
+	//The recorded iterations in the order they were added, as far as the sink keeps them
+	public Iterable<IterationInformation> getIterations();
+
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.contrib.freight.carrier.ScheduledTour;
+import org.matsim.vehicles.VehicleType;
+
+//Trace of a calibration with one primitive column per key figure. Every recorded iteration adds one row: the iteration, temperatures and strategies
+//and the key figures of the current, best and neighbor plan together with their distances to the reference plan. Plans that were not recorded are NaN.
+//The trace is the source of all charts and can be written to and read from a binary file, the file is read memory-mapped.
+public class KpiTrace implements IterationTraceSink {
+
+	public static final int ITERATION = 0;
+	public static final int INNER_TEMPERATURE = 1;
+	public static final int OUTER_TEMPERATURE = 2;
+	public static final int INNER_STRATEGY = 3;
+	public static final int OUTER_STRATEGY = 4;
+	
+	//Offsets of the plans, a column of a plan is the offset of the plan plus the key figure
+	public static final int CURRENT = 5;
+	public static final int BEST = 13;
+	public static final int NEIGHBOR = 21;
+	
+	public static final int NUMBER_OF_TOURS = 0;
+	public static final int AVERAGE_CAPACITY_UTILIZATION = 1;
+	public static final int AVERAGE_STOPS_PER_TOUR = 2;
+	public static final int AVERAGE_TOUR_LENGTH = 3;
+	public static final int AVERAGE_DISTANCE_BETWEEN_STOPS = 4;
+	public static final int OVERALL_LENGTH = 5;
+	public static final int VEHICLE_TYPE_DISTANCE = 6;
+	public static final int DISTANCE_TO_REFERENCE = 7;
+	
+	public static final int NUMBER_OF_COLUMNS = 29;
+	
+	private static final int MAGIC_NUMBER = 0x4B504954;
+	private static final int VERSION = 1;
+	
+	private ExtendedCarrierPlan referencePlan;
+	private CarrierPlanComparator comparator;
+	private double[][] columns;
+	private int size;
+	
+	public KpiTrace(ExtendedCarrierPlan referencePlan) {
+		this(referencePlan, 1024);
+	}
+	
+	public KpiTrace(ExtendedCarrierPlan referencePlan, int initialCapacity) {
+		this.referencePlan = referencePlan;
+		this.comparator = new CarrierPlanComparator();
+		comparator.setIncumbentPlan(referencePlan);
+		columns = new double[NUMBER_OF_COLUMNS][Math.max(1, initialCapacity)];
+	}
+	
+	private KpiTrace(double[][] columns, int size) {
+		this.columns = columns;
+		this.size = size;
+	}
+	
+	//Collects the trace of iterations that were recorded as plans
+	public static KpiTrace fromIterations(Iterable<IterationInformation> iterations, ExtendedCarrierPlan referencePlan) {
+		KpiTrace trace = new KpiTrace(referencePlan);
+		for(IterationInformation information : iterations) {
+			trace.addIteration(information);
+		}
+		return trace;
+	}
+	
+	@Override
+	public void addIteration(IterationInformation information) {
+		if(referencePlan == null) throw new IllegalStateException("a trace that was read from a file can not be extended");
+		if(size == columns[0].length) {
+			for(int i = 0; i < NUMBER_OF_COLUMNS; i++) {
+				columns[i] = Arrays.copyOf(columns[i], size * 2);
+			}
+		}
+		columns[ITERATION][size] = information.getNumber();
+		columns[INNER_TEMPERATURE][size] = information.getInnerTemperature();
+		columns[OUTER_TEMPERATURE][size] = information.getOuterTemperature();
+		columns[INNER_STRATEGY][size] = information.getInnerStrategy();
+		columns[OUTER_STRATEGY][size] = information.getOuterStrategy();
+		addPlan(CURRENT, information.getCurrentPlan());
+		addPlan(BEST, information.getBestPlan());
+		addPlan(NEIGHBOR, information.getNeighborPlan());
+		size++;
+	}
+	
+	private void addPlan(int offset, ExtendedCarrierPlan plan) {
+		if(plan == null) {
+			for(int i = 0; i <= DISTANCE_TO_REFERENCE; i++) {
+				columns[offset + i][size] = Double.NaN;
+			}
+			return;
+		}
+		columns[offset + NUMBER_OF_TOURS][size] = plan.getNumberOfTours();
+		columns[offset + AVERAGE_CAPACITY_UTILIZATION][size] = plan.getAverageCapacityUtilization();
+		columns[offset + AVERAGE_STOPS_PER_TOUR][size] = plan.getAverageStopsPerTour();
+		columns[offset + AVERAGE_TOUR_LENGTH][size] = plan.getAverageTourLength();
+		columns[offset + AVERAGE_DISTANCE_BETWEEN_STOPS][size] = plan.getAverageDistanceBetweenStops();
+		columns[offset + OVERALL_LENGTH][size] = plan.getOverallLength();
+		columns[offset + VEHICLE_TYPE_DISTANCE][size] = comparator.getDistanceBetweenVehicleTypes(referencePlan, plan);
+		comparator.setEntrantPlan(plan);
+		columns[offset + DISTANCE_TO_REFERENCE][size] = comparator.getDistanceToBestPlan();
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	public double getValue(int column, int row) {
+		return columns[column][row];
+	}
+	
+	//Copy of the filled part of a column
+	public double[] getColumn(int column) {
+		return Arrays.copyOf(columns[column], size);
+	}
+	
+	//The iterations are rebuilt from the columns. Their plans only carry the key figures, the shares of the vehicle types are not kept in the trace
+	@Override
+	public Iterable<IterationInformation> getIterations() {
+		ArrayList<IterationInformation> iterations = new ArrayList<>(size);
+		for(int row = 0; row < size; row++) {
+			IterationInformation information = new IterationInformation(false);
+			information.setNumber((int) columns[ITERATION][row]);
+			information.setInnerTemperature(columns[INNER_TEMPERATURE][row]);
+			information.setOuterTemperature(columns[OUTER_TEMPERATURE][row]);
+			information.setInnerStrategy((int) columns[INNER_STRATEGY][row]);
+			information.setOuterStrategy((int) columns[OUTER_STRATEGY][row]);
+			information.setCurrentPlan(getPlan(CURRENT, row));
+			information.setBestPlan(getPlan(BEST, row));
+			information.setNeighborPlan(getPlan(NEIGHBOR, row));
+			iterations.add(information);
+		}
+		return iterations;
+	}
+	
+	private ExtendedCarrierPlan getPlan(int offset, int row) {
+		if(Double.isNaN(columns[offset + NUMBER_OF_TOURS][row])) {
+			return null;
+		}
+		ExtendedCarrierPlan plan = new ExtendedCarrierPlan(null, new ArrayList<ScheduledTour>());
+		plan.setNumberOfTours((int) columns[offset + NUMBER_OF_TOURS][row]);
+		plan.setAverageCapacityUtilization(columns[offset + AVERAGE_CAPACITY_UTILIZATION][row]);
+		plan.setAverageStopsPerTour(columns[offset + AVERAGE_STOPS_PER_TOUR][row]);
+		plan.setAverageTourLength(columns[offset + AVERAGE_TOUR_LENGTH][row]);
+		plan.setAverageDistanceBetweenStops(columns[offset + AVERAGE_DISTANCE_BETWEEN_STOPS][row]);
+		plan.setOverallLength(columns[offset + OVERALL_LENGTH][row]);
+		plan.setVehicleMap(new HashMap<Id<VehicleType>, Double>());
+		return plan;
+	}
+	
+	//Header of four ints followed by the columns one after the other
+	public void write(File file) throws IOException {
+		try(DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file.toPath())))) {
+			output.writeInt(MAGIC_NUMBER);
+			output.writeInt(VERSION);
+			output.writeInt(NUMBER_OF_COLUMNS);
+			output.writeInt(size);
+			for(int column = 0; column < NUMBER_OF_COLUMNS; column++) {
+				for(int row = 0; row < size; row++) {
+					output.writeDouble(columns[column][row]);
+				}
+			}
+		}
+	}
+	
+	public static KpiTrace read(File file) throws IOException {
+		try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if(buffer.getInt() != MAGIC_NUMBER) throw new IOException(file + " is not a trace file");
+			int version = buffer.getInt();
+			if(version != VERSION) throw new IOException("trace file version " + version + " is not supported");
+			int numberOfColumns = buffer.getInt();
+			if(numberOfColumns != NUMBER_OF_COLUMNS) throw new IOException("trace file has " + numberOfColumns + " columns instead of " + NUMBER_OF_COLUMNS);
+			int size = buffer.getInt();
+			DoubleBuffer values = buffer.asDoubleBuffer();
+			double[][] columns = new double[NUMBER_OF_COLUMNS][Math.max(1, size)];
+			for(int column = 0; column < NUMBER_OF_COLUMNS; column++) {
+				values.get(columns[column], 0, size);
+			}
+			return new KpiTrace(columns, size);
+		}
+	}
+
+	@Override
+	public void close() {
+	}
+	
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.core.router.util.LeastCostPathCalculator.Path;
+import org.matsim.vehicles.VehicleType;
+
+//Bounded cache of the shortest paths between two nodes for a vehicle type. When the cache is full the path that was used least recently is dropped.
+//The cache can be shared by the routers of several threads. If travel times depend on the departure time, the cache needs the size of their time bins
+//and keeps the paths per bin of the departure time. Otherwise travel times and costs must not depend on the departure time
+public class LegRouteCache {
+
+	private LinkedHashMap<RouteKey, Path> paths;
+	private double timeBinSize;
+	private long hits;
+	private long misses;
+	
+	public LegRouteCache(final int maxSize) {
+		this(maxSize, Double.POSITIVE_INFINITY);
+	}
+	
+	public LegRouteCache(final int maxSize, double timeBinSize) {
+		if(timeBinSize <= 0.0) throw new IllegalArgumentException("timeBinSize must be bigger than zero");
+		this.timeBinSize = timeBinSize;
+		if(maxSize <= 0) throw new IllegalArgumentException("maxSize must be bigger than zero");
+		paths = new LinkedHashMap<RouteKey, Path>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<RouteKey, Path> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+	
+	public Path getPath(Node fromNode, Node toNode, Id<VehicleType> vehicleTypeId) {
+		return getPath(fromNode, toNode, vehicleTypeId, 0);
+	}
+	
+	public synchronized Path getPath(Node fromNode, Node toNode, Id<VehicleType> vehicleTypeId, double departureTime) {
+		Path path = paths.get(new RouteKey(fromNode, toNode, vehicleTypeId, getTimeBin(departureTime)));
+		if(path == null) {
+			misses++;
+		}
+		else {
+			hits++;
+		}
+		return path;
+	}
+	
+	public void putPath(Node fromNode, Node toNode, Id<VehicleType> vehicleTypeId, Path path) {
+		putPath(fromNode, toNode, vehicleTypeId, 0, path);
+	}
+	
+	public synchronized void putPath(Node fromNode, Node toNode, Id<VehicleType> vehicleTypeId, double departureTime, Path path) {
+		paths.put(new RouteKey(fromNode, toNode, vehicleTypeId, getTimeBin(departureTime)), path);
+	}
+	
+	private int getTimeBin(double departureTime) {
+		if(!(departureTime > 0.0)) {
+			return 0;
+		}
+		return (int) Math.min(Integer.MAX_VALUE, Math.floor(departureTime / timeBinSize));
+	}
+	
+	public double getTimeBinSize() {
+		return timeBinSize;
+	}
+	
+	public synchronized long getHits() {
+		return hits;
+	}
+	
+	public synchronized long getMisses() {
+		return misses;
+	}
+	
+	public synchronized int getSize() {
+		return paths.size();
+	}
+	
+	public synchronized void clear() {
+		paths.clear();
+		hits = 0;
+		misses = 0;
+	}
+	
+	private static class RouteKey {
+		
+		private final Node fromNode;
+		private final Node toNode;
+		private final Id<VehicleType> vehicleTypeId;
+		private final int timeBin;
+		private final int hashCode;
+		
+		private RouteKey(Node fromNode, Node toNode, Id<VehicleType> vehicleTypeId, int timeBin) {
+			this.fromNode = fromNode;
+			this.toNode = toNode;
+			this.vehicleTypeId = vehicleTypeId;
+			this.timeBin = timeBin;
+			this.hashCode = 31 * (31 * (31 * fromNode.getId().hashCode() + toNode.getId().hashCode()) + (vehicleTypeId == null ? 0 : vehicleTypeId.hashCode())) + timeBin;
+		}
+		
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof RouteKey)) {
+				return false;
+			}
+			RouteKey other = (RouteKey) obj;
+			return fromNode == other.fromNode && toNode == other.toNode && timeBin == other.timeBin && (vehicleTypeId == null ? other.vehicleTypeId == null : vehicleTypeId.equals(other.vehicleTypeId));
+		}
+	}
+	
+}
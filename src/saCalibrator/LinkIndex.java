@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.core.network.TimeDependentNetwork;
+
+//Numbers the links of a network and keeps their lengths and freespeeds in arrays, so they can be read without looking up the link in the network.
+//Ids are unique objects in MATSim, so the number of a link is found by its identity. The network must not change after the index was built.
+//Finding the number is still a map lookup. Code that has the link object reads length and freespeed from the link, the arrays only pay off
+//where only the id is known or where the number of the link is carried along, like in the search graph of the distance matrix
+public class LinkIndex {
+
+	private static Map<Network, LinkIndex> linkIndices = new WeakHashMap<>();
+	
+	private Map<Id<Link>, Integer> indices;
+	private Id<Link>[] linkIds;
+	private double[] lengths;
+	private double[] freespeeds;
+	private boolean timeVariant;
+	
+	//Returns the index of the network, it is built only once per network
+	public static LinkIndex getLinkIndex(Network network) {
+		synchronized(linkIndices) {
+			LinkIndex linkIndex = linkIndices.get(network);
+			if(linkIndex == null) {
+				linkIndex = new LinkIndex(network);
+				linkIndices.put(network, linkIndex);
+			}
+			return linkIndex;
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	public LinkIndex(Network network) {
+		int numberOfLinks = network.getLinks().size();
+		indices = new IdentityHashMap<>(numberOfLinks);
+		linkIds = new Id[numberOfLinks];
+		lengths = new double[numberOfLinks];
+		freespeeds = new double[numberOfLinks];
+		int index = 0;
+		for(Link link : network.getLinks().values()) {
+			indices.put(link.getId(), index);
+			linkIds[index] = link.getId();
+			lengths[index] = link.getLength();
+			freespeeds[index] = link.getFreespeed();
+			index++;
+		}
+		//The freespeeds of a network with change events depend on the time and can not be kept in the index
+		if(network instanceof TimeDependentNetwork) {
+			timeVariant = !((TimeDependentNetwork) network).getNetworkChangeEvents().isEmpty();
+		}
+	}
+	
+	public int getIndex(Id<Link> linkId) {
+		Integer index = indices.get(linkId);
+		if(index == null) throw new IllegalStateException("link " + linkId + " is not part of the indexed network");
+		return index;
+	}
+	
+	public int getIndex(Link link) {
+		return getIndex(link.getId());
+	}
+	
+	public Id<Link> getLinkId(int index) {
+		return linkIds[index];
+	}
+	
+	public double getLength(int index) {
+		return lengths[index];
+	}
+	
+	public double getLength(Id<Link> linkId) {
+		return lengths[getIndex(linkId)];
+	}
+	
+	public double getFreespeed(int index) {
+		return freespeeds[index];
+	}
+	
+	public double getFreespeed(Id<Link> linkId) {
+		return freespeeds[getIndex(linkId)];
+	}
+	
+	public int getNumberOfLinks() {
+		return lengths.length;
+	}
+	
+	public boolean isTimeVariant() {
+		return timeVariant;
+	}
+	
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.freight.carrier.CarrierPlan;
+import org.matsim.contrib.freight.carrier.CarrierService;
+import org.matsim.contrib.freight.carrier.ScheduledTour;
+import org.matsim.contrib.freight.carrier.Tour.Leg;
+import org.matsim.contrib.freight.carrier.Tour.ServiceActivity;
+import org.matsim.contrib.freight.carrier.Tour.TourElement;
+import org.matsim.contrib.freight.router.TimeAndSpaceTourRouter;
+import org.matsim.core.population.routes.GenericRouteImpl;
+import org.matsim.core.population.routes.NetworkRoute;
+import org.matsim.core.router.util.LeastCostPathCalculator;
+import org.matsim.core.router.util.TravelDisutility;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.vehicles.VehicleType;
+
+//Routes tours with the distances and travel times of a distance matrix instead of searching the network for every leg.
+//The legs get generic routes that carry only their distance and travel time, which is all the evaluation of a plan needs.
+//Network routes with their links can be created afterwards for the plan that is exported. A matrix route keeps the network route of its leg
+//as long as the leg connects the same two locations, so routing the tour on the network again only searches the legs that changed
+public class MatrixTourRouter extends TimeAndSpaceTourRouter {
+
+	private ServiceDistanceMatrix distanceMatrix;
+	private IncrementalTourRouter networkRouter;
+	
+	public MatrixTourRouter(LeastCostPathCalculator router, Network network, TravelTime travelTime, TravelDisutility travelCosts, ServiceDistanceMatrix distanceMatrix) {
+		super(router, network, travelTime);
+		this.distanceMatrix = distanceMatrix;
+		this.networkRouter = new IncrementalTourRouter(router, network, travelTime, travelCosts);
+	}
+	
+	@Override
+	public void route(ScheduledTour tour) {
+		Id<VehicleType> vehicleTypeId = tour.getVehicle().getVehicleType().getId();
+		Id<Link> currentLocation = tour.getTour().getStart().getLocation();
+		if(!distanceMatrix.containsVehicleType(vehicleTypeId) || !distanceMatrix.containsLocation(currentLocation)) {
+			//The vehicle or depot was added after the matrix was built
+			restoreNetworkRoutes(tour);
+			networkRouter.route(tour);
+			return;
+		}
+		double currentTime = tour.getDeparture();
+		List<TourElement> elements = tour.getTour().getTourElements();
+		for(int i = 0; i < elements.size(); i++) {
+			TourElement element = elements.get(i);
+			if(element instanceof Leg) {
+				Leg leg = (Leg) element;
+				Id<Link> nextLocation;
+				if(i + 1 < elements.size() && elements.get(i + 1) instanceof ServiceActivity) {
+					nextLocation = ((ServiceActivity) elements.get(i + 1)).getLocation();
+				}
+				else {
+					nextLocation = tour.getTour().getEnd().getLocation();
+				}
+				double distance = 0;
+				double travelTime = 0;
+				if(!currentLocation.equals(nextLocation)) {
+					distance = distanceMatrix.getDistance(currentLocation, nextLocation, vehicleTypeId);
+					travelTime = distanceMatrix.getTravelTime(currentLocation, nextLocation, vehicleTypeId);
+				}
+				MatrixRoute route = new MatrixRoute(currentLocation, nextLocation);
+				route.setDistance(distance);
+				route.setTravelTime(travelTime);
+				NetworkRoute networkRoute = getNetworkRoute(leg);
+				if(networkRoute != null && currentLocation.equals(networkRoute.getStartLinkId()) && nextLocation.equals(networkRoute.getEndLinkId())) {
+					route.networkRoute = networkRoute;
+					route.networkDepartureTime = getNetworkDepartureTime(leg);
+				}
+				leg.setRoute(route);
+				leg.setDepartureTime(currentTime);
+				leg.setExpectedTransportTime(travelTime);
+				currentTime = currentTime + travelTime;
+				currentLocation = nextLocation;
+			}
+			else if(element instanceof ServiceActivity) {
+				CarrierService service = ((ServiceActivity) element).getService();
+				currentTime = Math.max(currentTime, service.getServiceStartTimeWindow().getStart()) + service.getServiceDuration();
+			}
+		}
+	}
+	
+	//Replaces the matrix routes of the tour by network routes, the sequence of the tour stays the same. 
+	//Legs whose matrix route kept a network route take over its links, only the other legs are searched
+	public void routeOnNetwork(ScheduledTour tour) {
+		restoreNetworkRoutes(tour);
+		TourRoutingEvent.route(networkRouter, tour);
+	}
+	
+	private static void restoreNetworkRoutes(ScheduledTour tour) {
+		for(TourElement element : tour.getTour().getTourElements()) {
+			if(element instanceof Leg) {
+				Leg leg = (Leg) element;
+				NetworkRoute networkRoute = getNetworkRoute(leg);
+				if(networkRoute != null) {
+					leg.setDepartureTime(getNetworkDepartureTime(leg));
+					leg.setRoute(networkRoute);
+				}
+			}
+		}
+	}
+	
+	public static boolean isRoutedOnNetwork(ScheduledTour tour) {
+		for(TourElement element : tour.getTour().getTourElements()) {
+			if(element instanceof Leg && !(((Leg) element).getRoute() instanceof NetworkRoute)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	//Copies all tours of a plan and routes the copies on the network, the tours of the given plan keep their matrix routes
+	public CarrierPlan routeOnNetwork(CarrierPlan plan) {
+		ArrayList<ScheduledTour> tours = new ArrayList<>();
+		for(ScheduledTour scheduledTour : plan.getScheduledTours()) {
+			ScheduledTour copy = PlanCopier.copyScheduledTour(scheduledTour);
+			routeOnNetwork(copy);
+			tours.add(copy);
+		}
+		CarrierPlan routedPlan = new CarrierPlan(plan.getCarrier(), tours);
+		routedPlan.setScore(plan.getScore());
+		return routedPlan;
+	}
+	
+	//Copies the tours of an evaluated plan that still carry matrix routes, routes the copies on the network and evaluates the plan with them.
+	//The matrix is built with its own travel times at time zero, so the network routes may be longer or shorter than the matrix said.
+	//Tours that are already routed on the network are taken over, so only the copied tours are scanned by the evaluator
+	public ExtendedCarrierPlan routeOnNetwork(ExtendedCarrierPlan plan, CarrierPlanEvaluator evaluator, Network network) {
+		ArrayList<ScheduledTour> tours = new ArrayList<>();
+		ArrayList<ScheduledTour> matrixTours = new ArrayList<>();
+		ArrayList<ScheduledTour> networkTours = new ArrayList<>();
+		for(ScheduledTour scheduledTour : plan.getScheduledTours()) {
+			if(isRoutedOnNetwork(scheduledTour)) {
+				tours.add(scheduledTour);
+				continue;
+			}
+			ScheduledTour copy = PlanCopier.copyScheduledTour(scheduledTour);
+			routeOnNetwork(copy);
+			tours.add(copy);
+			matrixTours.add(scheduledTour);
+			networkTours.add(copy);
+		}
+		if(matrixTours.isEmpty()) {
+			return plan;
+		}
+		return evaluator.evaluateChangedTours(new CarrierPlan(plan.getCarrier(), tours), plan, matrixTours, networkTours, network);
+	}
+	
+	public IncrementalTourRouter getNetworkRouter() {
+		return networkRouter;
+	}
+	
+	private static NetworkRoute getNetworkRoute(Leg leg) {
+		if(leg.getRoute() instanceof NetworkRoute) {
+			return (NetworkRoute) leg.getRoute();
+		}
+		if(leg.getRoute() instanceof MatrixRoute) {
+			return ((MatrixRoute) leg.getRoute()).networkRoute;
+		}
+		return null;
+	}
+	
+	//The departure time the network route was searched for, the router only takes the route over in the same time bin
+	private static double getNetworkDepartureTime(Leg leg) {
+		if(leg.getRoute() instanceof MatrixRoute) {
+			return ((MatrixRoute) leg.getRoute()).networkDepartureTime;
+		}
+		return leg.getExpectedDepartureTime();
+	}
+	
+	//Route of the matrix that remembers the network route the leg had before, copies of the leg share it like they share any other route
+	private static class MatrixRoute extends GenericRouteImpl {
+		
+		private NetworkRoute networkRoute;
+		private double networkDepartureTime;
+		
+		private MatrixRoute(Id<Link> startLinkId, Id<Link> endLinkId) {
+			super(startLinkId, endLinkId);
+		}
+	}
+	
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.matsim.api.core.v01.network.Network;
+
+//Independent annealing runs starting from the same initial plan with different seeds. The runs are executed on a ForkJoinPool and the plan 
+//with the smallest distance to the reference plan is returned. The seeds are split from one SplittableRandom, so the result only depends on the master seed.
+//Every run has its own router, because the path calculators are not thread-safe. The initial plan is shared, the runs never change its tours.
+public class MultiStartCalibrator {
+
+	private Network network;
+	private TourRouterFactory routerFactory;
+	private long seed;
+	
+	private int numberOfRuns = 4;
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+	private int warmupIterations = 100;
+	private int maxIterations = Integer.MAX_VALUE;
+	private int maxOuterIterations = Integer.MAX_VALUE;
+	private double distanceTolerance = 0.02;
+	private boolean lazyRouting = false;
+	private OperatorMetrics operatorMetrics;
+	
+	private double[] distances;
+	private int bestRun;
+	private double bestDistance;
+	
+	public MultiStartCalibrator(Network network, TourRouterFactory routerFactory, long seed) {
+		this.network = network;
+		this.routerFactory = routerFactory;
+		this.seed = seed;
+	}
+	
+	public ExtendedCarrierPlan run(ExtendedCarrierPlan initialPlan, ExtendedCarrierPlan referencePlan) {
+		if(lazyRouting) {
+			//All runs would materialize the tours of the initial plan, so it is done once beforehand
+			MatrixTourRouter router = (MatrixTourRouter) routerFactory.createTourRouter();
+			initialPlan = router.routeOnNetwork(initialPlan, new CarrierPlanEvaluator(), network);
+		}
+		SplittableRandom masterRandom = new SplittableRandom(seed);
+		ArrayList<CalibrationRun> runs = new ArrayList<>();
+		for(int i = 0; i < numberOfRuns; i++) {
+			runs.add(new CalibrationRun(masterRandom.split().nextLong(), initialPlan, referencePlan));
+		}
+		
+		ForkJoinPool pool = new ForkJoinPool(Math.max(1, Math.min(parallelism, numberOfRuns)));
+		try {
+			ArrayList<ForkJoinTask<ExtendedCarrierPlan>> tasks = new ArrayList<>();
+			for(CalibrationRun run : runs) {
+				tasks.add(pool.submit(run));
+			}
+			
+			//Runs are compared in a fixed order, so equal distances always lead to the same plan
+			ExtendedCarrierPlan bestPlan = null;
+			distances = new double[numberOfRuns];
+			for(int i = 0; i < tasks.size(); i++) {
+				ExtendedCarrierPlan plan = tasks.get(i).join();
+				distances[i] = runs.get(i).distance;
+				if(bestPlan == null || distances[i] < bestDistance) {
+					bestPlan = plan;
+					bestDistance = distances[i];
+					bestRun = i;
+				}
+			}
+			return bestPlan;
+		}
+		finally {
+			pool.shutdownNow();
+		}
+	}
+	
+	private class CalibrationRun implements Callable<ExtendedCarrierPlan> {
+		
+		private long runSeed;
+		private ExtendedCarrierPlan initialPlan;
+		private ExtendedCarrierPlan referencePlan;
+		private double distance;
+		
+		private CalibrationRun(long runSeed, ExtendedCarrierPlan initialPlan, ExtendedCarrierPlan referencePlan) {
+			this.runSeed = runSeed;
+			this.initialPlan = initialPlan;
+			this.referencePlan = referencePlan;
+		}
+		
+		@Override
+		public ExtendedCarrierPlan call() {
+			Calibrator calibrator = new Calibrator(network, routerFactory.createTourRouter(), new Random(runSeed));
+			calibrator.setWarmupIterations(warmupIterations);
+			calibrator.setMaxIterations(maxIterations);
+			calibrator.setMaxOuterIterations(maxOuterIterations);
+			calibrator.setDistanceTolerance(distanceTolerance);
+			calibrator.setLazyRouting(lazyRouting);
+			calibrator.setOperatorMetrics(operatorMetrics);
+			ExtendedCarrierPlan bestPlan = calibrator.run(new PlanCopier().makeShallowCopyOfPlan(initialPlan), referencePlan);
+			distance = calibrator.getBestDistance();
+			return bestPlan;
+		}
+	}
+	
+	public double[] getDistances() {
+		return distances;
+	}
+	
+	public int getBestRun() {
+		return bestRun;
+	}
+	
+	public double getBestDistance() {
+		return bestDistance;
+	}
+	
+	public void setNumberOfRuns(int numberOfRuns) {
+		this.numberOfRuns = numberOfRuns;
+	}
+	
+	//The parallelism does not change the result
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+	
+	public void setWarmupIterations(int warmupIterations) {
+		this.warmupIterations = warmupIterations;
+	}
+	
+	public void setMaxIterations(int maxIterations) {
+		this.maxIterations = maxIterations;
+	}
+	
+	public void setMaxOuterIterations(int maxOuterIterations) {
+		this.maxOuterIterations = maxOuterIterations;
+	}
+	
+	public void setDistanceTolerance(double distanceTolerance) {
+		this.distanceTolerance = distanceTolerance;
+	}
+	
+	//Needs a router factory with a distance matrix
+	public void setLazyRouting(boolean lazyRouting) {
+		this.lazyRouting = lazyRouting;
+	}
+	
+	//All runs record into the same metrics
+	public void setOperatorMetrics(OperatorMetrics operatorMetrics) {
+		this.operatorMetrics = operatorMetrics;
+	}
+	
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.NetworkFactory;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.network.io.MatsimNetworkReader;
+
+//Loads MATSim networks from binary snapshots instead of parsing the XML file on every run. The first load of a network file parses the XML
+//and writes a snapshot with the coordinates of the nodes and the endpoints, lengths, freespeeds, capacities, lanes and modes of the links.
+//Later loads read the snapshot memory-mapped. Snapshots are named after the SHA-256 hash of the XML file they were made from, so files with the same name
+//in different directories get their own snapshots and a changed file gets a new one. The hash is also stored in the snapshot and checked on reading.
+//Attributes and time dependent changes of the network are not part of the snapshot
+public class NetworkCache {
+
+	private static final int MAGIC_NUMBER = 0x4E455443;
+	private static final int VERSION = 1;
+	
+	private File cacheDirectory;
+	private boolean loadedFromSnapshot;
+	
+	public NetworkCache(File cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+	}
+	
+	public Network load(File networkFile) throws IOException {
+		byte[] hash = getHash(networkFile);
+		File snapshotFile = getSnapshotFile(hash);
+		if(snapshotFile.exists()) {
+			Network network = readSnapshot(snapshotFile, hash);
+			if(network != null) {
+				loadedFromSnapshot = true;
+				return network;
+			}
+		}
+		Network network = NetworkUtils.createNetwork();
+		new MatsimNetworkReader(network).readFile(networkFile.getPath());
+		writeSnapshot(network, snapshotFile, hash);
+		loadedFromSnapshot = false;
+		return network;
+	}
+	
+	//True if the last network was read from a snapshot
+	public boolean isLoadedFromSnapshot() {
+		return loadedFromSnapshot;
+	}
+	
+	public File getSnapshotFile(File networkFile) throws IOException {
+		return getSnapshotFile(getHash(networkFile));
+	}
+	
+	private File getSnapshotFile(byte[] hash) {
+		StringBuilder name = new StringBuilder();
+		for(byte value : hash) {
+			name.append(String.format("%02x", value));
+		}
+		return new File(cacheDirectory, name.append(".snapshot").toString());
+	}
+	
+	private static byte[] getHash(File file) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch(NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+		try(InputStream input = Files.newInputStream(file.toPath())) {
+			byte[] buffer = new byte[1 << 16];
+			int length;
+			while((length = input.read(buffer)) > 0) {
+				digest.update(buffer, 0, length);
+			}
+		}
+		return digest.digest();
+	}
+	
+	//The snapshot is written to a temporary file of its own first, so a run that is aborted never leaves a broken snapshot behind
+	//and runs that write the same snapshot at the same time do not write into the same file
+	private void writeSnapshot(Network network, File snapshotFile, byte[] hash) throws IOException {
+		Files.createDirectories(cacheDirectory.toPath());
+		Path temporaryFile = Files.createTempFile(cacheDirectory.toPath(), snapshotFile.getName(), ".tmp");
+		try {
+			writeSnapshot(network, temporaryFile, hash);
+			Files.move(temporaryFile, snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally {
+			Files.deleteIfExists(temporaryFile);
+		}
+	}
+	
+	private static void writeSnapshot(Network network, Path file, byte[] hash) throws IOException {
+		Map<Node, Integer> nodeIndices = new IdentityHashMap<>();
+		try(DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+			output.writeInt(MAGIC_NUMBER);
+			output.writeInt(VERSION);
+			output.write(hash);
+			output.writeDouble(network.getCapacityPeriod());
+			output.writeInt(network.getNodes().size());
+			for(Node node : network.getNodes().values()) {
+				nodeIndices.put(node, nodeIndices.size());
+				writeString(output, node.getId().toString());
+				output.writeDouble(node.getCoord().getX());
+				output.writeDouble(node.getCoord().getY());
+			}
+			output.writeInt(network.getLinks().size());
+			for(Link link : network.getLinks().values()) {
+				writeString(output, link.getId().toString());
+				output.writeInt(nodeIndices.get(link.getFromNode()));
+				output.writeInt(nodeIndices.get(link.getToNode()));
+				output.writeDouble(link.getLength());
+				output.writeDouble(link.getFreespeed());
+				output.writeDouble(link.getCapacity());
+				output.writeDouble(link.getNumberOfLanes());
+				writeString(output, String.join(",", link.getAllowedModes()));
+			}
+		}
+	}
+	
+	//Returns null if the snapshot was made from another version of the network file or cannot be decoded, e.g. because it is truncated
+	private Network readSnapshot(File snapshotFile, byte[] hash) throws IOException {
+		try(FileChannel channel = FileChannel.open(snapshotFile.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if(buffer.getInt() != MAGIC_NUMBER || buffer.getInt() != VERSION) {
+				return null;
+			}
+			byte[] snapshotHash = new byte[hash.length];
+			buffer.get(snapshotHash);
+			if(!Arrays.equals(hash, snapshotHash)) {
+				return null;
+			}
+			
+			Network network = NetworkUtils.createNetwork();
+			NetworkFactory factory = network.getFactory();
+			network.setCapacityPeriod(buffer.getDouble());
+			Node[] nodes = new Node[buffer.getInt()];
+			for(int i = 0; i < nodes.length; i++) {
+				Id<Node> nodeId = Id.createNodeId(readString(buffer));
+				nodes[i] = factory.createNode(nodeId, new Coord(buffer.getDouble(), buffer.getDouble()));
+				network.addNode(nodes[i]);
+			}
+			int numberOfLinks = buffer.getInt();
+			for(int i = 0; i < numberOfLinks; i++) {
+				Id<Link> linkId = Id.createLinkId(readString(buffer));
+				Link link = factory.createLink(linkId, nodes[buffer.getInt()], nodes[buffer.getInt()]);
+				link.setLength(buffer.getDouble());
+				link.setFreespeed(buffer.getDouble());
+				link.setCapacity(buffer.getDouble());
+				link.setNumberOfLanes(buffer.getDouble());
+				String modes = readString(buffer);
+				Set<String> allowedModes = new HashSet<>();
+				if(!modes.isEmpty()) {
+					allowedModes.addAll(Arrays.asList(modes.split(",")));
+				}
+				link.setAllowedModes(allowedModes);
+				network.addLink(link);
+			}
+			return network;
+		}
+		catch(BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+	
+	private static void writeString(DataOutputStream output, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		output.writeInt(bytes.length);
+		output.write(bytes);
+	}
+	
+	private static String readString(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+//Counts calls, infeasible results and accepted neighbors of the six operators and keeps a histogram of their run times.
+//All counters are LongAdders, so several calibrations can share the metrics without contention. The histograms have eight
+//buckets per power of two, so a percentile is at most 12.5 % above the measured time. Snapshots can be taken at any time or
+//passed periodically to a consumer, e.g. for logging
+public class OperatorMetrics implements Closeable {
+
+	public static final int SWITCH_SHIPMENT_WITHIN_TOUR = 0;
+	public static final int SWITCH_SHIPMENT_BETWEEN_TOURS = 1;
+	public static final int MOVE_SHIPMENT_TO_ANOTHER_TOUR = 2;
+	public static final int ADD_FURTHER_VEHICLE = 3;
+	public static final int EXCHANGE_VEHICLE_TYPE = 4;
+	public static final int REMOVE_VEHICLE = 5;
+	
+	private static final String[] OPERATOR_NAMES = {"switchShipmentWithinTour", "switchShipmentBetweenTours", "moveShipmentToAnotherTour",
+			"addFurtherVehicle", "exchangeVehicleType", "removeVehicle"};
+	
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+	
+	private LongAdder[] calls = createAdders(OPERATOR_NAMES.length);
+	private LongAdder[] infeasible = createAdders(OPERATOR_NAMES.length);
+	private LongAdder[] accepted = createAdders(OPERATOR_NAMES.length);
+	private LongAdder[] nanos = createAdders(OPERATOR_NAMES.length);
+	private LongAdder[][] histograms = new LongAdder[OPERATOR_NAMES.length][];
+	private ScheduledExecutorService reporter;
+	
+	public OperatorMetrics() {
+		for(int operator = 0; operator < OPERATOR_NAMES.length; operator++) {
+			histograms[operator] = createAdders(BUCKETS);
+		}
+	}
+	
+	private static LongAdder[] createAdders(int size) {
+		LongAdder[] adders = new LongAdder[size];
+		for(int i = 0; i < size; i++) {
+			adders[i] = new LongAdder();
+		}
+		return adders;
+	}
+	
+	//Infeasible operators return the plan without changes
+	public void recordCall(int operator, long durationNanos, boolean isInfeasible) {
+		calls[operator].increment();
+		if(isInfeasible) {
+			infeasible[operator].increment();
+		}
+		long duration = Math.max(0, durationNanos);
+		nanos[operator].add(duration);
+		histograms[operator][getBucket(duration)].increment();
+	}
+	
+	public void recordAcceptance(int operator) {
+		accepted[operator].increment();
+	}
+	
+	//Values below eight have a bucket of their own, larger values share a bucket with the values of the same power of two
+	//and the same three bits after the leading one
+	static int getBucket(long value) {
+		if(value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+	}
+	
+	static long getUpperBound(int bucket) {
+		if(bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = bucket / SUB_BUCKETS - 1;
+		long mantissa = SUB_BUCKETS + bucket % SUB_BUCKETS;
+		return ((mantissa + 1) << shift) - 1;
+	}
+	
+	public List<OperatorStatistics> getSnapshot() {
+		List<OperatorStatistics> snapshot = new ArrayList<>(OPERATOR_NAMES.length);
+		for(int operator = 0; operator < OPERATOR_NAMES.length; operator++) {
+			long[] counts = new long[BUCKETS];
+			long total = 0;
+			for(int bucket = 0; bucket < BUCKETS; bucket++) {
+				counts[bucket] = histograms[operator][bucket].sum();
+				total = total + counts[bucket];
+			}
+			OperatorStatistics statistics = new OperatorStatistics(OPERATOR_NAMES[operator]);
+			statistics.setCalls(calls[operator].sum());
+			statistics.setInfeasible(infeasible[operator].sum());
+			statistics.setAccepted(accepted[operator].sum());
+			statistics.setTotalNanos(nanos[operator].sum());
+			statistics.setMedianNanos(getPercentile(counts, total, 0.5));
+			statistics.setPercentile90Nanos(getPercentile(counts, total, 0.9));
+			statistics.setPercentile99Nanos(getPercentile(counts, total, 0.99));
+			statistics.setMaxNanos(getPercentile(counts, total, 1));
+			snapshot.add(statistics);
+		}
+		return snapshot;
+	}
+	
+	//The counters are read one after the other while other threads may record, so a snapshot is not exact during a calibration
+	private static long getPercentile(long[] counts, long total, double percentile) {
+		if(total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile * total));
+		long count = 0;
+		for(int bucket = 0; bucket < counts.length; bucket++) {
+			count = count + counts[bucket];
+			if(count >= rank) {
+				return getUpperBound(bucket);
+			}
+		}
+		return getUpperBound(counts.length - 1);
+	}
+	
+	//Passes a snapshot to the consumer after every period on a daemon thread, until the metrics are closed
+	public synchronized void startReporting(long period, TimeUnit unit, final Consumer<List<OperatorStatistics>> consumer) {
+		if(reporter != null) {
+			throw new IllegalStateException("the metrics are already reported");
+		}
+		reporter = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "operator-metrics");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		reporter.scheduleAtFixedRate(new Runnable() {
+			@Override
+			public void run() {
+				consumer.accept(getSnapshot());
+			}
+		}, period, period, unit);
+	}
+	
+	public void reset() {
+		for(int operator = 0; operator < OPERATOR_NAMES.length; operator++) {
+			calls[operator].reset();
+			infeasible[operator].reset();
+			accepted[operator].reset();
+			nanos[operator].reset();
+			for(LongAdder bucket : histograms[operator]) {
+				bucket.reset();
+			}
+		}
+	}
+	
+	@Override
+	public synchronized void close() {
+		if(reporter != null) {
+			reporter.shutdownNow();
+			reporter = null;
+		}
+	}
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import java.util.Locale;
+
+//Snapshot of the metrics of one operator. Times are in nanoseconds, the percentiles are upper bounds of histogram buckets
+public class OperatorStatistics {
+
+	private String operator;
+	private long calls;
+	private long infeasible;
+	private long accepted;
+	private long totalNanos;
+	private long medianNanos;
+	private long percentile90Nanos;
+	private long percentile99Nanos;
+	private long maxNanos;
+	
+	public OperatorStatistics(String operator) {
+		this.operator = operator;
+	}
+	
+	public double getInfeasibleRate() {
+		return calls == 0 ? 0 : (double) infeasible / calls;
+	}
+	
+	public double getAcceptanceRate() {
+		return calls == 0 ? 0 : (double) accepted / calls;
+	}
+	
+	public double getMeanNanos() {
+		return calls == 0 ? 0 : (double) totalNanos / calls;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT, "%s calls=%d infeasible=%.3f accepted=%.3f total=%.1fms mean=%.1fus p50=%.1fus p90=%.1fus p99=%.1fus max=%.1fus",
+				operator, calls, getInfeasibleRate(), getAcceptanceRate(), totalNanos / 1e6, getMeanNanos() / 1e3,
+				medianNanos / 1e3, percentile90Nanos / 1e3, percentile99Nanos / 1e3, maxNanos / 1e3);
+	}
+	
+	public String getOperator() {
+		return operator;
+	}
+	
+	public long getCalls() {
+		return calls;
+	}
+	
+	public void setCalls(long calls) {
+		this.calls = calls;
+	}
+	
+	public long getInfeasible() {
+		return infeasible;
+	}
+	
+	public void setInfeasible(long infeasible) {
+		this.infeasible = infeasible;
+	}
+	
+	public long getAccepted() {
+		return accepted;
+	}
+	
+	public void setAccepted(long accepted) {
+		this.accepted = accepted;
+	}
+	
+	public long getTotalNanos() {
+		return totalNanos;
+	}
+	
+	public void setTotalNanos(long totalNanos) {
+		this.totalNanos = totalNanos;
+	}
+	
+	public long getMedianNanos() {
+		return medianNanos;
+	}
+	
+	public void setMedianNanos(long medianNanos) {
+		this.medianNanos = medianNanos;
+	}
+	
+	public long getPercentile90Nanos() {
+		return percentile90Nanos;
+	}
+	
+	public void setPercentile90Nanos(long percentile90Nanos) {
+		this.percentile90Nanos = percentile90Nanos;
+	}
+	
+	public long getPercentile99Nanos() {
+		return percentile99Nanos;
+	}
+	
+	public void setPercentile99Nanos(long percentile99Nanos) {
+		this.percentile99Nanos = percentile99Nanos;
+	}
+	
+	public long getMaxNanos() {
+		return maxNanos;
+	}
+	
+	public void setMaxNanos(long maxNanos) {
+		this.maxNanos = maxNanos;
+	}
+
+}
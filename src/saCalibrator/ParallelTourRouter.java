@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.matsim.contrib.freight.carrier.ScheduledTour;
+import org.matsim.contrib.freight.router.TimeAndSpaceTourRouter;
+
+//Routes several tours at once on a pool of threads, every thread has its own router from the factory. 
+//Each tour is routed independently, so the routes do not depend on the number of threads. The pool can be shared by several calibrations
+public class ParallelTourRouter implements Closeable {
+
+	private ExecutorService executor;
+	private ThreadLocal<TimeAndSpaceTourRouter> routers;
+	
+	public ParallelTourRouter(final TourRouterFactory routerFactory, int numberOfThreads) {
+		routers = new ThreadLocal<TimeAndSpaceTourRouter>() {
+			@Override
+			protected TimeAndSpaceTourRouter initialValue() {
+				return routerFactory.createTourRouter();
+			}
+		};
+		executor = Executors.newFixedThreadPool(Math.max(1, numberOfThreads), new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "tour-router");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+	
+	//A single tour is routed by the given router of the calling thread, so it is routed like the tours that are not part of a fleet move
+	public void route(List<ScheduledTour> tours, TimeAndSpaceTourRouter router) {
+		if(tours.size() <= 1) {
+			for(ScheduledTour scheduledTour : tours) {
+				TourRoutingEvent.route(router, scheduledTour);
+			}
+			return;
+		}
+		ArrayList<Callable<Object>> routings = new ArrayList<>();
+		for(final ScheduledTour scheduledTour : tours) {
+			routings.add(new Callable<Object>() {
+				@Override
+				public Object call() {
+					TourRoutingEvent.route(routers.get(), scheduledTour);
+					return null;
+				}
+			});
+		}
+		try {
+			for(Future<Object> future : executor.invokeAll(routings)) {
+				future.get();
+			}
+		}
+		catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("routing of the tours was interrupted", e);
+		}
+		catch(ExecutionException e) {
+			throw new IllegalStateException("routing of the tours failed", e.getCause());
+		}
+	}
+	
+	//Routes the tours on the parallel router if there is one, otherwise one after the other on the given router
+	public static void routeTours(List<ScheduledTour> tours, TimeAndSpaceTourRouter router, ParallelTourRouter parallelRouter) {
+		if(parallelRouter != null) {
+			parallelRouter.route(tours, router);
+			return;
+		}
+		for(ScheduledTour scheduledTour : tours) {
+			TourRoutingEvent.route(router, scheduledTour);
+		}
+	}
+	
+	@Override
+	public void close() {
+		executor.shutdownNow();
+	}
+
+}
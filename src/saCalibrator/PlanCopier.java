@@ -1,79 +1,134 @@
-/*
- * Copyright (c) 2022 DLR Institute of Transport Research
- * All rights reserved.
- * 
- * This file is part of the "TourCalibration" tool
- * http://github.com/DLR-VF/TourCalibration
- * Licensed under the GNU General Public License v3.0
- * 
- * German Aerospace Center (DLR)
- * Institute of Transport Research (VF)
- * Rudower Chaussee 7
- * 12489 Berlin
- * Germany
- * http://www.dlr.de/vf
- */
-
-
-package saCalibrator;
-
-import java.util.ArrayList;
-
-import org.matsim.contrib.freight.carrier.Carrier;
-import org.matsim.contrib.freight.carrier.CarrierCapabilities.FleetSize;
-import org.matsim.contrib.freight.carrier.CarrierImpl;
-import org.matsim.contrib.freight.carrier.ScheduledTour;
-import org.matsim.contrib.freight.carrier.Tour;
-import org.matsim.contrib.freight.carrier.Tour.Leg;
-import org.matsim.contrib.freight.carrier.Tour.ServiceActivity;
-import org.matsim.contrib.freight.carrier.Tour.TourElement;
-
-public class PlanCopier {
-
-	public ExtendedCarrierPlan makeDeepCopyOfPlan(ExtendedCarrierPlan plan) {
-		ArrayList<ScheduledTour> tourCopies = new ArrayList<>();
-		Carrier carrierCopy = CarrierImpl.newInstance(plan.getCarrier().getId());
-		for(ScheduledTour scheduledTour : plan.getScheduledTours()) {
-			for(TourElement element : scheduledTour.getTour().getTourElements()) {
-				if(element instanceof ServiceActivity) {
-					ServiceActivity service = (ServiceActivity) element;
-					carrierCopy.getServices().add(service.getService());
-				}
-			}
-		}
-		carrierCopy.getCarrierCapabilities().setFleetSize(FleetSize.INFINITE);
-		carrierCopy.getCarrierCapabilities().getVehicleTypes().addAll(plan.getCarrier().getCarrierCapabilities().getVehicleTypes());
-		carrierCopy.getCarrierCapabilities().getCarrierVehicles().addAll(plan.getCarrier().getCarrierCapabilities().getCarrierVehicles());
-		
-		
-		for(ScheduledTour scheduledTour : plan.getScheduledTours()) {
-			Tour.Builder tourCopyBuilder = Tour.Builder.newInstance();
-			tourCopyBuilder.scheduleStart(scheduledTour.getTour().getStartLinkId());
-			for(TourElement element : scheduledTour.getTour().getTourElements()) {
-				if(element instanceof Leg) {
-					Leg leg  = (Leg)element;
-					tourCopyBuilder.addLeg(leg);
-				}
-				if(element instanceof ServiceActivity) {
-					ServiceActivity service  = (ServiceActivity)element;
-					tourCopyBuilder.scheduleService(service.getService());
-				}
-			}
-		    tourCopyBuilder.scheduleEnd(scheduledTour.getTour().getEndLinkId());
-		    tourCopies.add(ScheduledTour.newInstance(tourCopyBuilder.build(), scheduledTour.getVehicle() ,0));
-		}
-		
-		ExtendedCarrierPlan planCopy = new ExtendedCarrierPlan(carrierCopy, tourCopies);
-		planCopy.setAverageCapacityUtilization(plan.getAverageCapacityUtilization());
-		planCopy.setAverageDistanceBetweenStops(plan.getAverageDistanceBetweenStops());
-		planCopy.setAverageStopsPerTour(plan.getAverageStopsPerTour());
-		planCopy.setAverageTourLength(plan.getAverageTourLength());
-		planCopy.setNumberOfTours(plan.getNumberOfTours());
-		planCopy.setOverallLength(plan.getOverallLength());
-		planCopy.setVehicleMap(plan.getVehicleMap());
-		return planCopy;
-		
-	}
-
-}
-
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ * 
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ * 
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import org.matsim.contrib.freight.carrier.Carrier;
+import org.matsim.contrib.freight.carrier.CarrierCapabilities.FleetSize;
+import org.matsim.contrib.freight.carrier.CarrierImpl;
+import org.matsim.contrib.freight.carrier.ScheduledTour;
+import org.matsim.contrib.freight.carrier.Tour;
+import org.matsim.contrib.freight.carrier.Tour.Leg;
+import org.matsim.contrib.freight.carrier.Tour.ServiceActivity;
+import org.matsim.contrib.freight.carrier.Tour.TourElement;
+
+public class PlanCopier {
+
+	public ExtendedCarrierPlan makeDeepCopyOfPlan(ExtendedCarrierPlan plan) {
+		PlanCopyEvent event = new PlanCopyEvent();
+		event.begin();
+		ArrayList<ScheduledTour> tourCopies = new ArrayList<>();
+		Carrier carrierCopy = CarrierImpl.newInstance(plan.getCarrier().getId());
+		for(ScheduledTour scheduledTour : plan.getScheduledTours()) {
+			for(TourElement element : scheduledTour.getTour().getTourElements()) {
+				if(element instanceof ServiceActivity) {
+					ServiceActivity service = (ServiceActivity) element;
+					carrierCopy.getServices().add(service.getService());
+				}
+			}
+		}
+		carrierCopy.getCarrierCapabilities().setFleetSize(FleetSize.INFINITE);
+		carrierCopy.getCarrierCapabilities().getVehicleTypes().addAll(plan.getCarrier().getCarrierCapabilities().getVehicleTypes());
+		carrierCopy.getCarrierCapabilities().getCarrierVehicles().addAll(plan.getCarrier().getCarrierCapabilities().getCarrierVehicles());
+		
+		
+		for(ScheduledTour scheduledTour : plan.getScheduledTours()) {
+		    tourCopies.add(copyScheduledTour(scheduledTour));
+		}
+		
+		ExtendedCarrierPlan planCopy = new ExtendedCarrierPlan(carrierCopy, tourCopies);
+		planCopy.setAverageCapacityUtilization(plan.getAverageCapacityUtilization());
+		planCopy.setAverageDistanceBetweenStops(plan.getAverageDistanceBetweenStops());
+		planCopy.setAverageStopsPerTour(plan.getAverageStopsPerTour());
+		planCopy.setAverageTourLength(plan.getAverageTourLength());
+		planCopy.setNumberOfTours(plan.getNumberOfTours());
+		planCopy.setOverallLength(plan.getOverallLength());
+		planCopy.setVehicleMap(new HashMap<>(plan.getVehicleMap()));
+		planCopy.setTotalCapacityUtilization(plan.getTotalCapacityUtilization());
+		planCopy.setTotalStops(plan.getTotalStops());
+		planCopy.setTotalStopDistance(plan.getTotalStopDistance());
+		planCopy.setVehicleCounts(new HashMap<>(plan.getVehicleCounts()));
+		planCopy.setIncrementalUpdates(plan.getIncrementalUpdates());
+		event.end();
+		if(event.shouldCommit()) {
+			event.tours = plan.getScheduledTours().size();
+			event.deep = true;
+			event.commit();
+		}
+		return planCopy;
+		
+	}
+	
+	//Copy that shares the scheduled tours with the original plan. The operators never change a scheduled tour of the plan they get,
+	//they replace it by a new one, so the copy can be modified without touching the original. The maps of the key figures are mutable and therefore copied
+	public ExtendedCarrierPlan makeShallowCopyOfPlan(ExtendedCarrierPlan plan) {
+		PlanCopyEvent event = new PlanCopyEvent();
+		event.begin();
+		ExtendedCarrierPlan planCopy = new ExtendedCarrierPlan(plan.getCarrier(), new ArrayList<>(plan.getScheduledTours()));
+		planCopy.setAverageCapacityUtilization(plan.getAverageCapacityUtilization());
+		planCopy.setAverageDistanceBetweenStops(plan.getAverageDistanceBetweenStops());
+		planCopy.setAverageStopsPerTour(plan.getAverageStopsPerTour());
+		planCopy.setAverageTourLength(plan.getAverageTourLength());
+		planCopy.setNumberOfTours(plan.getNumberOfTours());
+		planCopy.setOverallLength(plan.getOverallLength());
+		planCopy.setVehicleMap(new HashMap<>(plan.getVehicleMap()));
+		planCopy.setTotalCapacityUtilization(plan.getTotalCapacityUtilization());
+		planCopy.setTotalStops(plan.getTotalStops());
+		planCopy.setTotalStopDistance(plan.getTotalStopDistance());
+		planCopy.setVehicleCounts(new HashMap<>(plan.getVehicleCounts()));
+		planCopy.setIncrementalUpdates(plan.getIncrementalUpdates());
+		event.end();
+		if(event.shouldCommit()) {
+			event.tours = plan.getScheduledTours().size();
+			event.commit();
+		}
+		return planCopy;
+	}
+	
+	//Copy of a scheduled tour with copies of its legs, so the copy can be routed without changing the original
+	public static ScheduledTour copyScheduledTour(ScheduledTour scheduledTour) {
+		Tour.Builder tourCopyBuilder = Tour.Builder.newInstance();
+		tourCopyBuilder.scheduleStart(scheduledTour.getTour().getStartLinkId());
+		for(TourElement element : scheduledTour.getTour().getTourElements()) {
+			if(element instanceof Leg) {
+				Leg leg  = (Leg)element;
+				tourCopyBuilder.addLeg(copyLeg(leg));
+			}
+			if(element instanceof ServiceActivity) {
+				ServiceActivity service  = (ServiceActivity)element;
+				tourCopyBuilder.scheduleService(service.getService());
+			}
+		}
+	    tourCopyBuilder.scheduleEnd(scheduledTour.getTour().getEndLinkId());
+	    return ScheduledTour.newInstance(tourCopyBuilder.build(), scheduledTour.getVehicle() ,0);
+	}
+	
+	//The router writes the route into the legs of the tour it routes. Legs that are taken over into a new tour are therefore copied,
+	//otherwise routing the new tour would change the routes of the tour it was built from
+	public static Leg copyLeg(Leg leg) {
+		Leg legCopy = new Leg();
+		legCopy.setRoute(leg.getRoute());
+		legCopy.setDepartureTime(leg.getExpectedDepartureTime());
+		legCopy.setExpectedTransportTime(leg.getExpectedTransportTime());
+		return legCopy;
+	}
+
+}
+
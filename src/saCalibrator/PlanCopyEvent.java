@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+//Flight recorder span of a copy of a plan, disabled by default
+@Name("saCalibrator.PlanCopy")
+@Label("Plan Copy")
+@Category({"TourCalibration", "Evaluation"})
+@Description("Deep or shallow copy of a plan")
+@Enabled(false)
+@StackTrace(false)
+class PlanCopyEvent extends Event {
+
+	@Label("Tours")
+	int tours;
+	
+	@Label("Deep")
+	boolean deep;
+
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.matsim.api.core.v01.network.Network;
+
+//Replica exchange (parallel tempering): several chains search at fixed temperatures between the initial and the end inner temperature on threads of their own.
+//After a number of iterations neighboring chains swap their plans according to the Metropolis criterion. Every chain has its own random generator,
+//router, evaluator and comparator. The swaps are decided by a master random generator after all chains have finished their iterations,
+//so the result only depends on the seed and not on the scheduling of the threads.
+public class ReplicaExchangeCalibrator {
+
+	private Network network;
+	private TourRouterFactory routerFactory;
+	private long seed;
+	
+	private int numberOfReplicas = 4;
+	private int numberOfThreads = Math.min(4, Runtime.getRuntime().availableProcessors());
+	private int iterationsPerExchange = 50;
+	private int maxExchanges = 200;
+	private double fleetMoveProbability = 0.1;
+	private int warmupIterations = 100;
+	private double initialAcceptanceProbability = 0.8;
+	private double finalAcceptanceProbability = 0.01;
+	private double distanceTolerance = 0.02;
+	
+	private double[] temperatures;
+	private int numberOfExchanges;
+	private int numberOfSwaps;
+	private double bestDistance;
+	
+	public ReplicaExchangeCalibrator(Network network, TourRouterFactory routerFactory, long seed) {
+		this.network = network;
+		this.routerFactory = routerFactory;
+		this.seed = seed;
+	}
+	
+	public ExtendedCarrierPlan run(ExtendedCarrierPlan initialPlan, ExtendedCarrierPlan referencePlan) {
+		Random masterRandom = new Random(seed);
+		ArrayList<Replica> replicas = new ArrayList<>();
+		for(int i = 0; i < numberOfReplicas; i++) {
+			Random random = new Random(masterRandom.nextLong());
+			Calibrator calibrator = new Calibrator(network, routerFactory.createTourRouter(), random);
+			calibrator.setWarmupIterations(warmupIterations);
+			calibrator.setInitialAcceptanceProbability(initialAcceptanceProbability);
+			calibrator.setFinalAcceptanceProbability(finalAcceptanceProbability);
+			calibrator.setDistanceTolerance(distanceTolerance);
+			calibrator.setReferencePlan(referencePlan);
+			replicas.add(new Replica(calibrator, random, initialPlan));
+		}
+		
+		//The hottest chain accepts disimprovements like the beginning of the inner loop, the coldest like its end
+		double[] innerTemperatures = replicas.get(0).calibrator.getInnerTemperatures(initialPlan);
+		temperatures = new double[numberOfReplicas];
+		for(int i = 0; i < numberOfReplicas; i++) {
+			double share = numberOfReplicas == 1 ? 0 : (double) i / (numberOfReplicas - 1);
+			temperatures[i] = innerTemperatures[0] * Math.pow(innerTemperatures[1] / innerTemperatures[0], share);
+			replicas.get(i).temperature = temperatures[i];
+		}
+		
+		numberOfExchanges = 0;
+		numberOfSwaps = 0;
+		ExtendedCarrierPlan bestPlan = initialPlan;
+		bestDistance = replicas.get(0).currentDistance;
+		
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(numberOfThreads, numberOfReplicas)));
+		try {
+			while(numberOfExchanges < maxExchanges && bestDistance >= distanceTolerance) {
+				List<Future<Object>> futures = executor.invokeAll(new ArrayList<Callable<Object>>(replicas));
+				for(Future<Object> future : futures) {
+					future.get();
+				}
+				
+				//Chains are checked in a fixed order, so equal distances always lead to the same best plan
+				for(Replica replica : replicas) {
+					if(replica.bestDistance < bestDistance) {
+						bestPlan = replica.bestPlan;
+						bestDistance = replica.bestDistance;
+					}
+				}
+				exchangePlans(replicas, masterRandom);
+				numberOfExchanges++;
+			}
+		}
+		catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("replica exchange was interrupted", e);
+		}
+		catch(ExecutionException e) {
+			throw new IllegalStateException("a replica failed", e.getCause());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		return bestPlan;
+	}
+	
+	//Neighboring chains are paired alternately starting with the first and the second chain
+	private void exchangePlans(ArrayList<Replica> replicas, Random masterRandom) {
+		for(int i = numberOfExchanges % 2; i + 1 < replicas.size(); i = i + 2) {
+			Replica hotterReplica = replicas.get(i);
+			Replica colderReplica = replicas.get(i + 1);
+			double exponent = (1 / colderReplica.temperature - 1 / hotterReplica.temperature) * (colderReplica.currentDistance - hotterReplica.currentDistance);
+			if(exponent >= 0 || masterRandom.nextDouble() < Math.exp(exponent)) {
+				ExtendedCarrierPlan plan = hotterReplica.currentPlan;
+				double distance = hotterReplica.currentDistance;
+				hotterReplica.currentPlan = colderReplica.currentPlan;
+				hotterReplica.currentDistance = colderReplica.currentDistance;
+				colderReplica.currentPlan = plan;
+				colderReplica.currentDistance = distance;
+				numberOfSwaps++;
+			}
+		}
+	}
+	
+	private class Replica implements Callable<Object> {
+		
+		private Calibrator calibrator;
+		private Random random;
+		private double temperature;
+		private ExtendedCarrierPlan currentPlan;
+		private double currentDistance;
+		private ExtendedCarrierPlan bestPlan;
+		private double bestDistance;
+		private HashMap<Integer, Integer> innerStrategyMap;
+		private HashMap<Integer, Integer> outerStrategyMap;
+		
+		private Replica(Calibrator calibrator, Random random, ExtendedCarrierPlan initialPlan) {
+			this.calibrator = calibrator;
+			this.random = random;
+			this.currentPlan = initialPlan;
+			this.currentDistance = calibrator.getDistance(initialPlan);
+			this.bestPlan = initialPlan;
+			this.bestDistance = currentDistance;
+			this.innerStrategyMap = calibrator.getInitialStrategyMap();
+			this.outerStrategyMap = calibrator.getInitialStrategyMap();
+		}
+		
+		@Override
+		public Object call() {
+			for(int i = 0; i < iterationsPerExchange; i++) {
+				boolean fleetMove = random.nextDouble() < fleetMoveProbability;
+				ExtendedCarrierPlan neighborPlan;
+				if(fleetMove) {
+					neighborPlan = calibrator.createFleetNeighbor(currentPlan, outerStrategyMap);
+				}
+				else {
+					neighborPlan = calibrator.createTourNeighbor(currentPlan, innerStrategyMap);
+				}
+				int strategy = calibrator.getLastStrategy();
+				double distanceToNeighborPlan = calibrator.getDistance(neighborPlan);
+				
+				if(distanceToNeighborPlan < bestDistance) {
+					bestPlan = neighborPlan;
+					bestDistance = distanceToNeighborPlan;
+					calibrator.increaseWeight(fleetMove ? outerStrategyMap : innerStrategyMap, strategy);
+				}
+				if(distanceToNeighborPlan <= currentDistance || random.nextDouble() < Math.exp((-1 * (distanceToNeighborPlan - currentDistance)) / temperature)) {
+					currentPlan = neighborPlan;
+					currentDistance = distanceToNeighborPlan;
+				}
+			}
+			return null;
+		}
+	}
+	
+	public double[] getTemperatures() {
+		return temperatures;
+	}
+	
+	public int getNumberOfExchanges() {
+		return numberOfExchanges;
+	}
+	
+	public int getNumberOfSwaps() {
+		return numberOfSwaps;
+	}
+	
+	public double getBestDistance() {
+		return bestDistance;
+	}
+	
+	public void setNumberOfReplicas(int numberOfReplicas) {
+		this.numberOfReplicas = numberOfReplicas;
+	}
+	
+	//The number of threads does not change the result
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+	
+	public void setIterationsPerExchange(int iterationsPerExchange) {
+		this.iterationsPerExchange = iterationsPerExchange;
+	}
+	
+	public void setMaxExchanges(int maxExchanges) {
+		this.maxExchanges = maxExchanges;
+	}
+	
+	public void setFleetMoveProbability(double fleetMoveProbability) {
+		this.fleetMoveProbability = fleetMoveProbability;
+	}
+	
+	public void setWarmupIterations(int warmupIterations) {
+		this.warmupIterations = warmupIterations;
+	}
+	
+	public void setInitialAcceptanceProbability(double initialAcceptanceProbability) {
+		this.initialAcceptanceProbability = initialAcceptanceProbability;
+	}
+	
+	public void setFinalAcceptanceProbability(double finalAcceptanceProbability) {
+		this.finalAcceptanceProbability = finalAcceptanceProbability;
+	}
+	
+	public void setDistanceTolerance(double distanceTolerance) {
+		this.distanceTolerance = distanceTolerance;
+	}
+	
+}
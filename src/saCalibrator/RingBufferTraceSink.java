@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import java.util.ArrayList;
+
+//Keeps the information of the last iterations in memory, older iterations are overwritten
+public class RingBufferTraceSink implements IterationTraceSink {
+
+	private IterationInformation[] buffer;
+	private int start;
+	private int size;
+	
+	public RingBufferTraceSink(int capacity) {
+		if(capacity <= 0) throw new IllegalArgumentException("capacity must be bigger than zero");
+		buffer = new IterationInformation[capacity];
+	}
+	
+	@Override
+	public void addIteration(IterationInformation information) {
+		if(size < buffer.length) {
+			buffer[(start + size) % buffer.length] = information;
+			size++;
+		}
+		else {
+			buffer[start] = information;
+			start = (start + 1) % buffer.length;
+		}
+	}
+
+	@Override
+	public Iterable<IterationInformation> getIterations() {
+		ArrayList<IterationInformation> iterations = new ArrayList<>(size);
+		for(int i = 0; i < size; i++) {
+			iterations.add(buffer[(start + i) % buffer.length]);
+		}
+		return iterations;
+	}
+	
+	public int getSize() {
+		return size;
+	}
+	
+	public int getCapacity() {
+		return buffer.length;
+	}
+
+	@Override
+	public void close() {
+	}
+	
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.contrib.freight.carrier.Carrier;
+import org.matsim.contrib.freight.carrier.CarrierService;
+import org.matsim.contrib.freight.carrier.CarrierVehicle;
+import org.matsim.contrib.freight.carrier.CarrierVehicleType;
+import org.matsim.core.router.util.TravelDisutility;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.vehicles.Vehicle;
+import org.matsim.vehicles.VehicleType;
+import org.matsim.vehicles.VehicleUtils;
+
+//Distances and travel times of the least cost paths between all locations of a carrier, the depots and the service links, for every vehicle type.
+//A leg from one location to another runs from the to-node of the first link to the from-node of the second link like in the tour router,
+//its travel time includes the second link. The searches start at every location and run in parallel. Travel times and costs are taken at time zero.
+public class ServiceDistanceMatrix {
+
+	private Map<Id<Link>, Integer> locationIndices = new HashMap<>();
+	private ArrayList<Id<Link>> locations = new ArrayList<>();
+	private Map<Id<VehicleType>, Integer> typeIndices = new HashMap<>();
+	private double[][] distances;
+	private double[][] travelTimes;
+	
+	public static ServiceDistanceMatrix create(Network network, Carrier carrier, int numberOfThreads) {
+		TypeSpecificTravelTime travelTime = new TypeSpecificTravelTime(carrier);
+		DefaultTravelCosts travelCosts = new DefaultTravelCosts(carrier, travelTime);
+		return new ServiceDistanceMatrix(network, carrier, travelCosts, travelTime, numberOfThreads);
+	}
+	
+	public ServiceDistanceMatrix(Network network, Carrier carrier, TravelDisutility travelCosts, TravelTime travelTime, int numberOfThreads) {
+		LinkedHashSet<Id<Link>> locationSet = new LinkedHashSet<>();
+		for(CarrierVehicle vehicle : carrier.getCarrierCapabilities().getCarrierVehicles()) {
+			locationSet.add(vehicle.getLocation());
+		}
+		for(CarrierService service : carrier.getServices()) {
+			locationSet.add(service.getLocationLinkId());
+		}
+		for(Id<Link> location : locationSet) {
+			locationIndices.put(location, locations.size());
+			locations.add(location);
+		}
+		ArrayList<CarrierVehicleType> types = new ArrayList<>(carrier.getCarrierCapabilities().getVehicleTypes());
+		for(CarrierVehicleType type : types) {
+			typeIndices.put(type.getId(), typeIndices.size());
+		}
+		
+		int numberOfLocations = locations.size();
+		distances = new double[types.size()][numberOfLocations * numberOfLocations];
+		travelTimes = new double[types.size()][numberOfLocations * numberOfLocations];
+		
+		SearchGraph graph = new SearchGraph(network);
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, numberOfThreads));
+		try {
+			ArrayList<Callable<Object>> searches = new ArrayList<>();
+			for(CarrierVehicleType type : types) {
+				Vehicle vehicle = VehicleUtils.getFactory().createVehicle(Id.createVehicleId("matrix_" + type.getId()), type);
+				double[] linkCosts = new double[graph.links.length];
+				double[] linkTimes = new double[graph.links.length];
+				for(int i = 0; i < graph.links.length; i++) {
+					linkCosts[i] = travelCosts.getLinkTravelDisutility(graph.links[i], 0, null, vehicle);
+					linkTimes[i] = travelTime.getLinkTravelTime(graph.links[i], 0, null, vehicle);
+				}
+				int typeIndex = typeIndices.get(type.getId());
+				for(int from = 0; from < numberOfLocations; from++) {
+					searches.add(new Search(graph, network, travelTime, vehicle, linkCosts, linkTimes, typeIndex, from));
+				}
+			}
+			for(Future<Object> future : executor.invokeAll(searches)) {
+				future.get();
+			}
+		}
+		catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("computation of the distance matrix was interrupted", e);
+		}
+		catch(ExecutionException e) {
+			throw new IllegalStateException("computation of the distance matrix failed", e.getCause());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	public boolean containsLocation(Id<Link> location) {
+		return locationIndices.containsKey(location);
+	}
+	
+	public boolean containsVehicleType(Id<VehicleType> vehicleTypeId) {
+		return typeIndices.containsKey(vehicleTypeId);
+	}
+	
+	public double getDistance(Id<Link> from, Id<Link> to, Id<VehicleType> vehicleTypeId) {
+		return distances[getTypeIndex(vehicleTypeId)][getIndex(from, to)];
+	}
+	
+	public double getTravelTime(Id<Link> from, Id<Link> to, Id<VehicleType> vehicleTypeId) {
+		return travelTimes[getTypeIndex(vehicleTypeId)][getIndex(from, to)];
+	}
+	
+	public int getNumberOfLocations() {
+		return locations.size();
+	}
+	
+	private int getTypeIndex(Id<VehicleType> vehicleTypeId) {
+		Integer typeIndex = typeIndices.get(vehicleTypeId);
+		if(typeIndex == null) throw new IllegalStateException("vehicle type " + vehicleTypeId + " is not part of the distance matrix");
+		return typeIndex;
+	}
+	
+	private int getIndex(Id<Link> from, Id<Link> to) {
+		Integer fromIndex = locationIndices.get(from);
+		Integer toIndex = locationIndices.get(to);
+		if(fromIndex == null) throw new IllegalStateException("link " + from + " is not a location of the distance matrix");
+		if(toIndex == null) throw new IllegalStateException("link " + to + " is not a location of the distance matrix");
+		return fromIndex * locations.size() + toIndex;
+	}
+	
+	//Nodes and out-links of the network as arrays, shared by all searches
+	private static class SearchGraph {
+		
+		private LinkIndex linkIndex;
+		private Link[] links;
+		private Map<Node, Integer> nodeIndices = new IdentityHashMap<>();
+		private int[][] outLinks;
+		private int[] linkToNodes;
+		
+		private SearchGraph(Network network) {
+			linkIndex = LinkIndex.getLinkIndex(network);
+			links = new Link[linkIndex.getNumberOfLinks()];
+			linkToNodes = new int[links.length];
+			for(Node node : network.getNodes().values()) {
+				nodeIndices.put(node, nodeIndices.size());
+			}
+			outLinks = new int[nodeIndices.size()][];
+			for(Node node : network.getNodes().values()) {
+				int[] nodeOutLinks = new int[node.getOutLinks().size()];
+				int i = 0;
+				for(Link link : node.getOutLinks().values()) {
+					nodeOutLinks[i] = linkIndex.getIndex(link);
+					i++;
+				}
+				outLinks[nodeIndices.get(node)] = nodeOutLinks;
+			}
+			for(int i = 0; i < links.length; i++) {
+				links[i] = network.getLinks().get(linkIndex.getLinkId(i));
+				linkToNodes[i] = nodeIndices.get(links[i].getToNode());
+			}
+		}
+	}
+	
+	//Dijkstra search from one location to all other locations of the matrix, it stops as soon as all of them are settled
+	private class Search implements Callable<Object> {
+		
+		private SearchGraph graph;
+		private Network network;
+		private TravelTime travelTime;
+		private Vehicle vehicle;
+		private double[] linkCosts;
+		private double[] linkTimes;
+		private int typeIndex;
+		private int from;
+		
+		private Search(SearchGraph graph, Network network, TravelTime travelTime, Vehicle vehicle, double[] linkCosts, double[] linkTimes, int typeIndex, int from) {
+			this.graph = graph;
+			this.network = network;
+			this.travelTime = travelTime;
+			this.vehicle = vehicle;
+			this.linkCosts = linkCosts;
+			this.linkTimes = linkTimes;
+			this.typeIndex = typeIndex;
+			this.from = from;
+		}
+		
+		@Override
+		public Object call() {
+			int numberOfNodes = graph.outLinks.length;
+			double[] costs = new double[numberOfNodes];
+			double[] pathDistances = new double[numberOfNodes];
+			double[] pathTimes = new double[numberOfNodes];
+			boolean[] settled = new boolean[numberOfNodes];
+			Arrays.fill(costs, Double.POSITIVE_INFINITY);
+			
+			int numberOfLocations = locations.size();
+			int[] targetNodes = new int[numberOfLocations];
+			HashSet<Integer> openTargetNodes = new HashSet<>();
+			for(int to = 0; to < numberOfLocations; to++) {
+				targetNodes[to] = graph.nodeIndices.get(network.getLinks().get(locations.get(to)).getFromNode());
+				openTargetNodes.add(targetNodes[to]);
+			}
+			
+			int startNode = graph.nodeIndices.get(network.getLinks().get(locations.get(from)).getToNode());
+			costs[startNode] = 0;
+			PriorityQueue<QueueEntry> queue = new PriorityQueue<>();
+			queue.add(new QueueEntry(startNode, 0));
+			while(!queue.isEmpty() && !openTargetNodes.isEmpty()) {
+				QueueEntry entry = queue.poll();
+				int node = entry.node;
+				if(settled[node]) {
+					continue;
+				}
+				settled[node] = true;
+				openTargetNodes.remove(node);
+				for(int link : graph.outLinks[node]) {
+					int toNode = graph.linkToNodes[link];
+					double cost = costs[node] + linkCosts[link];
+					if(!settled[toNode] && cost < costs[toNode]) {
+						costs[toNode] = cost;
+						pathDistances[toNode] = pathDistances[node] + graph.linkIndex.getLength(link);
+						pathTimes[toNode] = pathTimes[node] + linkTimes[link];
+						queue.add(new QueueEntry(toNode, cost));
+					}
+				}
+			}
+			
+			for(int to = 0; to < numberOfLocations; to++) {
+				int index = from * numberOfLocations + to;
+				if(to == from) {
+					distances[typeIndex][index] = 0;
+					travelTimes[typeIndex][index] = 0;
+					continue;
+				}
+				int targetNode = targetNodes[to];
+				if(!settled[targetNode]) {
+					distances[typeIndex][index] = Double.POSITIVE_INFINITY;
+					travelTimes[typeIndex][index] = Double.POSITIVE_INFINITY;
+					continue;
+				}
+				Link toLink = network.getLinks().get(locations.get(to));
+				distances[typeIndex][index] = pathDistances[targetNode];
+				travelTimes[typeIndex][index] = pathTimes[targetNode] + travelTime.getLinkTravelTime(toLink, 0, null, vehicle);
+			}
+			return null;
+		}
+	}
+	
+	private static class QueueEntry implements Comparable<QueueEntry> {
+		
+		private int node;
+		private double cost;
+		
+		private QueueEntry(int node, double cost) {
+			this.node = node;
+			this.cost = cost;
+		}
+
+		@Override
+		public int compareTo(QueueEntry other) {
+			return Double.compare(cost, other.cost);
+		}
+	}
+	
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.contrib.freight.carrier.ScheduledTour;
+import org.matsim.contrib.freight.carrier.Tour.ServiceActivity;
+import org.matsim.contrib.freight.carrier.Tour.TourElement;
+import org.matsim.vehicles.VehicleType;
+
+//Writes the key figures of the current, best and neighbor plan of every iteration as one line of a csv file, nothing is kept in memory.
+//Optionally the tours of the best plan are written to a second file every few iterations. Reading the iterations back gives plans that
+//only carry the key figures, they have no carrier and no tours. An iteration over the trace that is stopped early has to be closed,
+//otherwise the file stays open until the sink is closed.
+public class StreamingTraceSink implements IterationTraceSink {
+
+	private static final String SEPARATOR = ";";
+	private static final String[] PLAN_COLUMNS = {"NumberOfTours", "AverageCapacityUtilization", "AverageStopsPerTour", "AverageTourLength", "AverageDistanceBetweenStops", "OverallLength", "VehicleMap"};
+	
+	private File traceFile;
+	private BufferedWriter traceWriter;
+	private BufferedWriter snapshotWriter;
+	private int snapshotInterval;
+	private int numberOfIterations;
+	private boolean closed;
+	private ArrayList<TraceIterator> openIterators = new ArrayList<>();
+	
+	public StreamingTraceSink(File traceFile) throws IOException {
+		this(traceFile, null, 0);
+	}
+	
+	//Every snapshotInterval-th recorded iteration the tours of its best plan are written to the snapshot file
+	public StreamingTraceSink(File traceFile, File snapshotFile, int snapshotInterval) throws IOException {
+		this.traceFile = traceFile;
+		this.snapshotInterval = snapshotInterval;
+		traceWriter = Files.newBufferedWriter(traceFile.toPath(), StandardCharsets.UTF_8);
+		StringBuilder header = new StringBuilder("Iteration" + SEPARATOR + "InnerTemperature" + SEPARATOR + "OuterTemperature" + SEPARATOR + "InnerStrategy" + SEPARATOR + "OuterStrategy");
+		for(String plan : new String[] {"Current", "Best", "Neighbor"}) {
+			for(String column : PLAN_COLUMNS) {
+				header.append(SEPARATOR).append(plan).append(column);
+			}
+		}
+		traceWriter.write(header.toString());
+		traceWriter.newLine();
+		if(snapshotFile != null && snapshotInterval > 0) {
+			snapshotWriter = Files.newBufferedWriter(snapshotFile.toPath(), StandardCharsets.UTF_8);
+		}
+	}
+	
+	@Override
+	public void addIteration(IterationInformation information) {
+		try {
+			StringBuilder line = new StringBuilder();
+			line.append(information.getNumber()).append(SEPARATOR).append(information.getInnerTemperature()).append(SEPARATOR).append(information.getOuterTemperature());
+			line.append(SEPARATOR).append(information.getInnerStrategy()).append(SEPARATOR).append(information.getOuterStrategy());
+			appendPlan(line, information.getCurrentPlan());
+			appendPlan(line, information.getBestPlan());
+			appendPlan(line, information.getNeighborPlan());
+			traceWriter.write(line.toString());
+			traceWriter.newLine();
+			
+			if(snapshotWriter != null && numberOfIterations % snapshotInterval == 0 && information.getBestPlan() != null) {
+				writeSnapshot(information.getNumber(), information.getBestPlan());
+			}
+			numberOfIterations++;
+		}
+		catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private void appendPlan(StringBuilder line, ExtendedCarrierPlan plan) {
+		if(plan == null) {
+			for(int i = 0; i < PLAN_COLUMNS.length; i++) {
+				line.append(SEPARATOR);
+			}
+			return;
+		}
+		line.append(SEPARATOR).append(plan.getNumberOfTours());
+		line.append(SEPARATOR).append(plan.getAverageCapacityUtilization());
+		line.append(SEPARATOR).append(plan.getAverageStopsPerTour());
+		line.append(SEPARATOR).append(plan.getAverageTourLength());
+		line.append(SEPARATOR).append(plan.getAverageDistanceBetweenStops());
+		line.append(SEPARATOR).append(plan.getOverallLength());
+		line.append(SEPARATOR);
+		boolean first = true;
+		for(Entry<Id<VehicleType>, Double> entry : plan.getVehicleMap().entrySet()) {
+			if(!first) {
+				line.append('|');
+			}
+			line.append(entry.getKey()).append('=').append(entry.getValue());
+			first = false;
+		}
+	}
+	
+	//One line per tour: vehicle, vehicle type and the services in the order they are served
+	private void writeSnapshot(int iteration, ExtendedCarrierPlan plan) throws IOException {
+		snapshotWriter.write("Iteration" + SEPARATOR + iteration);
+		snapshotWriter.newLine();
+		for(ScheduledTour scheduledTour : plan.getScheduledTours()) {
+			StringBuilder line = new StringBuilder();
+			line.append(scheduledTour.getVehicle().getId()).append(SEPARATOR).append(scheduledTour.getVehicle().getVehicleType().getId()).append(SEPARATOR);
+			boolean first = true;
+			for(TourElement element : scheduledTour.getTour().getTourElements()) {
+				if(element instanceof ServiceActivity) {
+					if(!first) {
+						line.append(',');
+					}
+					line.append(((ServiceActivity) element).getService().getId());
+					first = false;
+				}
+			}
+			snapshotWriter.write(line.toString());
+			snapshotWriter.newLine();
+		}
+	}
+	
+	//Reads the trace file line by line while iterating, so reading needs as little memory as writing
+	@Override
+	public Iterable<IterationInformation> getIterations() {
+		return new Iterable<IterationInformation>() {
+			@Override
+			public Iterator<IterationInformation> iterator() {
+				return openIterations();
+			}
+		};
+	}
+	
+	//Iterator over the trace file that can be closed before it reaches the end, e.g. with try-with-resources
+	public TraceIterator openIterations() {
+		try {
+			if(!closed) {
+				traceWriter.flush();
+			}
+		}
+		catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		TraceIterator iterator = new TraceIterator(traceFile);
+		if(iterator.hasNext()) {
+			openIterators.add(iterator);
+		}
+		return iterator;
+	}
+	
+	//The reader is closed as soon as the last line is read, or when the iterator is closed before
+	public class TraceIterator implements Iterator<IterationInformation>, Closeable {
+		
+		private BufferedReader reader;
+		private String nextLine;
+		
+		private TraceIterator(File traceFile) {
+			try {
+				reader = Files.newBufferedReader(traceFile.toPath(), StandardCharsets.UTF_8);
+				reader.readLine();
+				readNextLine();
+			}
+			catch(IOException e) {
+				close();
+				throw new UncheckedIOException(e);
+			}
+		}
+		
+		private void readNextLine() throws IOException {
+			nextLine = reader.readLine();
+			if(nextLine == null) {
+				close();
+			}
+		}
+		
+		@Override
+		public void close() {
+			nextLine = null;
+			openIterators.remove(this);
+			if(reader == null) {
+				return;
+			}
+			try {
+				reader.close();
+			}
+			catch(IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		
+		@Override
+		public boolean hasNext() {
+			return nextLine != null;
+		}
+
+		@Override
+		public IterationInformation next() {
+			if(nextLine == null) throw new NoSuchElementException();
+			String[] values = nextLine.split(SEPARATOR, -1);
+			IterationInformation information = new IterationInformation(false);
+			information.setNumber(Integer.parseInt(values[0]));
+			information.setInnerTemperature(Double.parseDouble(values[1]));
+			information.setOuterTemperature(Double.parseDouble(values[2]));
+			information.setInnerStrategy(Integer.parseInt(values[3]));
+			information.setOuterStrategy(Integer.parseInt(values[4]));
+			information.setCurrentPlan(parsePlan(values, 5));
+			information.setBestPlan(parsePlan(values, 5 + PLAN_COLUMNS.length));
+			information.setNeighborPlan(parsePlan(values, 5 + 2 * PLAN_COLUMNS.length));
+			try {
+				readNextLine();
+			}
+			catch(IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return information;
+		}
+		
+		private ExtendedCarrierPlan parsePlan(String[] values, int offset) {
+			if(values[offset].isEmpty()) {
+				return null;
+			}
+			ExtendedCarrierPlan plan = new ExtendedCarrierPlan(null, new ArrayList<ScheduledTour>());
+			plan.setNumberOfTours(Integer.parseInt(values[offset]));
+			plan.setAverageCapacityUtilization(Double.parseDouble(values[offset + 1]));
+			plan.setAverageStopsPerTour(Double.parseDouble(values[offset + 2]));
+			plan.setAverageTourLength(Double.parseDouble(values[offset + 3]));
+			plan.setAverageDistanceBetweenStops(Double.parseDouble(values[offset + 4]));
+			plan.setOverallLength(Double.parseDouble(values[offset + 5]));
+			HashMap<Id<VehicleType>, Double> vehicleMap = new HashMap<>();
+			if(!values[offset + 6].isEmpty()) {
+				for(String entry : values[offset + 6].split("\\|")) {
+					int separatorIndex = entry.lastIndexOf('=');
+					vehicleMap.put(Id.create(entry.substring(0, separatorIndex), VehicleType.class), Double.parseDouble(entry.substring(separatorIndex + 1)));
+				}
+			}
+			plan.setVehicleMap(vehicleMap);
+			return plan;
+		}
+	}
+	
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		for(TraceIterator iterator : new ArrayList<>(openIterators)) {
+			iterator.close();
+		}
+		traceWriter.close();
+		if(snapshotWriter != null) {
+			snapshotWriter.close();
+		}
+	}
+
+}
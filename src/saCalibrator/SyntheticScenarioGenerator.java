@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.NetworkFactory;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.contrib.freight.carrier.Carrier;
+import org.matsim.contrib.freight.carrier.CarrierCapabilities.FleetSize;
+import org.matsim.contrib.freight.carrier.CarrierImpl;
+import org.matsim.contrib.freight.carrier.CarrierService;
+import org.matsim.contrib.freight.carrier.CarrierVehicle;
+import org.matsim.contrib.freight.carrier.CarrierVehicleType;
+import org.matsim.core.network.NetworkUtils;
+
+//Seeded generator of networks and carriers for load tests and benchmarks. The same seed always gives the same networks and services.
+//Services are created lazily by an iterator, so a large number of services can be processed without keeping all of them in memory.
+//The demands of the services are drawn from a discrete distribution, by default the demands of 1000 to 5000 of the reference carriers
+public class SyntheticScenarioGenerator {
+
+	private static final double FREESPEED = 13.8;
+	private static final double CAPACITY = 500;
+	
+	private long seed;
+	private int[] demands = {1000, 2000, 3000, 4000, 5000};
+	private double[] cumulativeWeights = {0.2, 0.4, 0.6, 0.8, 1.0};
+	private double serviceDurationPerDemand = 0.18;
+	
+	public SyntheticScenarioGenerator(long seed) {
+		this.seed = seed;
+	}
+	
+	//Grid with links in both directions between neighboring nodes. The node and link ids follow the grid network of the calibrator
+	public static Network createGridNetwork(int columns, int rows, double linkLength) {
+		Network network = NetworkUtils.createNetwork();
+		Node[][] nodes = new Node[columns][rows];
+		for(int x = 0; x < columns; x++) {
+			for(int y = 0; y < rows; y++) {
+				nodes[x][y] = network.getFactory().createNode(Id.createNodeId("(" + x + "," + y + ")"), new Coord(x * linkLength, y * linkLength));
+				network.addNode(nodes[x][y]);
+			}
+		}
+		for(int x = 0; x < columns; x++) {
+			for(int y = 0; y < rows; y++) {
+				if(x > 0) {
+					addLinks(network, "i(" + x + "," + y + ")", nodes[x - 1][y], nodes[x][y], linkLength);
+				}
+				if(y > 0) {
+					addLinks(network, "j(" + x + "," + y + ")", nodes[x][y - 1], nodes[x][y], linkLength);
+				}
+			}
+		}
+		return network;
+	}
+	
+	//Nodes at random positions in a square, linked in both directions if they are closer than the radius. Nodes are looked up in cells
+	//of the size of the radius, so the effort grows linearly with the number of nodes. Parts of the network that are not connected
+	//are linked to each other, so every link can be reached from every other link
+	public Network createRandomGeometricNetwork(int numberOfNodes, double width, double radius) {
+		Random random = new Random(seed);
+		Network network = NetworkUtils.createNetwork();
+		Node[] nodes = new Node[numberOfNodes];
+		int cellsPerSide = Math.max(1, (int) Math.ceil(width / radius));
+		List<List<Integer>> cells = new ArrayList<>(cellsPerSide * cellsPerSide);
+		for(int i = 0; i < cellsPerSide * cellsPerSide; i++) {
+			cells.add(new ArrayList<>());
+		}
+		for(int i = 0; i < numberOfNodes; i++) {
+			Coord coord = new Coord(random.nextDouble() * width, random.nextDouble() * width);
+			nodes[i] = network.getFactory().createNode(Id.createNodeId("n" + i), coord);
+			network.addNode(nodes[i]);
+			cells.get(getCell(coord.getX(), radius, cellsPerSide) * cellsPerSide + getCell(coord.getY(), radius, cellsPerSide)).add(i);
+		}
+		
+		int[] components = new int[numberOfNodes];
+		for(int i = 0; i < numberOfNodes; i++) {
+			components[i] = i;
+		}
+		for(int i = 0; i < numberOfNodes; i++) {
+			Coord coord = nodes[i].getCoord();
+			int cellX = getCell(coord.getX(), radius, cellsPerSide);
+			int cellY = getCell(coord.getY(), radius, cellsPerSide);
+			for(int x = Math.max(0, cellX - 1); x <= Math.min(cellsPerSide - 1, cellX + 1); x++) {
+				for(int y = Math.max(0, cellY - 1); y <= Math.min(cellsPerSide - 1, cellY + 1); y++) {
+					for(int j : cells.get(x * cellsPerSide + y)) {
+						double distance = NetworkUtils.getEuclideanDistance(coord, nodes[j].getCoord());
+						if(j > i && distance <= radius) {
+							addLinks(network, "l" + i + "_" + j, nodes[i], nodes[j], Math.max(1, distance));
+							components[findComponent(components, i)] = findComponent(components, j);
+						}
+					}
+				}
+			}
+		}
+		int previousComponent = -1;
+		for(int i = 0; i < numberOfNodes; i++) {
+			if(findComponent(components, i) == i) {
+				if(previousComponent >= 0) {
+					double distance = NetworkUtils.getEuclideanDistance(nodes[previousComponent].getCoord(), nodes[i].getCoord());
+					addLinks(network, "l" + previousComponent + "_" + i, nodes[previousComponent], nodes[i], Math.max(1, distance));
+				}
+				previousComponent = i;
+			}
+		}
+		return network;
+	}
+	
+	private static int getCell(double position, double radius, int cellsPerSide) {
+		return Math.min(cellsPerSide - 1, (int) (position / radius));
+	}
+	
+	private static int findComponent(int[] components, int node) {
+		while(components[node] != node) {
+			components[node] = components[components[node]];
+			node = components[node];
+		}
+		return node;
+	}
+	
+	private static void addLinks(Network network, String id, Node fromNode, Node toNode, double length) {
+		NetworkFactory factory = network.getFactory();
+		Link link = factory.createLink(Id.createLinkId(id), fromNode, toNode);
+		Link reverseLink = factory.createLink(Id.createLinkId(id + "R"), toNode, fromNode);
+		for(Link newLink : new Link[] {link, reverseLink}) {
+			newLink.setLength(length);
+			newLink.setFreespeed(FREESPEED);
+			newLink.setCapacity(CAPACITY);
+			newLink.setNumberOfLanes(1);
+			network.addLink(newLink);
+		}
+	}
+	
+	//Carrier with an infinite fleet that has one vehicle of every type at every depot. The depots and the services are placed on random links.
+	//The operators of the calibrator expect all vehicles at one depot, carriers with more depots are meant for the routing and evaluation
+	public Carrier createCarrier(Network network, Collection<CarrierVehicleType> vehicleTypes, int numberOfServices, int numberOfDepots) {
+		Carrier carrier = CarrierImpl.newInstance(Id.create("syntheticCarrier", Carrier.class));
+		carrier.getCarrierCapabilities().setFleetSize(FleetSize.INFINITE);
+		carrier.getCarrierCapabilities().getVehicleTypes().addAll(vehicleTypes);
+		carrier.getCarrierCapabilities().getCarrierVehicles().addAll(createVehicles(network, vehicleTypes, numberOfDepots));
+		Iterator<CarrierService> services = getServices(network, numberOfServices);
+		while(services.hasNext()) {
+			carrier.getServices().add(services.next());
+		}
+		return carrier;
+	}
+	
+	public List<CarrierVehicle> createVehicles(Network network, Collection<CarrierVehicleType> vehicleTypes, int numberOfDepots) {
+		//The depots are drawn with another seed than the services, so the services do not depend on the number of depots
+		Random random = new Random(~seed);
+		Id<Link>[] linkIds = getLinkIds(network);
+		List<CarrierVehicle> vehicles = new ArrayList<>();
+		for(int depot = 0; depot < numberOfDepots; depot++) {
+			Id<Link> depotLinkId = linkIds[random.nextInt(linkIds.length)];
+			for(CarrierVehicleType type : vehicleTypes) {
+				String vehicleId = numberOfDepots == 1 ? type.getId().toString() : type.getId() + "_" + depot;
+				CarrierVehicle.Builder vehicleBuilder = CarrierVehicle.Builder.newInstance(Id.createVehicleId(vehicleId), depotLinkId);
+				vehicleBuilder.setEarliestStart(0);
+				vehicleBuilder.setLatestEnd(Double.MAX_VALUE);
+				vehicleBuilder.setType(type);
+				vehicleBuilder.setTypeId(type.getId());
+				vehicles.add(vehicleBuilder.build());
+			}
+		}
+		return vehicles;
+	}
+	
+	//Every call starts the same sequence of services again
+	public Iterator<CarrierService> getServices(Network network, int numberOfServices) {
+		Random random = new Random(seed);
+		Id<Link>[] linkIds = getLinkIds(network);
+		return new Iterator<CarrierService>() {
+			
+			private int next = 0;
+			
+			@Override
+			public boolean hasNext() {
+				return next < numberOfServices;
+			}
+			
+			@Override
+			public CarrierService next() {
+				if(next >= numberOfServices) {
+					throw new NoSuchElementException();
+				}
+				CarrierService.Builder serviceBuilder = CarrierService.Builder.newInstance(Id.create("" + next, CarrierService.class), linkIds[random.nextInt(linkIds.length)]);
+				int demand = drawDemand(random);
+				serviceBuilder.setCapacityDemand(demand);
+				serviceBuilder.setServiceDuration(demand * serviceDurationPerDemand);
+				next++;
+				return serviceBuilder.build();
+			}
+		};
+	}
+	
+	public Stream<CarrierService> streamServices(Network network, int numberOfServices) {
+		Spliterator<CarrierService> spliterator = Spliterators.spliterator(getServices(network, numberOfServices), numberOfServices, Spliterator.ORDERED | Spliterator.NONNULL);
+		return StreamSupport.stream(spliterator, false);
+	}
+	
+	private int drawDemand(Random random) {
+		double rnd = random.nextDouble();
+		for(int i = 0; i < demands.length - 1; i++) {
+			if(rnd < cumulativeWeights[i]) {
+				return demands[i];
+			}
+		}
+		return demands[demands.length - 1];
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static Id<Link>[] getLinkIds(Network network) {
+		return network.getLinks().keySet().toArray(new Id[0]);
+	}
+	
+	//The weights do not need to sum up to one
+	public void setDemandDistribution(int[] demands, double[] weights) {
+		if(demands.length == 0 || demands.length != weights.length) {
+			throw new IllegalArgumentException("Every demand needs a weight");
+		}
+		double totalWeight = 0;
+		for(double weight : weights) {
+			totalWeight = totalWeight + weight;
+		}
+		this.demands = demands.clone();
+		this.cumulativeWeights = new double[weights.length];
+		double cumulativeWeight = 0;
+		for(int i = 0; i < weights.length; i++) {
+			cumulativeWeight = cumulativeWeight + weights[i];
+			cumulativeWeights[i] = cumulativeWeight / totalWeight;
+		}
+	}
+	
+	public int[] getDemands() {
+		return demands.clone();
+	}
+	
+	//Seconds of service per unit of demand, by default 180 seconds per 1000 units like the reference carriers
+	public void setServiceDurationPerDemand(double serviceDurationPerDemand) {
+		this.serviceDurationPerDemand = serviceDurationPerDemand;
+	}
+	
+	public double getServiceDurationPerDemand() {
+		return serviceDurationPerDemand;
+	}
+	
+	public long getSeed() {
+		return seed;
+	}
+
+}
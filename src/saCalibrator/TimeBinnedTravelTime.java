@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.vehicles.Vehicle;
+
+//Travel times from speed profiles with one speed per link and time bin, e.g. 96 bins of 15 minutes for a day. The speeds of all links with a profile
+//are kept in one float array with one row of bins per link, links without a profile drive at freespeed. Departures after the last bin use the last bin,
+//undefined departure times the first one. No vehicle drives faster than the maximum velocity of its type, and no profile is faster than the freespeed
+//of its link, so the freespeed travel time stays a lower bound of the travel time as the routers expect it.
+//MATSim 11 links carry no number, so the row of a link is found by the identity of the link. Without any profile no row is looked up at all.
+//Profiles are read from a CSV file with the columns link id, bin and speed in meters per second or from a binary file, the binary file is read memory-mapped.
+public class TimeBinnedTravelTime implements TravelTime {
+
+	private static final int MAGIC_NUMBER = 0x53504446;
+	private static final int VERSION = 1;
+	
+	private Network network;
+	private double binSize;
+	private int numberOfBins;
+	private Map<Link, Integer> rows = new IdentityHashMap<>();
+	private float[] speeds = new float[0];
+	
+	public TimeBinnedTravelTime(Network network, double binSize, int numberOfBins) {
+		if(binSize <= 0.0) throw new IllegalArgumentException("binSize must be bigger than zero");
+		if(numberOfBins <= 0) throw new IllegalArgumentException("numberOfBins must be bigger than zero");
+		this.network = network;
+		this.binSize = binSize;
+		this.numberOfBins = numberOfBins;
+	}
+	
+	@Override
+	public double getLinkTravelTime(Link link, double time, Person person, Vehicle vehicle) {
+		double velocity;
+		Integer row = rows.isEmpty() ? null : rows.get(link);
+		if(row == null) {
+			velocity = link.getFreespeed(time);
+		}
+		else {
+			velocity = Math.min(speeds[row * numberOfBins + getBin(time)], link.getFreespeed(time));
+		}
+		if(vehicle != null) {
+			double maximumVelocity = vehicle.getType().getMaximumVelocity();
+			if(maximumVelocity > 0.0 && maximumVelocity < velocity) {
+				velocity = maximumVelocity;
+			}
+		}
+		if(velocity <= 0.0) throw new IllegalStateException("velocity must be bigger than zero");
+		return link.getLength() / velocity;
+	}
+	
+	public int getBin(double time) {
+		if(!(time > 0.0)) {
+			return 0;
+		}
+		return (int) Math.min(numberOfBins - 1, Math.floor(time / binSize));
+	}
+	
+	public double getSpeed(Id<Link> linkId, int bin) {
+		Link link = getLink(linkId);
+		Integer row = rows.get(link);
+		if(row == null) {
+			return link.getFreespeed();
+		}
+		return speeds[row * numberOfBins + bin];
+	}
+	
+	//The first speed of a link creates its profile, all other bins of the profile start at the freespeed of the link
+	public void setSpeed(Id<Link> linkId, int bin, double speed) {
+		if(bin < 0 || bin >= numberOfBins) throw new IllegalArgumentException("bin " + bin + " is not between 0 and " + (numberOfBins - 1));
+		if(speed <= 0.0) throw new IllegalArgumentException("speed of link " + linkId + " must be bigger than zero");
+		speeds[getRow(getLink(linkId)) * numberOfBins + bin] = (float) speed;
+	}
+	
+	private Link getLink(Id<Link> linkId) {
+		Link link = network.getLinks().get(linkId);
+		if(link == null) throw new IllegalArgumentException("link " + linkId + " is not part of the network");
+		return link;
+	}
+	
+	private int getRow(Link link) {
+		Integer row = rows.get(link);
+		if(row != null) {
+			return row;
+		}
+		row = rows.size();
+		if((row + 1) * numberOfBins > speeds.length) {
+			speeds = Arrays.copyOf(speeds, Math.max(numberOfBins, speeds.length * 2));
+		}
+		Arrays.fill(speeds, row * numberOfBins, (row + 1) * numberOfBins, (float) link.getFreespeed());
+		rows.put(link, row);
+		return row;
+	}
+	
+	public double getBinSize() {
+		return binSize;
+	}
+	
+	public int getNumberOfBins() {
+		return numberOfBins;
+	}
+	
+	//The first line of the file is a header, the columns are separated by ";". Links that are not part of the network are skipped
+	public static TimeBinnedTravelTime readCsv(Network network, File file, double binSize, int numberOfBins) throws IOException {
+		TimeBinnedTravelTime travelTime = new TimeBinnedTravelTime(network, binSize, numberOfBins);
+		try(BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+			reader.readLine();
+			String line;
+			while((line = reader.readLine()) != null) {
+				if(line.isEmpty()) {
+					continue;
+				}
+				String[] values = line.split(";");
+				if(values.length != 3) throw new IOException("line \"" + line + "\" of " + file + " does not have three columns");
+				Id<Link> linkId = Id.createLinkId(values[0]);
+				if(network.getLinks().containsKey(linkId)) {
+					travelTime.setSpeed(linkId, Integer.parseInt(values[1]), Double.parseDouble(values[2]));
+				}
+			}
+		}
+		return travelTime;
+	}
+	
+	//Every link with a profile is written with its id and the speeds of all bins
+	public void write(File file) throws IOException {
+		try(DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file.toPath())))) {
+			output.writeInt(MAGIC_NUMBER);
+			output.writeInt(VERSION);
+			output.writeDouble(binSize);
+			output.writeInt(numberOfBins);
+			output.writeInt(rows.size());
+			for(Link link : network.getLinks().values()) {
+				Integer row = rows.get(link);
+				if(row == null) {
+					continue;
+				}
+				byte[] linkId = link.getId().toString().getBytes(StandardCharsets.UTF_8);
+				output.writeInt(linkId.length);
+				output.write(linkId);
+				for(int bin = 0; bin < numberOfBins; bin++) {
+					output.writeFloat(speeds[row * numberOfBins + bin]);
+				}
+			}
+		}
+	}
+	
+	public static TimeBinnedTravelTime read(Network network, File file) throws IOException {
+		try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if(buffer.getInt() != MAGIC_NUMBER) throw new IOException(file + " is not a speed profile file");
+			int version = buffer.getInt();
+			if(version != VERSION) throw new IOException("speed profile file version " + version + " is not supported");
+			double binSize = buffer.getDouble();
+			int numberOfBins = buffer.getInt();
+			int numberOfLinks = buffer.getInt();
+			TimeBinnedTravelTime travelTime = new TimeBinnedTravelTime(network, binSize, numberOfBins);
+			byte[] linkIdBytes = new byte[64];
+			for(int link = 0; link < numberOfLinks; link++) {
+				int length = buffer.getInt();
+				if(length > linkIdBytes.length) {
+					linkIdBytes = new byte[length];
+				}
+				buffer.get(linkIdBytes, 0, length);
+				Id<Link> linkId = Id.createLinkId(new String(linkIdBytes, 0, length, StandardCharsets.UTF_8));
+				if(!network.getLinks().containsKey(linkId)) {
+					buffer.position(buffer.position() + numberOfBins * Float.BYTES);
+					continue;
+				}
+				int offset = travelTime.getRow(network.getLinks().get(linkId)) * numberOfBins;
+				for(int bin = 0; bin < numberOfBins; bin++) {
+					travelTime.speeds[offset + bin] = buffer.getFloat();
+				}
+			}
+			return travelTime;
+		}
+	}
+
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.vehicles.VehicleType;
+
+//Characteristics of one scheduled tour from which the key figures of a plan are summed up
+class TourAggregate {
+
+	double load;
+	double capacity;
+	double stops;
+	double tourLength;
+	double stopDistance;
+	Id<VehicleType> vehicleTypeId;
+
+	double getCapacityUtilization() {
+		return load / capacity;
+	}
+
+}
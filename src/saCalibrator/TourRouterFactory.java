@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import org.matsim.contrib.freight.router.TimeAndSpaceTourRouter;
+
+//The path calculators of the routers are not thread-safe, so every thread that modifies plans needs a router of its own
+public interface TourRouterFactory {
+
+	public TimeAndSpaceTourRouter createTourRouter();
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import org.matsim.contrib.freight.carrier.ScheduledTour;
+import org.matsim.contrib.freight.carrier.Tour.Leg;
+import org.matsim.contrib.freight.carrier.Tour.TourElement;
+import org.matsim.contrib.freight.router.TimeAndSpaceTourRouter;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+//Flight recorder span of routing one tour, disabled by default. The span is taken where the calibration routes a tour, so every router is recorded
+@Name("saCalibrator.TourRouting")
+@Label("Tour Routing")
+@Category({"TourCalibration", "Routing"})
+@Description("Routing of one scheduled tour")
+@Enabled(false)
+@StackTrace(false)
+class TourRoutingEvent extends Event {
+
+	@Label("Router")
+	String router;
+	
+	@Label("Legs")
+	int legs;
+	
+	static void route(TimeAndSpaceTourRouter router, ScheduledTour tour) {
+		TourRoutingEvent event = new TourRoutingEvent();
+		event.begin();
+		router.route(tour);
+		event.finish(router, tour);
+	}
+	
+	//Ends the span and commits it if the event is enabled and the span is longer than the threshold of the recording
+	void finish(Object router, ScheduledTour tour) {
+		end();
+		if(shouldCommit()) {
+			this.router = router.getClass().getSimpleName();
+			for(TourElement element : tour.getTour().getTourElements()) {
+				if(element instanceof Leg) {
+					legs++;
+				}
+			}
+			commit();
+		}
+	}
+
+}
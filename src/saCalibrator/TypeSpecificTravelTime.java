@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import java.util.Collection;
+
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.contrib.freight.carrier.Carrier;
+import org.matsim.contrib.freight.carrier.CarrierVehicleType;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.vehicles.Vehicle;
+
+//Travel times that respect the maximum velocities of the vehicle types of a carrier. The maximum velocities are kept in an array indexed by type,
+//length and freespeed are read from the link. Vehicles without a type of the carrier and calls without a vehicle get the travel time at freespeed
+public class TypeSpecificTravelTime implements TravelTime {
+
+	private VehicleTypeIndex typeIndex;
+	private double[] maximumVelocities;
+	
+	public TypeSpecificTravelTime(Carrier carrier) {
+		Collection<CarrierVehicleType> types = carrier.getCarrierCapabilities().getVehicleTypes();
+		typeIndex = new VehicleTypeIndex(types);
+		maximumVelocities = new double[types.size()];
+		for(CarrierVehicleType type : types) {
+			maximumVelocities[typeIndex.getIndex(type.getId())] = type.getMaximumVelocity();
+		}
+	}
+	
+	@Override
+	public double getLinkTravelTime(Link link, double time, Person person, Vehicle vehicle) {
+		double freespeed = link.getFreespeed(time);
+		if(freespeed <= 0.0) throw new IllegalStateException("velocity must be bigger than zero");
+		if(vehicle != null) {
+			int type = typeIndex.getIndex(vehicle.getType().getId());
+			if(type >= 0) {
+				return link.getLength() / getVelocity(freespeed, type);
+			}
+		}
+		return link.getLength() / freespeed;
+	}
+	
+	private double getVelocity(double freespeed, int type) {
+		if(maximumVelocities[type] > 0.0 && maximumVelocities[type] < freespeed) {
+			return maximumVelocities[type];
+		}
+		return freespeed;
+	}
+
+}
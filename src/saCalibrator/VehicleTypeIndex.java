@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibrator;
+
+import java.util.Collection;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.contrib.freight.carrier.CarrierVehicleType;
+import org.matsim.vehicles.VehicleType;
+
+//Numbers the vehicle types of a carrier. A carrier has only a few types, so the number of a type is found by comparing the ids,
+//which are unique objects in MATSim. Finding a number creates no objects, so it can be used while a path calculator relaxes a link
+class VehicleTypeIndex {
+
+	private Id<?>[] typeIds;
+	
+	VehicleTypeIndex(Collection<CarrierVehicleType> types) {
+		typeIds = new Id<?>[types.size()];
+		int typeIndex = 0;
+		for(CarrierVehicleType type : types) {
+			typeIds[typeIndex] = type.getId();
+			typeIndex++;
+		}
+	}
+	
+	int getIndex(Id<VehicleType> typeId) {
+		for(int i = 0; i < typeIds.length; i++) {
+			if(typeIds[i] == typeId) {
+				return i;
+			}
+		}
+		//Ids that were not created by Id.create are compared by their content
+		for(int i = 0; i < typeIds.length; i++) {
+			if(typeIds[i].equals(typeId)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	int getNumberOfTypes() {
+		return typeIds.length;
+	}
+
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibratorTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.freight.carrier.Carrier;
+import org.matsim.contrib.freight.carrier.ScheduledTour;
+import org.matsim.contrib.freight.carrier.Tour.Leg;
+import org.matsim.contrib.freight.carrier.Tour.ServiceActivity;
+import org.matsim.contrib.freight.carrier.Tour.TourElement;
+import org.matsim.contrib.freight.router.TimeAndSpaceTourRouter;
+import org.matsim.core.population.routes.NetworkRoute;
+import org.matsim.core.router.FastDijkstraFactory;
+
+import saCalibrator.AdaptiveOperationsWithHeterogeneusFleet;
+import saCalibrator.Calibrator;
+import saCalibrator.CarrierPlanComparator;
+import saCalibrator.CarrierPlanEvaluator;
+import saCalibrator.DefaultTourRouterFactory;
+import saCalibrator.DefaultTravelCosts;
+import saCalibrator.DefaultTravelTime;
+import saCalibrator.ExtendedCarrierPlan;
+import saCalibrator.IncrementalTourRouter;
+import saCalibrator.IterationInformation;
+import saCalibrator.MatrixTourRouter;
+import saCalibrator.OperatorMetrics;
+import saCalibrator.OperatorStatistics;
+import saCalibrator.ParallelTourRouter;
+import saCalibrator.PlanCopier;
+import saCalibrator.ServiceDistanceMatrix;
+
+public class CalibratorTest {
+
+	@Test
+	public void testCalibration() {
+		Random random = new Random(1);
+		GridReferenceCase referenceCase = new GridReferenceCase();
+		Network network = referenceCase.getNetwork();
+		Carrier carrier = referenceCase.getReferenceCarrier(network, random);
+		CarrierPlanEvaluator evaluator = new CarrierPlanEvaluator();
+		DefaultTravelTime defaultTime = new DefaultTravelTime();
+		DefaultTravelCosts defaultCosts = new DefaultTravelCosts(carrier, defaultTime);
+		TimeAndSpaceTourRouter router = new TimeAndSpaceTourRouter(new FastDijkstraFactory().createPathCalculator(network, defaultCosts, defaultTime), network, defaultTime);
+
+		ExtendedCarrierPlan referencePlan = evaluator.evaluateCarrierPlan(referenceCase.getRealisticPlan(carrier, network, random), network);
+		ExtendedCarrierPlan initialPlan = evaluator.evaluateCarrierPlan(referenceCase.getRealisticPlan(carrier, network, random), network);
+
+		CarrierPlanComparator comparator = new CarrierPlanComparator();
+		comparator.setIncumbentPlan(referencePlan);
+		comparator.setEntrantPlan(initialPlan);
+		double initialDistance = comparator.getDistanceToBestPlan();
+
+		Calibrator calibrator = new Calibrator(network, router, random);
+		calibrator.setWarmupIterations(10);
+		calibrator.setMaxIterations(300);
+		ExtendedCarrierPlan bestPlan = calibrator.run(initialPlan, referencePlan);
+
+		assertTrue(calibrator.getIterations() <= 300);
+		assertTrue(calibrator.getBestDistance() <= initialDistance);
+
+		//The best plan still serves every service exactly once
+		int numberOfServices = 0;
+		for(ScheduledTour scheduledTour : bestPlan.getScheduledTours()) {
+			int load = 0;
+			for(TourElement element : scheduledTour.getTour().getTourElements()) {
+				if(element instanceof ServiceActivity) {
+					numberOfServices++;
+					load = load + ((ServiceActivity) element).getService().getCapacityDemand();
+				}
+			}
+			assertTrue(load <= scheduledTour.getVehicle().getVehicleType().getCarrierVehicleCapacity());
+		}
+		assertTrue(numberOfServices == carrier.getServices().size());
+
+		//The initial plan is not touched by the calibration
+		comparator.setEntrantPlan(evaluator.evaluateCarrierPlan(initialPlan, network));
+		assertTrue(comparator.getDistanceToBestPlan() == initialDistance);
+	}
+
+	@Test
+	public void testRecordedPlansShareTours() {
+		Random random = new Random(3);
+		GridReferenceCase referenceCase = new GridReferenceCase();
+		Network network = referenceCase.getNetwork();
+		Carrier carrier = referenceCase.getReferenceCarrier(network, random);
+		CarrierPlanEvaluator evaluator = new CarrierPlanEvaluator();
+		ExtendedCarrierPlan referencePlan = evaluator.evaluateCarrierPlan(referenceCase.getRealisticPlan(carrier, network, random), network);
+		ExtendedCarrierPlan initialPlan = evaluator.evaluateCarrierPlan(referenceCase.getRealisticPlan(carrier, network, random), network);
+
+		//A recorded plan keeps its tours even if the plan is modified afterwards
+		IterationInformation info = new IterationInformation();
+		info.setCurrentPlan(initialPlan);
+		ScheduledTour removedTour = initialPlan.getScheduledTours().iterator().next();
+		initialPlan.getScheduledTours().remove(removedTour);
+		assertTrue(info.getCurrentPlan().getScheduledTours().contains(removedTour));
+		initialPlan.getScheduledTours().add(removedTour);
+
+		Calibrator calibrator = new Calibrator(network, new DefaultTourRouterFactory(network, carrier).createTourRouter(), random);
+		calibrator.setWarmupIterations(10);
+		calibrator.setMaxIterations(50);
+		calibrator.setRecordIterations(true);
+		calibrator.run(initialPlan, referencePlan);
+
+		//Consecutive plans differ in a few tours only, the others are shared between the recorded plans
+		ArrayList<IterationInformation> infoList = calibrator.getIterationInformation();
+		assertTrue(infoList.size() > 1);
+		Set<ScheduledTour> distinctTours = Collections.newSetFromMap(new IdentityHashMap<ScheduledTour, Boolean>());
+		int recordedTours = 0;
+		for(IterationInformation information : infoList.subList(1, infoList.size())) {
+			for(ExtendedCarrierPlan plan : Arrays.asList(information.getCurrentPlan(), information.getBestPlan(), information.getNeighborPlan())) {
+				distinctTours.addAll(plan.getScheduledTours());
+				recordedTours = recordedTours + plan.getScheduledTours().size();
+			}
+		}
+		assertTrue(distinctTours.size() < recordedTours / 2);
+	}
+
+	@Test
+	public void testLazyRouting() {
+		Random random = new Random(5);
+		GridReferenceCase referenceCase = new GridReferenceCase();
+		Network network = referenceCase.getNetwork();
+		Carrier carrier = referenceCase.getReferenceCarrier(network, random);
+		CarrierPlanEvaluator evaluator = new CarrierPlanEvaluator();
+		ExtendedCarrierPlan referencePlan = evaluator.evaluateCarrierPlan(referenceCase.getRealisticPlan(carrier, network, random), network);
+		ExtendedCarrierPlan initialPlan = evaluator.evaluateCarrierPlan(referenceCase.getRealisticPlan(carrier, network, random), network);
+
+		DefaultTourRouterFactory routerFactory = new DefaultTourRouterFactory(network, carrier);
+		routerFactory.setDistanceMatrix(ServiceDistanceMatrix.create(network, carrier, 2));
+		MatrixTourRouter router = (MatrixTourRouter) routerFactory.createTourRouter();
+		Calibrator calibrator = new Calibrator(network, router, random);
+		calibrator.setWarmupIterations(10);
+		calibrator.setMaxIterations(200);
+		calibrator.setRecordIterations(true);
+		calibrator.setLazyRouting(true);
+		ExtendedCarrierPlan bestPlan = calibrator.run(initialPlan, referencePlan);
+
+		//Current and best plans are routed on the network, rejected neighbors keep the routes of the matrix
+		boolean unroutedNeighbor = false;
+		for(IterationInformation information : calibrator.getIterationInformation()) {
+			assertTrue(isRoutedOnNetwork(information.getCurrentPlan()));
+			assertTrue(isRoutedOnNetwork(information.getBestPlan()));
+			if(information.getNeighborPlan() != null && !isRoutedOnNetwork(information.getNeighborPlan())) {
+				unroutedNeighbor = true;
+			}
+		}
+		assertTrue(unroutedNeighbor);
+		assertTrue(isRoutedOnNetwork(bestPlan));
+		
+		//The materialized plan is evaluated with its network routes, legs that kept their locations are not searched again
+		ExtendedCarrierPlan evaluatedBestPlan = new CarrierPlanEvaluator().evaluateCarrierPlan(bestPlan, network);
+		assertEquals(evaluatedBestPlan.getOverallLength(), bestPlan.getOverallLength(), 1e-6);
+		assertEquals(evaluatedBestPlan.getAverageDistanceBetweenStops(), bestPlan.getAverageDistanceBetweenStops(), 1e-6);
+		CarrierPlanComparator comparator = new CarrierPlanComparator();
+		comparator.setIncumbentPlan(referencePlan);
+		comparator.setEntrantPlan(evaluatedBestPlan);
+		assertEquals(comparator.getDistanceToBestPlan(), calibrator.getBestDistance(), 1e-9);
+		assertTrue(router.getNetworkRouter().getReusedLegs() > 0);
+	}
+
+	@Test
+	public void testOperatorMetrics() {
+		Random random = new Random(6);
+		GridReferenceCase referenceCase = new GridReferenceCase();
+		Network network = referenceCase.getNetwork();
+		Carrier carrier = referenceCase.getReferenceCarrier(network, random);
+		CarrierPlanEvaluator evaluator = new CarrierPlanEvaluator();
+		ExtendedCarrierPlan referencePlan = evaluator.evaluateCarrierPlan(referenceCase.getRealisticPlan(carrier, network, random), network);
+		ExtendedCarrierPlan initialPlan = evaluator.evaluateCarrierPlan(referenceCase.getRealisticPlan(carrier, network, random), network);
+
+		OperatorMetrics metrics = new OperatorMetrics();
+		Calibrator calibrator = new Calibrator(network, new DefaultTourRouterFactory(network, carrier).createTourRouter(), random);
+		calibrator.setWarmupIterations(10);
+		calibrator.setMaxIterations(200);
+		calibrator.setOperatorMetrics(metrics);
+		calibrator.run(initialPlan, referencePlan);
+
+		//Every iteration calls at least one tour operator, every outer iteration at least one fleet operator
+		long tourCalls = 0;
+		long fleetCalls = 0;
+		long accepted = 0;
+		List<OperatorStatistics> snapshot = metrics.getSnapshot();
+		assertEquals(6, snapshot.size());
+		for(OperatorStatistics statistics : snapshot) {
+			if(statistics.getOperator().contains("Shipment")) {
+				tourCalls = tourCalls + statistics.getCalls();
+			}
+			else {
+				fleetCalls = fleetCalls + statistics.getCalls();
+			}
+			accepted = accepted + statistics.getAccepted();
+			assertTrue(statistics.getInfeasible() <= statistics.getCalls());
+			assertTrue(statistics.getMedianNanos() <= statistics.getPercentile99Nanos());
+			assertTrue(statistics.getPercentile99Nanos() <= statistics.getMaxNanos());
+		}
+		assertTrue(tourCalls >= calibrator.getIterations());
+		assertTrue(fleetCalls >= calibrator.getOuterIterations());
+		assertTrue(accepted >= calibrator.getNumberOfImprovements());
+	}
+
+	@Test
+	public void testParallelFleetMoves() {
+		Random random = new Random(7);
+		GridReferenceCase referenceCase = new GridReferenceCase();
+		Network network = referenceCase.getNetwork();
+		Carrier carrier = referenceCase.getReferenceCarrier(network, random);
+		CarrierPlanEvaluator evaluator = new CarrierPlanEvaluator();
+		ExtendedCarrierPlan plan = evaluator.evaluateCarrierPlan(referenceCase.getRealisticPlan(carrier, network, random), network);
+		DefaultTourRouterFactory routerFactory = new DefaultTourRouterFactory(network, carrier);
+		TimeAndSpaceTourRouter router = routerFactory.createTourRouter();
+		PlanCopier copier = new PlanCopier();
+
+		//Serial and parallel routing of the same moves give the same routes, tours that were not changed are kept
+		try(ParallelTourRouter parallelRouter = new ParallelTourRouter(routerFactory, 3)) {
+			for(int i = 0; i < 10; i++) {
+				ExtendedCarrierPlan serialPlan = AdaptiveOperationsWithHeterogeneusFleet.addFurtherVehicle(copier.makeShallowCopyOfPlan(plan), new Random(i), router);
+				ExtendedCarrierPlan parallelPlan = AdaptiveOperationsWithHeterogeneusFleet.addFurtherVehicle(copier.makeShallowCopyOfPlan(plan), new Random(i), router, parallelRouter);
+				assertSameRoutes(serialPlan, parallelPlan);
+				serialPlan = evaluator.evaluateCarrierPlan(serialPlan, network);
+
+				ExtendedCarrierPlan removedPlan = AdaptiveOperationsWithHeterogeneusFleet.removeVehicle(copier.makeShallowCopyOfPlan(serialPlan), new Random(i), router);
+				ExtendedCarrierPlan parallelRemovedPlan = AdaptiveOperationsWithHeterogeneusFleet.removeVehicle(copier.makeShallowCopyOfPlan(serialPlan), new Random(i), router, parallelRouter);
+				assertSameRoutes(removedPlan, parallelRemovedPlan);
+				for(ScheduledTour scheduledTour : removedPlan.getScheduledTours()) {
+					if(serialPlan.getScheduledTours().contains(scheduledTour)) {
+						assertTrue(parallelRemovedPlan.getScheduledTours().contains(scheduledTour));
+					}
+				}
+				plan = evaluator.evaluateCarrierPlan(removedPlan, network);
+			}
+		}
+	}
+
+	@Test
+	public void testSingleTourIsRoutedOnGivenRouter() {
+		Random random = new Random(8);
+		GridReferenceCase referenceCase = new GridReferenceCase();
+		Network network = referenceCase.getNetwork();
+		Carrier carrier = referenceCase.getReferenceCarrier(network, random);
+		ExtendedCarrierPlan plan = new CarrierPlanEvaluator().evaluateCarrierPlan(referenceCase.getRealisticPlan(carrier, network, random), network);
+		DefaultTourRouterFactory routerFactory = new DefaultTourRouterFactory(network, carrier);
+		IncrementalTourRouter router = (IncrementalTourRouter) routerFactory.createTourRouter();
+
+		//The copy keeps the routes of its legs, so the router of the calibrator takes them over instead of a router of the pool
+		ScheduledTour scheduledTour = PlanCopier.copyScheduledTour(plan.getScheduledTours().iterator().next());
+		try(ParallelTourRouter parallelRouter = new ParallelTourRouter(routerFactory, 2)) {
+			parallelRouter.route(Collections.singletonList(scheduledTour), router);
+		}
+		assertTrue(router.getReusedLegs() > 0);
+	}
+
+	private void assertSameRoutes(ExtendedCarrierPlan expectedPlan, ExtendedCarrierPlan actualPlan) {
+		assertTrue(expectedPlan.getScheduledTours().size() == actualPlan.getScheduledTours().size());
+		Iterator<ScheduledTour> actualTours = actualPlan.getScheduledTours().iterator();
+		for(ScheduledTour expectedTour : expectedPlan.getScheduledTours()) {
+			ScheduledTour actualTour = actualTours.next();
+			assertTrue(expectedTour.getTour().getTourElements().size() == actualTour.getTour().getTourElements().size());
+			for(int i = 0; i < expectedTour.getTour().getTourElements().size(); i++) {
+				TourElement expectedElement = expectedTour.getTour().getTourElements().get(i);
+				TourElement actualElement = actualTour.getTour().getTourElements().get(i);
+				if(expectedElement instanceof Leg) {
+					assertTrue(((NetworkRoute) ((Leg) expectedElement).getRoute()).getLinkIds().equals(((NetworkRoute) ((Leg) actualElement).getRoute()).getLinkIds()));
+				}
+				else {
+					assertTrue(((ServiceActivity) expectedElement).getService() == ((ServiceActivity) actualElement).getService());
+				}
+			}
+		}
+	}
+
+	private boolean isRoutedOnNetwork(ExtendedCarrierPlan plan) {
+		for(ScheduledTour scheduledTour : plan.getScheduledTours()) {
+			if(!MatrixTourRouter.isRoutedOnNetwork(scheduledTour)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
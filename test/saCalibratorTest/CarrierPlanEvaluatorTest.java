@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibratorTest;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map.Entry;
+import java.util.Random;
+
+import org.junit.Test;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.freight.carrier.Carrier;
+import org.matsim.contrib.freight.carrier.CarrierPlan;
+import org.matsim.contrib.freight.router.TimeAndSpaceTourRouter;
+import org.matsim.core.router.FastDijkstraFactory;
+import org.matsim.vehicles.VehicleType;
+
+import saCalibrator.AdaptiveOperationsWithHeterogeneusFleet;
+import saCalibrator.CarrierPlanEvaluator;
+import saCalibrator.DefaultTravelCosts;
+import saCalibrator.DefaultTravelTime;
+import saCalibrator.ExtendedCarrierPlan;
+import saCalibrator.PlanCopier;
+
+public class CarrierPlanEvaluatorTest {
+
+	private static final double TOLERANCE = 1e-9;
+
+	@Test
+	public void testDeltaEvaluation() {
+		Random random = new Random(1);
+		GridReferenceCase referenceCase = new GridReferenceCase();
+		Network network = referenceCase.getNetwork();
+		Carrier carrier = referenceCase.getReferenceCarrier(network, random);
+		CarrierPlanEvaluator evaluator = new CarrierPlanEvaluator();
+		PlanCopier copier = new PlanCopier();
+		DefaultTravelTime defaultTime = new DefaultTravelTime();
+		DefaultTravelCosts defaultCosts = new DefaultTravelCosts(carrier, defaultTime);
+		TimeAndSpaceTourRouter router = new TimeAndSpaceTourRouter(new FastDijkstraFactory().createPathCalculator(network, defaultCosts, defaultTime), network, defaultTime);
+
+		ExtendedCarrierPlan plan = evaluator.evaluateCarrierPlan(referenceCase.getRealisticPlan(carrier, network, random), network);
+
+		//Every operator is applied to a copy sharing the unchanged tours, the delta evaluation has to match a full evaluation of the neighbor
+		for(int i = 0; i < 60; i++) {
+			ExtendedCarrierPlan planCopy = copier.makeShallowCopyOfPlan(plan);
+			applyOperator(planCopy, i % 6, random, router);
+
+			ExtendedCarrierPlan deltaPlan = evaluator.evaluateCarrierPlan(planCopy, network, plan);
+			ExtendedCarrierPlan fullPlan = evaluator.evaluateCarrierPlan(planCopy, network);
+			assertPlansEqual(fullPlan, deltaPlan);
+			//The tours the operator recorded as changed are the same as the ones found by comparing the plans
+			ExtendedCarrierPlan recordedPlan = evaluator.evaluateChangedTours(planCopy, plan, planCopy.getRemovedTours(), planCopy.getAddedTours(), network);
+			assertPlansEqual(fullPlan, recordedPlan);
+			plan = deltaPlan;
+		}
+	}
+
+	@Test
+	public void testFusedEvaluationIsBitIdentical() {
+		Random random = new Random(2);
+		GridReferenceCase referenceCase = new GridReferenceCase();
+		Network network = referenceCase.getNetwork();
+		CarrierPlanEvaluator fusedEvaluator = new CarrierPlanEvaluator();
+		CarrierPlanEvaluator legacyEvaluator = new CarrierPlanEvaluator();
+		legacyEvaluator.setFusedEvaluation(false);
+
+		for(int i = 0; i < 20; i++) {
+			Carrier carrier = referenceCase.getReferenceCarrier(network, random);
+			CarrierPlan plan = referenceCase.getRealisticPlan(carrier, network, random);
+			ExtendedCarrierPlan legacyPlan = legacyEvaluator.evaluateCarrierPlan(plan, network);
+			ExtendedCarrierPlan fusedPlan = fusedEvaluator.evaluateCarrierPlan(plan, network);
+
+			assertEquals(legacyPlan.getNumberOfTours(), fusedPlan.getNumberOfTours());
+			assertBitIdentical(legacyPlan.getAverageCapacityUtilization(), fusedPlan.getAverageCapacityUtilization());
+			assertBitIdentical(legacyPlan.getAverageStopsPerTour(), fusedPlan.getAverageStopsPerTour());
+			assertBitIdentical(legacyPlan.getAverageTourLength(), fusedPlan.getAverageTourLength());
+			assertBitIdentical(legacyPlan.getAverageDistanceBetweenStops(), fusedPlan.getAverageDistanceBetweenStops());
+			assertBitIdentical(legacyPlan.getOverallLength(), fusedPlan.getOverallLength());
+			assertEquals(legacyPlan.getVehicleMap().keySet(), fusedPlan.getVehicleMap().keySet());
+			for(Entry<Id<VehicleType>, Double> entry : legacyPlan.getVehicleMap().entrySet()) {
+				assertBitIdentical(entry.getValue(), fusedPlan.getVehicleMap().get(entry.getKey()));
+			}
+		}
+	}
+
+	@Test
+	public void testLongDeltaChain() {
+		Random random = new Random(3);
+		GridReferenceCase referenceCase = new GridReferenceCase();
+		Network network = referenceCase.getNetwork();
+		Carrier carrier = referenceCase.getReferenceCarrier(network, random);
+		CarrierPlanEvaluator evaluator = new CarrierPlanEvaluator();
+		evaluator.setResummationInterval(50);
+		CarrierPlanEvaluator legacyEvaluator = new CarrierPlanEvaluator();
+		legacyEvaluator.setFusedEvaluation(false);
+		PlanCopier copier = new PlanCopier();
+		DefaultTravelTime defaultTime = new DefaultTravelTime();
+		DefaultTravelCosts defaultCosts = new DefaultTravelCosts(carrier, defaultTime);
+		TimeAndSpaceTourRouter router = new TimeAndSpaceTourRouter(new FastDijkstraFactory().createPathCalculator(network, defaultCosts, defaultTime), network, defaultTime);
+
+		ExtendedCarrierPlan plan = evaluator.evaluateCarrierPlan(referenceCase.getRealisticPlan(carrier, network, random), network);
+
+		//The plans are only ever evaluated from their predecessor, as in the calibrator. The totals are summed up again in fixed intervals,
+		//then they are exactly the sums over the tours of a full evaluation
+		int resummations = 0;
+		for(int i = 0; i < 2000; i++) {
+			ExtendedCarrierPlan planCopy = copier.makeShallowCopyOfPlan(plan);
+			applyOperator(planCopy, random.nextInt(6), random, router);
+			plan = evaluator.evaluateCarrierPlan(planCopy, network, plan);
+			assertTrue(plan.getIncrementalUpdates() < 50);
+			if(plan.getIncrementalUpdates() == 0) {
+				resummations++;
+				ExtendedCarrierPlan fullPlan = legacyEvaluator.evaluateCarrierPlan(planCopy, network);
+				assertBitIdentical(fullPlan.getTotalCapacityUtilization(), plan.getTotalCapacityUtilization());
+				assertBitIdentical(fullPlan.getTotalStops(), plan.getTotalStops());
+				assertBitIdentical(fullPlan.getTotalStopDistance(), plan.getTotalStopDistance());
+				assertEquals(fullPlan.getVehicleCounts(), plan.getVehicleCounts());
+			}
+		}
+		assertEquals(40, resummations);
+		assertPlansEqual(evaluator.evaluateCarrierPlan(plan, network), plan);
+	}
+
+	private void applyOperator(ExtendedCarrierPlan planCopy, int strategy, Random random, TimeAndSpaceTourRouter router) {
+		if(strategy == 0) {
+			AdaptiveOperationsWithHeterogeneusFleet.switchShipmentWithinTour(planCopy, random, router);
+		}
+		if(strategy == 1) {
+			AdaptiveOperationsWithHeterogeneusFleet.switchShipmentBetweenTours(planCopy, random, router);
+		}
+		if(strategy == 2) {
+			AdaptiveOperationsWithHeterogeneusFleet.moveShipmentToAnotherTour(planCopy, random, router);
+		}
+		if(strategy == 3) {
+			AdaptiveOperationsWithHeterogeneusFleet.addFurtherVehicle(planCopy, random, router);
+		}
+		if(strategy == 4) {
+			AdaptiveOperationsWithHeterogeneusFleet.exchangeVehicleType(planCopy, random, router);
+		}
+		if(strategy == 5) {
+			AdaptiveOperationsWithHeterogeneusFleet.removeVehicle(planCopy, random, router);
+		}
+		AdaptiveOperationsWithHeterogeneusFleet.removeEmptyTours(planCopy);
+	}
+
+	private void assertBitIdentical(double expected, double actual) {
+		assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(actual));
+	}
+
+	private void assertPlansEqual(ExtendedCarrierPlan expected, ExtendedCarrierPlan actual) {
+		assertEquals(expected.getNumberOfTours(), actual.getNumberOfTours());
+		assertEquals(expected.getAverageCapacityUtilization(), actual.getAverageCapacityUtilization(), TOLERANCE);
+		assertEquals(expected.getAverageStopsPerTour(), actual.getAverageStopsPerTour(), TOLERANCE);
+		assertEquals(expected.getAverageTourLength(), actual.getAverageTourLength(), TOLERANCE * expected.getAverageTourLength());
+		assertEquals(expected.getAverageDistanceBetweenStops(), actual.getAverageDistanceBetweenStops(), TOLERANCE * expected.getAverageDistanceBetweenStops());
+		assertEquals(expected.getOverallLength(), actual.getOverallLength(), TOLERANCE * expected.getOverallLength());
+		assertEquals(expected.getVehicleMap().size(), actual.getVehicleMap().size());
+		for(Entry<Id<VehicleType>, Double> entry : expected.getVehicleMap().entrySet()) {
+			assertEquals(entry.getValue(), actual.getVehicleMap().get(entry.getKey()), TOLERANCE);
+		}
+	}
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibratorTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.freight.carrier.Carrier;
+import org.matsim.contrib.freight.router.TimeAndSpaceTourRouter;
+import org.matsim.core.router.FastDijkstraFactory;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import saCalibrator.Calibrator;
+import saCalibrator.CarrierPlanEvaluator;
+import saCalibrator.DefaultTourRouterFactory;
+import saCalibrator.DefaultTravelCosts;
+import saCalibrator.DefaultTravelTime;
+import saCalibrator.ExtendedCarrierPlan;
+
+public class FlightRecorderEventsTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testCalibrationEvents() throws Exception {
+		Random random = new Random(8);
+		GridReferenceCase referenceCase = new GridReferenceCase();
+		Network network = referenceCase.getNetwork();
+		Carrier carrier = referenceCase.getReferenceCarrier(network, random);
+		Calibrator calibrator = new Calibrator(network, new DefaultTourRouterFactory(network, carrier).createTourRouter(), random);
+		List<RecordedEvent> events = recordCalibration(calibrator, carrier, network, random);
+
+		int iterations = 0;
+		int acceptedIterations = 0;
+		int routings = 0;
+		int evaluations = 0;
+		int copies = 0;
+		for(RecordedEvent event : events) {
+			String name = event.getEventType().getName();
+			if(name.equals("saCalibrator.CalibrationIteration")) {
+				iterations++;
+				assertTrue(event.getDouble("bestDistance") <= event.getDouble("distance"));
+				if(event.getBoolean("accepted")) {
+					acceptedIterations++;
+				}
+			}
+			else if(name.equals("saCalibrator.TourRouting")) {
+				routings++;
+				assertEquals("IncrementalTourRouter", event.getString("router"));
+			}
+			else if(name.equals("saCalibrator.PlanEvaluation")) {
+				evaluations++;
+			}
+			else if(name.equals("saCalibrator.PlanCopy")) {
+				copies++;
+				assertFalse(event.getBoolean("deep"));
+			}
+		}
+		assertEquals(calibrator.getIterations(), iterations);
+		assertTrue(acceptedIterations >= calibrator.getNumberOfImprovements());
+		assertTrue(routings > 0);
+		assertTrue(evaluations >= iterations);
+		//Every neighbor starts with a shallow copy of its plan
+		assertTrue(copies >= iterations);
+	}
+
+	@Test
+	public void testRoutingEventsOfPlainRouter() throws Exception {
+		Random random = new Random(9);
+		GridReferenceCase referenceCase = new GridReferenceCase();
+		Network network = referenceCase.getNetwork();
+		Carrier carrier = referenceCase.getReferenceCarrier(network, random);
+		DefaultTravelTime travelTime = new DefaultTravelTime();
+		DefaultTravelCosts travelCosts = new DefaultTravelCosts(carrier, travelTime);
+		TimeAndSpaceTourRouter router = new TimeAndSpaceTourRouter(new FastDijkstraFactory().createPathCalculator(network, travelCosts, travelTime), network, travelTime);
+		Calibrator calibrator = new Calibrator(network, router, random);
+
+		//The spans are taken where the tours are routed, so a router without events of its own is recorded as well
+		int routings = 0;
+		for(RecordedEvent event : recordCalibration(calibrator, carrier, network, random)) {
+			if(event.getEventType().getName().equals("saCalibrator.TourRouting")) {
+				routings++;
+				assertEquals("TimeAndSpaceTourRouter", event.getString("router"));
+			}
+		}
+		assertTrue(routings > 0);
+	}
+
+	//The events are disabled unless a recording enables them
+	private List<RecordedEvent> recordCalibration(Calibrator calibrator, Carrier carrier, Network network, Random random) throws Exception {
+		GridReferenceCase referenceCase = new GridReferenceCase();
+		CarrierPlanEvaluator evaluator = new CarrierPlanEvaluator();
+		ExtendedCarrierPlan referencePlan = evaluator.evaluateCarrierPlan(referenceCase.getRealisticPlan(carrier, network, random), network);
+		ExtendedCarrierPlan initialPlan = evaluator.evaluateCarrierPlan(referenceCase.getRealisticPlan(carrier, network, random), network);
+		calibrator.setWarmupIterations(10);
+		calibrator.setMaxIterations(100);
+
+		File recordingFile = folder.newFile();
+		try(Recording recording = new Recording()) {
+			recording.enable("saCalibrator.CalibrationIteration").withoutThreshold();
+			recording.enable("saCalibrator.TourRouting").withoutThreshold();
+			recording.enable("saCalibrator.PlanEvaluation").withoutThreshold();
+			recording.enable("saCalibrator.PlanCopy").withoutThreshold();
+			recording.start();
+			calibrator.run(initialPlan, referencePlan);
+			recording.stop();
+			recording.dump(recordingFile.toPath());
+		}
+		return RecordingFile.readAllEvents(recordingFile.toPath());
+	}
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibratorTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.freight.carrier.Carrier;
+import org.matsim.contrib.freight.carrier.CarrierCapabilities.FleetSize;
+import org.matsim.contrib.freight.carrier.CarrierImpl;
+import org.matsim.contrib.freight.carrier.CarrierPlan;
+import org.matsim.contrib.freight.carrier.CarrierService;
+import org.matsim.contrib.freight.carrier.CarrierVehicle;
+import org.matsim.contrib.freight.carrier.CarrierVehicleType;
+import org.matsim.contrib.freight.carrier.ScheduledTour;
+import org.matsim.contrib.freight.carrier.Tour;
+import org.matsim.contrib.freight.carrier.Tour.Leg;
+import org.matsim.contrib.freight.jsprit.NetworkBasedTransportCosts;
+import org.matsim.contrib.freight.jsprit.NetworkRouter;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.network.io.MatsimNetworkReader;
+import org.matsim.vehicles.VehicleType;
+
+//Grid network with a carrier of 20 services and two vehicle types, shared by the tests of the calibrator
+public class GridReferenceCase {
+
+	public Network getNetwork() {
+		Network network = NetworkUtils.createNetwork();
+		new MatsimNetworkReader(network).readFile("input/gridNetwork.xml");
+		return network;
+	}
+
+	public Carrier getReferenceCarrier(Network network, Random random) {
+		CarrierVehicleType.Builder sechsTonnerTypeBuilder = CarrierVehicleType.Builder.newInstance(Id.create("6_tonner", VehicleType.class));
+		sechsTonnerTypeBuilder.setCapacity(6000);
+		sechsTonnerTypeBuilder.setCostPerDistanceUnit(6.0);
+		sechsTonnerTypeBuilder.setFixCost(1000);
+		sechsTonnerTypeBuilder.setCostPerTimeUnit(0);
+		CarrierVehicleType sechsTonnerType = sechsTonnerTypeBuilder.build();
+
+		CarrierVehicleType.Builder siebenTonnerTypeBuilder = CarrierVehicleType.Builder.newInstance(Id.create("7_tonner", VehicleType.class));
+		siebenTonnerTypeBuilder.setCapacity(7000);
+		siebenTonnerTypeBuilder.setCostPerDistanceUnit(7.0);
+		siebenTonnerTypeBuilder.setFixCost(1000);
+		siebenTonnerTypeBuilder.setCostPerTimeUnit(0);
+		CarrierVehicleType siebenTonnerType = siebenTonnerTypeBuilder.build();
+
+		Id<Carrier> id = Id.create("defaultCarrier", Carrier.class);
+		Carrier carrier = CarrierImpl.newInstance(id);
+
+		ArrayList<Id<Link>> linkIdList = new ArrayList<>(network.getLinks().keySet());
+		Collections.shuffle(linkIdList, random);
+		Link depotLink = network.getLinks().get(linkIdList.get(0));
+
+		CarrierVehicle.Builder sechsTonnerBuilder = CarrierVehicle.Builder.newInstance(Id.createVehicleId(sechsTonnerType.getId()), depotLink.getId());
+		sechsTonnerBuilder.setEarliestStart(0);
+		sechsTonnerBuilder.setLatestEnd(Double.MAX_VALUE);
+		sechsTonnerBuilder.setType(sechsTonnerType);
+		sechsTonnerBuilder.setTypeId(sechsTonnerType.getId());
+
+		CarrierVehicle.Builder siebenTonnerBuilder = CarrierVehicle.Builder.newInstance(Id.createVehicleId(siebenTonnerType.getId()), depotLink.getId());
+		siebenTonnerBuilder.setEarliestStart(0);
+		siebenTonnerBuilder.setLatestEnd(Double.MAX_VALUE);
+		siebenTonnerBuilder.setType(siebenTonnerType);
+		siebenTonnerBuilder.setTypeId(siebenTonnerType.getId());
+
+		carrier.getCarrierCapabilities().setFleetSize(FleetSize.INFINITE);
+		carrier.getCarrierCapabilities().getVehicleTypes().add(sechsTonnerType);
+		carrier.getCarrierCapabilities().getVehicleTypes().add(siebenTonnerType);
+		carrier.getCarrierCapabilities().getCarrierVehicles().add(sechsTonnerBuilder.build());
+		carrier.getCarrierCapabilities().getCarrierVehicles().add(siebenTonnerBuilder.build());
+
+		ArrayList<Integer> loadList = new ArrayList<>(Arrays.asList(1000,2000,3000,4000,5000));
+
+		for(int i = 0 ; i < 20; i++) {
+			Collections.shuffle(linkIdList, random);
+			CarrierService.Builder serviceBuilder = CarrierService.Builder.newInstance(Id.create("" + i, CarrierService.class), network.getLinks().get(linkIdList.get(0)).getId());
+			Collections.shuffle(loadList, random);
+			serviceBuilder.setCapacityDemand(loadList.get(0));
+			serviceBuilder.setServiceDuration(loadList.get(0)/1000*180);
+			carrier.getServices().add(serviceBuilder.build());
+		}
+		return carrier;
+	}
+
+	public CarrierPlan getRealisticPlan(Carrier carrier, Network network, Random random) {
+		ArrayList<CarrierVehicle> vehicleList = new ArrayList<>(carrier.getCarrierCapabilities().getCarrierVehicles());
+		ArrayList<CarrierService> services = new ArrayList<>(carrier.getServices());
+		Collections.shuffle(services, random);
+		ArrayList<ScheduledTour> scheduledTours = new ArrayList<>();
+
+		while(!services.isEmpty()) {
+			CarrierVehicle vehicle = vehicleList.get(random.nextInt(vehicleList.size()));
+			int cumulativeCapacity = 0;
+			Tour.Builder tourBuilder = Tour.Builder.newInstance();
+			tourBuilder.scheduleStart(vehicle.getLocation());
+
+			ArrayList<CarrierService> servicesToBeRemoved = new ArrayList<>();
+			for(CarrierService service : services) {
+				if((cumulativeCapacity + service.getCapacityDemand() > vehicle.getVehicleType().getCarrierVehicleCapacity())) {
+					break;
+				}
+				cumulativeCapacity = cumulativeCapacity + service.getCapacityDemand();
+				servicesToBeRemoved.add(service);
+				tourBuilder.addLeg(new Leg());
+				tourBuilder.scheduleService(service);
+			}
+			tourBuilder.addLeg(new Leg());
+			tourBuilder.scheduleEnd(vehicle.getLocation());
+			scheduledTours.add(ScheduledTour.newInstance(tourBuilder.build(), vehicle, 0));
+			services.removeAll(servicesToBeRemoved);
+		}
+
+		CarrierPlan plan = new CarrierPlan(carrier, scheduledTours);
+		NetworkBasedTransportCosts.Builder tpcostsBuilder = NetworkBasedTransportCosts.Builder.newInstance(network,carrier.getCarrierCapabilities().getVehicleTypes());
+		NetworkRouter.routePlan(plan, tpcostsBuilder.build());
+		return plan;
+	}
+
+}
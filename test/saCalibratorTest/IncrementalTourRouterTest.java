@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibratorTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.freight.carrier.Carrier;
+import org.matsim.contrib.freight.carrier.CarrierPlan;
+import org.matsim.contrib.freight.carrier.CarrierService;
+import org.matsim.contrib.freight.carrier.ScheduledTour;
+import org.matsim.contrib.freight.carrier.Tour;
+import org.matsim.contrib.freight.carrier.Tour.Leg;
+import org.matsim.contrib.freight.carrier.Tour.ServiceActivity;
+import org.matsim.contrib.freight.carrier.Tour.TourElement;
+import org.matsim.contrib.freight.router.TimeAndSpaceTourRouter;
+import org.matsim.core.population.routes.NetworkRoute;
+import org.matsim.core.router.FastDijkstraFactory;
+
+import saCalibrator.AdaptiveOperationsWithHeterogeneusFleet;
+import saCalibrator.CarrierPlanEvaluator;
+import saCalibrator.DefaultTourRouterFactory;
+import saCalibrator.DefaultTravelCosts;
+import saCalibrator.DefaultTravelTime;
+import saCalibrator.ExtendedCarrierPlan;
+import saCalibrator.IncrementalTourRouter;
+import saCalibrator.PlanCopier;
+
+public class IncrementalTourRouterTest {
+
+	@Test
+	public void testOnlyChangedLegsAreSearched() {
+		Random random = new Random(1);
+		GridReferenceCase referenceCase = new GridReferenceCase();
+		Network network = referenceCase.getNetwork();
+		Carrier carrier = referenceCase.getReferenceCarrier(network, random);
+		CarrierPlan plan = referenceCase.getRealisticPlan(carrier, network, random);
+		DefaultTravelTime travelTime = new DefaultTravelTime();
+		DefaultTravelCosts travelCosts = new DefaultTravelCosts(carrier, travelTime);
+		IncrementalTourRouter incrementalRouter = new IncrementalTourRouter(new FastDijkstraFactory().createPathCalculator(network, travelCosts, travelTime), network, travelTime, travelCosts);
+		TimeAndSpaceTourRouter router = new TimeAndSpaceTourRouter(new FastDijkstraFactory().createPathCalculator(network, travelCosts, travelTime), network, travelTime);
+
+		ScheduledTour longestTour = null;
+		for(ScheduledTour scheduledTour : plan.getScheduledTours()) {
+			if(longestTour == null || scheduledTour.getTour().getTourElements().size() > longestTour.getTour().getTourElements().size()) {
+				longestTour = scheduledTour;
+			}
+		}
+		ArrayList<CarrierService> services = new ArrayList<>();
+		for(TourElement element : longestTour.getTour().getTourElements()) {
+			if(element instanceof ServiceActivity) {
+				services.add(((ServiceActivity) element).getService());
+			}
+		}
+		assertTrue(services.size() >= 4);
+
+		//Legs without a route are all searched
+		ScheduledTour tour = PlanCopier.copyScheduledTour(longestTour);
+		for(TourElement element : tour.getTour().getTourElements()) {
+			if(element instanceof Leg) {
+				((Leg) element).setRoute(null);
+			}
+		}
+		incrementalRouter.route(tour);
+		long searchedLegs = incrementalRouter.getSearchedLegs();
+		assertTrue(searchedLegs > 0);
+		assertEquals(0, incrementalRouter.getReusedLegs());
+
+		//Swapping two services changes at most the four legs next to them
+		CarrierService first = services.get(1);
+		CarrierService second = services.get(services.size() - 2);
+		Tour.Builder tourBuilder = Tour.Builder.newInstance();
+		tourBuilder.scheduleStart(tour.getTour().getStartLinkId());
+		for(TourElement element : tour.getTour().getTourElements()) {
+			if(element instanceof Leg) {
+				tourBuilder.addLeg(PlanCopier.copyLeg((Leg) element));
+			}
+			else {
+				CarrierService service = ((ServiceActivity) element).getService();
+				tourBuilder.scheduleService(service == first ? second : service == second ? first : service);
+			}
+		}
+		tourBuilder.scheduleEnd(tour.getTour().getEndLinkId());
+		ScheduledTour swappedTour = ScheduledTour.newInstance(tourBuilder.build(), tour.getVehicle(), 0);
+		incrementalRouter.route(swappedTour);
+		assertTrue(incrementalRouter.getSearchedLegs() - searchedLegs <= 4);
+		assertTrue(incrementalRouter.getReusedLegs() >= searchedLegs - 4);
+
+		//The routes are the ones a search of all legs finds
+		ScheduledTour searchedTour = PlanCopier.copyScheduledTour(swappedTour);
+		router.route(searchedTour);
+		List<TourElement> searchedElements = searchedTour.getTour().getTourElements();
+		List<TourElement> swappedElements = swappedTour.getTour().getTourElements();
+		for(int i = 0; i < searchedElements.size(); i++) {
+			if(searchedElements.get(i) instanceof Leg) {
+				Leg searchedLeg = (Leg) searchedElements.get(i);
+				Leg swappedLeg = (Leg) swappedElements.get(i);
+				assertEquals(((NetworkRoute) searchedLeg.getRoute()).getLinkIds(), ((NetworkRoute) swappedLeg.getRoute()).getLinkIds());
+				assertEquals(searchedLeg.getExpectedTransportTime(), swappedLeg.getExpectedTransportTime(), 1e-9);
+			}
+		}
+	}
+
+	@Test
+	public void testChangedVehicleTypeIsSearchedAgain() {
+		Random random = new Random(2);
+		GridReferenceCase referenceCase = new GridReferenceCase();
+		Network network = referenceCase.getNetwork();
+		Carrier carrier = referenceCase.getReferenceCarrier(network, random);
+		CarrierPlanEvaluator evaluator = new CarrierPlanEvaluator();
+		ExtendedCarrierPlan plan = evaluator.evaluateCarrierPlan(referenceCase.getRealisticPlan(carrier, network, random), network);
+		//The factory routes with the type specific travel times
+		IncrementalTourRouter router = (IncrementalTourRouter) new DefaultTourRouterFactory(network, carrier).createTourRouter();
+		for(ScheduledTour scheduledTour : plan.getScheduledTours()) {
+			router.route(scheduledTour);
+		}
+
+		//A tour with another vehicle type keeps its copied legs, but none of their routes is taken over
+		long reusedLegs = router.getReusedLegs();
+		long searchedLegs = router.getSearchedLegs();
+		ExtendedCarrierPlan exchangedPlan = AdaptiveOperationsWithHeterogeneusFleet.exchangeVehicleType(new PlanCopier().makeShallowCopyOfPlan(plan), random, router);
+		ScheduledTour exchangedTour = null;
+		for(ScheduledTour scheduledTour : exchangedPlan.getScheduledTours()) {
+			if(!plan.getScheduledTours().contains(scheduledTour)) {
+				exchangedTour = scheduledTour;
+			}
+		}
+		assertTrue(exchangedTour != null);
+		assertEquals(reusedLegs, router.getReusedLegs());
+		assertTrue(router.getSearchedLegs() > searchedLegs);
+
+		//For the same vehicle the new routes are taken over again
+		router.route(PlanCopier.copyScheduledTour(exchangedTour));
+		assertTrue(router.getReusedLegs() > reusedLegs);
+	}
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibratorTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.freight.carrier.Carrier;
+import org.matsim.contrib.freight.carrier.CarrierPlan;
+import org.matsim.contrib.freight.carrier.CarrierService;
+import org.matsim.contrib.freight.carrier.ScheduledTour;
+import org.matsim.contrib.freight.carrier.Tour.Leg;
+import org.matsim.contrib.freight.carrier.Tour.ServiceActivity;
+import org.matsim.contrib.freight.carrier.Tour.TourElement;
+import org.matsim.core.population.routes.NetworkRoute;
+
+import saCalibrator.InitialPlanCache;
+
+public class InitialPlanCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testCachedPlanMatchesSolvedPlan() throws Exception {
+		Random random = new Random(4);
+		GridReferenceCase referenceCase = new GridReferenceCase();
+		Network network = referenceCase.getNetwork();
+		Carrier carrier = referenceCase.getReferenceCarrier(network, random);
+		CarrierPlan solvedPlan = referenceCase.getRealisticPlan(carrier, network, random);
+		solvedPlan.setScore(-1234.5);
+
+		InitialPlanCache cache = new InitialPlanCache(folder.newFolder("cache"));
+		AtomicInteger solverCalls = new AtomicInteger();
+		assertSame(solvedPlan, cache.getPlan(carrier, network, () -> {
+			solverCalls.incrementAndGet();
+			return solvedPlan;
+		}));
+		assertFalse(cache.isLoadedFromCache());
+
+		CarrierPlan cachedPlan = cache.getPlan(carrier, network, () -> {
+			solverCalls.incrementAndGet();
+			return solvedPlan;
+		});
+		assertTrue(cache.isLoadedFromCache());
+		assertEquals(1, solverCalls.get());
+
+		assertEquals(solvedPlan.getScore(), cachedPlan.getScore(), 0);
+		assertEquals(solvedPlan.getScheduledTours().size(), cachedPlan.getScheduledTours().size());
+		ScheduledTour[] solvedTours = solvedPlan.getScheduledTours().toArray(new ScheduledTour[0]);
+		ScheduledTour[] cachedTours = cachedPlan.getScheduledTours().toArray(new ScheduledTour[0]);
+		for(int i = 0; i < solvedTours.length; i++) {
+			//The vehicles of the carrier are taken over
+			assertSame(solvedTours[i].getVehicle(), cachedTours[i].getVehicle());
+			assertEquals(solvedTours[i].getDeparture(), cachedTours[i].getDeparture(), 0);
+			assertEquals(solvedTours[i].getTour().getTourElements().size(), cachedTours[i].getTour().getTourElements().size());
+			for(int j = 0; j < solvedTours[i].getTour().getTourElements().size(); j++) {
+				TourElement solvedElement = solvedTours[i].getTour().getTourElements().get(j);
+				TourElement cachedElement = cachedTours[i].getTour().getTourElements().get(j);
+				if(solvedElement instanceof ServiceActivity) {
+					assertSame(((ServiceActivity) solvedElement).getService(), ((ServiceActivity) cachedElement).getService());
+				}
+				else {
+					NetworkRoute solvedRoute = (NetworkRoute) ((Leg) solvedElement).getRoute();
+					NetworkRoute cachedRoute = (NetworkRoute) ((Leg) cachedElement).getRoute();
+					assertEquals(solvedRoute.getStartLinkId(), cachedRoute.getStartLinkId());
+					assertEquals(solvedRoute.getLinkIds(), cachedRoute.getLinkIds());
+					assertEquals(solvedRoute.getEndLinkId(), cachedRoute.getEndLinkId());
+					assertEquals(solvedRoute.getDistance(), cachedRoute.getDistance(), 0);
+					assertEquals(((Leg) solvedElement).getExpectedDepartureTime(), ((Leg) cachedElement).getExpectedDepartureTime(), 0);
+					assertEquals(((Leg) solvedElement).getExpectedTransportTime(), ((Leg) cachedElement).getExpectedTransportTime(), 0);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testConcurrentStores() throws Exception {
+		Random random = new Random(6);
+		GridReferenceCase referenceCase = new GridReferenceCase();
+		Network network = referenceCase.getNetwork();
+		Carrier carrier = referenceCase.getReferenceCarrier(network, random);
+		CarrierPlan plan = referenceCase.getRealisticPlan(carrier, network, random);
+		File cacheDirectory = folder.newFolder("cache");
+		InitialPlanCache cache = new InitialPlanCache(cacheDirectory);
+		String key = cache.getKey(carrier, network);
+
+		//Every writer has a temporary file of its own, so the plan stays readable and no temporary file is left behind
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			ArrayList<Future<?>> stores = new ArrayList<>();
+			for(int i = 0; i < 16; i++) {
+				stores.add(executor.submit(() -> {
+					cache.store(plan, key);
+					return null;
+				}));
+			}
+			for(Future<?> store : stores) {
+				store.get();
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertEquals(plan.getScheduledTours().size(), cache.load(carrier, key).getScheduledTours().size());
+		assertEquals(1, cacheDirectory.list().length);
+	}
+
+	@Test
+	public void testKeyDependsOnCarrier() {
+		GridReferenceCase referenceCase = new GridReferenceCase();
+		Network network = referenceCase.getNetwork();
+		InitialPlanCache cache = new InitialPlanCache(folder.getRoot());
+		String key = cache.getKey(referenceCase.getReferenceCarrier(network, new Random(5)), network);
+		assertEquals(key, cache.getKey(referenceCase.getReferenceCarrier(network, new Random(5)), network));
+
+		//One more service changes the key
+		Carrier carrier = referenceCase.getReferenceCarrier(network, new Random(5));
+		carrier.getServices().add(CarrierService.Builder.newInstance(Id.create("extra", CarrierService.class), network.getLinks().keySet().iterator().next()).build());
+		assertNotEquals(key, cache.getKey(carrier, network));
+	}
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibratorTest;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.freight.carrier.Carrier;
+import org.matsim.contrib.freight.carrier.ScheduledTour;
+
+import saCalibrator.Calibrator;
+import saCalibrator.CarrierPlanComparator;
+import saCalibrator.CarrierPlanEvaluator;
+import saCalibrator.DefaultTourRouterFactory;
+import saCalibrator.ExtendedCarrierPlan;
+import saCalibrator.InfoListEvaluator;
+import saCalibrator.IterationInformation;
+import saCalibrator.KpiTrace;
+
+public class KpiTraceTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testTraceMatchesRecordedPlansAndSurvivesFile() throws Exception {
+		Random random = new Random(1);
+		GridReferenceCase referenceCase = new GridReferenceCase();
+		Network network = referenceCase.getNetwork();
+		Carrier carrier = referenceCase.getReferenceCarrier(network, random);
+		CarrierPlanEvaluator evaluator = new CarrierPlanEvaluator();
+		ExtendedCarrierPlan referencePlan = evaluator.evaluateCarrierPlan(referenceCase.getRealisticPlan(carrier, network, random), network);
+		ExtendedCarrierPlan initialPlan = evaluator.evaluateCarrierPlan(referenceCase.getRealisticPlan(carrier, network, random), network);
+
+		//A small initial capacity makes the columns grow during the run
+		KpiTrace trace = new KpiTrace(referencePlan, 4);
+		Calibrator calibrator = new Calibrator(network, new DefaultTourRouterFactory(network, carrier).createTourRouter(), random);
+		calibrator.setWarmupIterations(10);
+		calibrator.setMaxIterations(50);
+		ArrayList<IterationInformation> infoList = new ArrayList<>();
+		calibrator.setTraceSink(new RecordingTraceSink(trace, infoList));
+		calibrator.run(initialPlan, referencePlan);
+
+		assertEquals(infoList.size(), trace.size());
+		CarrierPlanComparator comparator = new CarrierPlanComparator();
+		comparator.setIncumbentPlan(referencePlan);
+		for(int row = 0; row < trace.size(); row++) {
+			IterationInformation information = infoList.get(row);
+			assertEquals(information.getNumber(), trace.getValue(KpiTrace.ITERATION, row), 0);
+			assertEquals(information.getBestPlan().getOverallLength(), trace.getValue(KpiTrace.BEST + KpiTrace.OVERALL_LENGTH, row), 0);
+			comparator.setEntrantPlan(information.getCurrentPlan());
+			assertEquals(comparator.getDistanceToBestPlan(), trace.getValue(KpiTrace.CURRENT + KpiTrace.DISTANCE_TO_REFERENCE, row), 0);
+		}
+		assertEquals(Double.NaN, trace.getValue(KpiTrace.NEIGHBOR + KpiTrace.OVERALL_LENGTH, 0), 0);
+
+		File traceFile = folder.newFile("trace.bin");
+		trace.write(traceFile);
+		KpiTrace readTrace = KpiTrace.read(traceFile);
+		assertEquals(trace.size(), readTrace.size());
+		for(int column = 0; column < KpiTrace.NUMBER_OF_COLUMNS; column++) {
+			assertArrayEquals(trace.getColumn(column), readTrace.getColumn(column), 0);
+		}
+	}
+
+	@Test
+	public void testChartsAreRenderedConcurrently() throws Exception {
+		ExtendedCarrierPlan referencePlan = getPlan(10, 1000);
+		KpiTrace trace = new KpiTrace(referencePlan);
+		for(int i = 0; i < 20000; i++) {
+			IterationInformation information = new IterationInformation(false);
+			information.setNumber(i);
+			information.setCurrentPlan(getPlan(12, 1000 + (i % 97)));
+			information.setBestPlan(getPlan(11, 1000 + 20000.0 / (i + 1)));
+			trace.addIteration(information);
+		}
+
+		File outputDirectory = folder.newFolder("output");
+		InfoListEvaluator infoEvaluator = new InfoListEvaluator(trace, referencePlan);
+		infoEvaluator.setOutputDirectory(outputDirectory);
+		infoEvaluator.setMaxPointsPerSeries(500);
+		infoEvaluator.createAllCharts(4).get();
+		assertEquals(8, outputDirectory.listFiles().length);
+	}
+
+	private ExtendedCarrierPlan getPlan(int numberOfTours, double overallLength) {
+		ExtendedCarrierPlan plan = new ExtendedCarrierPlan(null, new ArrayList<ScheduledTour>());
+		plan.setNumberOfTours(numberOfTours);
+		plan.setOverallLength(overallLength);
+		plan.setAverageTourLength(overallLength / numberOfTours);
+		plan.setAverageStopsPerTour(2);
+		plan.setAverageCapacityUtilization(0.8);
+		plan.setAverageDistanceBetweenStops(overallLength / (2 * numberOfTours));
+		return plan;
+	}
+
+}
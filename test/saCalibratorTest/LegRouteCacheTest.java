@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibratorTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+import java.util.Random;
+
+import org.junit.Test;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.freight.carrier.Carrier;
+import org.matsim.contrib.freight.carrier.ScheduledTour;
+import org.matsim.contrib.freight.carrier.Tour;
+import org.matsim.contrib.freight.carrier.Tour.Leg;
+import org.matsim.contrib.freight.carrier.Tour.ServiceActivity;
+import org.matsim.contrib.freight.carrier.Tour.TourElement;
+import org.matsim.contrib.freight.router.TimeAndSpaceTourRouter;
+import org.matsim.core.population.routes.NetworkRoute;
+
+import saCalibrator.AdaptiveOperationsWithHeterogeneusFleet;
+import saCalibrator.CarrierPlanEvaluator;
+import saCalibrator.DefaultTourRouterFactory;
+import saCalibrator.ExtendedCarrierPlan;
+import saCalibrator.LegRouteCache;
+import saCalibrator.PlanCopier;
+
+public class LegRouteCacheTest {
+
+	@Test
+	public void testCachedRoutesEqualSearchedRoutes() {
+		Random random = new Random(1);
+		GridReferenceCase referenceCase = new GridReferenceCase();
+		Network network = referenceCase.getNetwork();
+		Carrier carrier = referenceCase.getReferenceCarrier(network, random);
+		ExtendedCarrierPlan plan = new CarrierPlanEvaluator().evaluateCarrierPlan(referenceCase.getRealisticPlan(carrier, network, random), network);
+
+		DefaultTourRouterFactory routerFactory = new DefaultTourRouterFactory(network, carrier);
+		TimeAndSpaceTourRouter router = routerFactory.createTourRouter();
+		LegRouteCache cache = new LegRouteCache(1000);
+		routerFactory.setLegRouteCache(cache);
+		TimeAndSpaceTourRouter cachingRouter = routerFactory.createTourRouter();
+
+		//The same tours are routed twice with the cache, the second time every leg is a hit
+		for(int i = 0; i < 20; i++) {
+			ExtendedCarrierPlan neighborPlan = AdaptiveOperationsWithHeterogeneusFleet.switchShipmentWithinTour(new PlanCopier().makeShallowCopyOfPlan(plan), random, router);
+			for(ScheduledTour scheduledTour : neighborPlan.getScheduledTours()) {
+				ScheduledTour searchedTour = copyTour(scheduledTour);
+				router.route(searchedTour);
+				ScheduledTour cachedTour = copyTour(scheduledTour);
+				cachingRouter.route(cachedTour);
+				assertRoutesEqual(searchedTour, cachedTour);
+			}
+			plan = neighborPlan;
+		}
+		long misses = cache.getMisses();
+		assertTrue(cache.getHits() > 0);
+		for(ScheduledTour scheduledTour : plan.getScheduledTours()) {
+			cachingRouter.route(copyTour(scheduledTour));
+		}
+		assertEquals(misses, cache.getMisses());
+
+		//A full cache drops the paths used least recently
+		LegRouteCache smallCache = new LegRouteCache(2);
+		routerFactory.setLegRouteCache(smallCache);
+		TimeAndSpaceTourRouter smallCachingRouter = routerFactory.createTourRouter();
+		for(ScheduledTour scheduledTour : plan.getScheduledTours()) {
+			smallCachingRouter.route(copyTour(scheduledTour));
+		}
+		assertTrue(smallCache.getSize() <= 2);
+	}
+
+	//Copy of the tour with legs that are not routed yet
+	private ScheduledTour copyTour(ScheduledTour scheduledTour) {
+		Tour.Builder tourBuilder = Tour.Builder.newInstance();
+		tourBuilder.scheduleStart(scheduledTour.getTour().getStartLinkId());
+		for(TourElement element : scheduledTour.getTour().getTourElements()) {
+			if(element instanceof Leg) {
+				tourBuilder.addLeg(new Leg());
+			}
+			if(element instanceof ServiceActivity) {
+				tourBuilder.scheduleService(((ServiceActivity) element).getService());
+			}
+		}
+		tourBuilder.scheduleEnd(scheduledTour.getTour().getEndLinkId());
+		return ScheduledTour.newInstance(tourBuilder.build(), scheduledTour.getVehicle(), 0);
+	}
+
+	private void assertRoutesEqual(ScheduledTour expected, ScheduledTour actual) {
+		Iterator<TourElement> actualElements = actual.getTour().getTourElements().iterator();
+		for(TourElement element : expected.getTour().getTourElements()) {
+			TourElement actualElement = actualElements.next();
+			if(element instanceof Leg) {
+				NetworkRoute expectedRoute = (NetworkRoute) ((Leg) element).getRoute();
+				NetworkRoute actualRoute = (NetworkRoute) ((Leg) actualElement).getRoute();
+				assertEquals(expectedRoute.getLinkIds(), actualRoute.getLinkIds());
+			}
+		}
+	}
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibratorTest;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.freight.carrier.Carrier;
+import org.matsim.contrib.freight.carrier.CarrierImpl;
+import org.matsim.contrib.freight.carrier.CarrierVehicleType;
+import org.matsim.vehicles.Vehicle;
+import org.matsim.vehicles.VehicleType;
+import org.matsim.vehicles.VehicleUtils;
+
+import saCalibrator.DefaultTravelCosts;
+import saCalibrator.DefaultTravelTime;
+import saCalibrator.LinkIndex;
+import saCalibrator.TypeSpecificTravelTime;
+
+public class LinkIndexTest {
+
+	@Test
+	public void testIndexMatchesNetwork() {
+		Network network = new GridReferenceCase().getNetwork();
+		LinkIndex linkIndex = LinkIndex.getLinkIndex(network);
+
+		assertEquals(network.getLinks().size(), linkIndex.getNumberOfLinks());
+		assertEquals(linkIndex, LinkIndex.getLinkIndex(network));
+		for(Link link : network.getLinks().values()) {
+			int index = linkIndex.getIndex(link.getId());
+			assertEquals(link.getId(), linkIndex.getLinkId(index));
+			assertEquals(link.getLength(), linkIndex.getLength(index), 0);
+			assertEquals(link.getFreespeed(), linkIndex.getFreespeed(index), 0);
+		}
+	}
+
+	@Test
+	public void testDefaultCosts() {
+		GridReferenceCase referenceCase = new GridReferenceCase();
+		Network network = referenceCase.getNetwork();
+		Carrier carrier = referenceCase.getReferenceCarrier(network, new Random(1));
+		DefaultTravelCosts travelCosts = new DefaultTravelCosts(carrier, new DefaultTravelTime());
+
+		//The minimum disutility of a link is the disutility of the cheapest vehicle type
+		for(Link link : network.getLinks().values()) {
+			double minimumCosts = Double.MAX_VALUE;
+			for(CarrierVehicleType type : carrier.getCarrierCapabilities().getVehicleTypes()) {
+				Vehicle vehicle = VehicleUtils.getFactory().createVehicle(Id.createVehicleId("vehicle_" + type.getId()), type);
+				double expectedCosts = type.getVehicleCostInformation().getPerDistanceUnit() * link.getLength() + type.getVehicleCostInformation().getPerTimeUnit() * link.getLength() / link.getFreespeed();
+				assertEquals(expectedCosts, travelCosts.getLinkTravelDisutility(link, 0, null, vehicle), 1e-9);
+				minimumCosts = Math.min(minimumCosts, expectedCosts);
+			}
+			assertEquals(minimumCosts, travelCosts.getLinkMinimumTravelDisutility(link), 1e-9);
+		}
+	}
+
+	@Test
+	public void testTypeSpecificTravelTimes() {
+		Network network = new GridReferenceCase().getNetwork();
+		CarrierVehicleType.Builder slowTypeBuilder = CarrierVehicleType.Builder.newInstance(Id.create("slow", VehicleType.class));
+		slowTypeBuilder.setMaxVelocity(5.0);
+		CarrierVehicleType slowType = slowTypeBuilder.build();
+		CarrierVehicleType fastType = CarrierVehicleType.Builder.newInstance(Id.create("fast", VehicleType.class)).build();
+		Carrier carrier = CarrierImpl.newInstance(Id.create("carrier", Carrier.class));
+		carrier.getCarrierCapabilities().getVehicleTypes().add(slowType);
+		carrier.getCarrierCapabilities().getVehicleTypes().add(fastType);
+		TypeSpecificTravelTime travelTime = new TypeSpecificTravelTime(carrier);
+		Vehicle slowVehicle = VehicleUtils.getFactory().createVehicle(Id.createVehicleId("slowVehicle"), slowType);
+		Vehicle fastVehicle = VehicleUtils.getFactory().createVehicle(Id.createVehicleId("fastVehicle"), fastType);
+
+		//Slow vehicles never drive faster than their maximum velocity, without a vehicle the freespeed is used
+		for(Link link : network.getLinks().values()) {
+			assertEquals(link.getLength() / Math.min(5.0, link.getFreespeed()), travelTime.getLinkTravelTime(link, 0, null, slowVehicle), 1e-9);
+			assertEquals(link.getLength() / link.getFreespeed(), travelTime.getLinkTravelTime(link, 0, null, fastVehicle), 1e-9);
+			assertEquals(link.getLength() / link.getFreespeed(), travelTime.getLinkTravelTime(link, 0, null, null), 1e-9);
+		}
+	}
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibratorTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.freight.carrier.Carrier;
+
+import saCalibrator.CarrierPlanEvaluator;
+import saCalibrator.DefaultTourRouterFactory;
+import saCalibrator.ExtendedCarrierPlan;
+import saCalibrator.MultiStartCalibrator;
+
+public class MultiStartCalibratorTest {
+
+	@Test
+	public void testMultiStartIsReproducible() {
+		Random random = new Random(1);
+		GridReferenceCase referenceCase = new GridReferenceCase();
+		Network network = referenceCase.getNetwork();
+		Carrier carrier = referenceCase.getReferenceCarrier(network, random);
+		CarrierPlanEvaluator evaluator = new CarrierPlanEvaluator();
+		ExtendedCarrierPlan referencePlan = evaluator.evaluateCarrierPlan(referenceCase.getRealisticPlan(carrier, network, random), network);
+		ExtendedCarrierPlan initialPlan = evaluator.evaluateCarrierPlan(referenceCase.getRealisticPlan(carrier, network, random), network);
+
+		MultiStartCalibrator firstCalibrator = getCalibrator(network, carrier, 4);
+		firstCalibrator.run(initialPlan, referencePlan);
+		MultiStartCalibrator secondCalibrator = getCalibrator(network, carrier, 1);
+		secondCalibrator.run(initialPlan, referencePlan);
+
+		assertEquals(firstCalibrator.getBestRun(), secondCalibrator.getBestRun());
+		for(int i = 0; i < 4; i++) {
+			assertEquals(Double.doubleToLongBits(firstCalibrator.getDistances()[i]), Double.doubleToLongBits(secondCalibrator.getDistances()[i]));
+			assertTrue(firstCalibrator.getBestDistance() <= firstCalibrator.getDistances()[i]);
+		}
+	}
+
+	private MultiStartCalibrator getCalibrator(Network network, Carrier carrier, int parallelism) {
+		MultiStartCalibrator calibrator = new MultiStartCalibrator(network, new DefaultTourRouterFactory(network, carrier), 7);
+		calibrator.setNumberOfRuns(4);
+		calibrator.setParallelism(parallelism);
+		calibrator.setWarmupIterations(10);
+		calibrator.setMaxIterations(100);
+		return calibrator;
+	}
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibratorTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+
+import saCalibrator.NetworkCache;
+
+public class NetworkCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testSnapshotMatchesNetworkFile() throws Exception {
+		File networkFile = folder.newFile("gridNetwork.xml");
+		Files.copy(new File("input/gridNetwork.xml").toPath(), networkFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		NetworkCache cache = new NetworkCache(folder.newFolder("cache"));
+
+		Network xmlNetwork = cache.load(networkFile);
+		assertFalse(cache.isLoadedFromSnapshot());
+		assertTrue(cache.getSnapshotFile(networkFile).exists());
+		Network cachedNetwork = cache.load(networkFile);
+		assertTrue(cache.isLoadedFromSnapshot());
+
+		assertEquals(xmlNetwork.getCapacityPeriod(), cachedNetwork.getCapacityPeriod(), 0);
+		assertEquals(xmlNetwork.getNodes().size(), cachedNetwork.getNodes().size());
+		for(Node node : xmlNetwork.getNodes().values()) {
+			Node cachedNode = cachedNetwork.getNodes().get(node.getId());
+			assertEquals(node.getCoord(), cachedNode.getCoord());
+		}
+		assertEquals(xmlNetwork.getLinks().size(), cachedNetwork.getLinks().size());
+		for(Link link : xmlNetwork.getLinks().values()) {
+			Link cachedLink = cachedNetwork.getLinks().get(link.getId());
+			assertEquals(link.getFromNode().getId(), cachedLink.getFromNode().getId());
+			assertEquals(link.getToNode().getId(), cachedLink.getToNode().getId());
+			assertEquals(link.getLength(), cachedLink.getLength(), 0);
+			assertEquals(link.getFreespeed(), cachedLink.getFreespeed(), 0);
+			assertEquals(link.getCapacity(), cachedLink.getCapacity(), 0);
+			assertEquals(link.getNumberOfLanes(), cachedLink.getNumberOfLanes(), 0);
+			assertEquals(link.getAllowedModes(), cachedLink.getAllowedModes());
+		}
+
+		//A changed network file invalidates the snapshot
+		try(FileWriter writer = new FileWriter(networkFile, true)) {
+			writer.write("\n");
+		}
+		cache.load(networkFile);
+		assertFalse(cache.isLoadedFromSnapshot());
+		cache.load(networkFile);
+		assertTrue(cache.isLoadedFromSnapshot());
+	}
+
+	@Test
+	public void testFilesWithTheSameName() throws Exception {
+		File firstFile = new File(folder.newFolder("first"), "network.xml");
+		File secondFile = new File(folder.newFolder("second"), "network.xml");
+		Files.copy(new File("input/gridNetwork.xml").toPath(), firstFile.toPath());
+		Files.copy(new File("input/gridNetwork.xml").toPath(), secondFile.toPath());
+		try(FileWriter writer = new FileWriter(secondFile, true)) {
+			writer.write("\n");
+		}
+		NetworkCache cache = new NetworkCache(folder.newFolder("cache"));
+
+		//Each file keeps its own snapshot, loading one does not replace the snapshot of the other
+		cache.load(firstFile);
+		cache.load(secondFile);
+		assertFalse(cache.isLoadedFromSnapshot());
+		assertFalse(cache.getSnapshotFile(firstFile).equals(cache.getSnapshotFile(secondFile)));
+		cache.load(firstFile);
+		assertTrue(cache.isLoadedFromSnapshot());
+		cache.load(secondFile);
+		assertTrue(cache.isLoadedFromSnapshot());
+	}
+
+	@Test
+	public void testTruncatedSnapshotIsReplaced() throws Exception {
+		File networkFile = folder.newFile("gridNetwork.xml");
+		Files.copy(new File("input/gridNetwork.xml").toPath(), networkFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		NetworkCache cache = new NetworkCache(folder.newFolder("cache"));
+		Network xmlNetwork = cache.load(networkFile);
+
+		//A snapshot that ends in the middle of the links is parsed from the XML file again and written anew
+		File snapshotFile = cache.getSnapshotFile(networkFile);
+		try(RandomAccessFile snapshot = new RandomAccessFile(snapshotFile, "rw")) {
+			snapshot.setLength(snapshot.length() / 2);
+		}
+		Network network = cache.load(networkFile);
+		assertFalse(cache.isLoadedFromSnapshot());
+		assertEquals(xmlNetwork.getLinks().size(), network.getLinks().size());
+		network = cache.load(networkFile);
+		assertTrue(cache.isLoadedFromSnapshot());
+		assertEquals(xmlNetwork.getLinks().size(), network.getLinks().size());
+	}
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibratorTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import saCalibrator.OperatorMetrics;
+import saCalibrator.OperatorStatistics;
+
+public class OperatorMetricsTest {
+
+	@Test
+	public void testHistogramPercentiles() {
+		OperatorMetrics metrics = new OperatorMetrics();
+		for(int i = 0; i < 98; i++) {
+			metrics.recordCall(OperatorMetrics.REMOVE_VEHICLE, 1000, false);
+		}
+		metrics.recordCall(OperatorMetrics.REMOVE_VEHICLE, 50000, true);
+		metrics.recordCall(OperatorMetrics.REMOVE_VEHICLE, 1000000, true);
+		metrics.recordAcceptance(OperatorMetrics.REMOVE_VEHICLE);
+		for(int i = 0; i < 5; i++) {
+			metrics.recordCall(OperatorMetrics.SWITCH_SHIPMENT_WITHIN_TOUR, 7, false);
+		}
+
+		List<OperatorStatistics> snapshot = metrics.getSnapshot();
+		OperatorStatistics removeVehicle = snapshot.get(OperatorMetrics.REMOVE_VEHICLE);
+		assertEquals("removeVehicle", removeVehicle.getOperator());
+		assertEquals(100, removeVehicle.getCalls());
+		assertEquals(0.02, removeVehicle.getInfeasibleRate(), 1e-12);
+		assertEquals(0.01, removeVehicle.getAcceptanceRate(), 1e-12);
+		assertEquals(98 * 1000 + 50000 + 1000000, removeVehicle.getTotalNanos());
+
+		//The percentiles are at most one eighth above the recorded times
+		assertTrue(removeVehicle.getMedianNanos() >= 1000 && removeVehicle.getMedianNanos() <= 1125);
+		assertTrue(removeVehicle.getPercentile99Nanos() >= 50000 && removeVehicle.getPercentile99Nanos() <= 56250);
+		assertTrue(removeVehicle.getMaxNanos() >= 1000000 && removeVehicle.getMaxNanos() <= 1125000);
+
+		//Small times are exact
+		assertEquals(7, snapshot.get(OperatorMetrics.SWITCH_SHIPMENT_WITHIN_TOUR).getMaxNanos());
+		assertEquals(0, snapshot.get(OperatorMetrics.ADD_FURTHER_VEHICLE).getCalls());
+
+		metrics.reset();
+		assertEquals(0, metrics.getSnapshot().get(OperatorMetrics.REMOVE_VEHICLE).getCalls());
+	}
+
+	@Test
+	public void testPeriodicSnapshots() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(2);
+		try(OperatorMetrics metrics = new OperatorMetrics()) {
+			metrics.recordCall(OperatorMetrics.ADD_FURTHER_VEHICLE, 100, false);
+			metrics.startReporting(10, TimeUnit.MILLISECONDS, snapshot -> {
+				if(snapshot.get(OperatorMetrics.ADD_FURTHER_VEHICLE).getCalls() == 1) {
+					latch.countDown();
+				}
+			});
+			assertTrue(latch.await(10, TimeUnit.SECONDS));
+		}
+	}
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibratorTest;
+
+import java.io.IOException;
+import java.util.List;
+
+import saCalibrator.IterationInformation;
+import saCalibrator.IterationTraceSink;
+
+//Passes the iterations to a sink and keeps them in a list as well, so tests can compare the sink with the plans of the calibration
+public class RecordingTraceSink implements IterationTraceSink {
+
+	private IterationTraceSink sink;
+	private List<IterationInformation> iterations;
+	
+	public RecordingTraceSink(IterationTraceSink sink, List<IterationInformation> iterations) {
+		this.sink = sink;
+		this.iterations = iterations;
+	}
+	
+	@Override
+	public void addIteration(IterationInformation information) {
+		iterations.add(information);
+		sink.addIteration(information);
+	}
+
+	@Override
+	public Iterable<IterationInformation> getIterations() {
+		return iterations;
+	}
+
+	@Override
+	public void close() throws IOException {
+		sink.close();
+	}
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibratorTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.freight.carrier.Carrier;
+import org.matsim.contrib.freight.carrier.ScheduledTour;
+import org.matsim.contrib.freight.carrier.Tour.ServiceActivity;
+import org.matsim.contrib.freight.carrier.Tour.TourElement;
+
+import saCalibrator.CarrierPlanEvaluator;
+import saCalibrator.DefaultTourRouterFactory;
+import saCalibrator.ExtendedCarrierPlan;
+import saCalibrator.ReplicaExchangeCalibrator;
+
+public class ReplicaExchangeCalibratorTest {
+
+	@Test
+	public void testReplicaExchangeIsDeterministic() {
+		Random random = new Random(1);
+		GridReferenceCase referenceCase = new GridReferenceCase();
+		Network network = referenceCase.getNetwork();
+		Carrier carrier = referenceCase.getReferenceCarrier(network, random);
+		CarrierPlanEvaluator evaluator = new CarrierPlanEvaluator();
+		ExtendedCarrierPlan referencePlan = evaluator.evaluateCarrierPlan(referenceCase.getRealisticPlan(carrier, network, random), network);
+		ExtendedCarrierPlan initialPlan = evaluator.evaluateCarrierPlan(referenceCase.getRealisticPlan(carrier, network, random), network);
+
+		ReplicaExchangeCalibrator firstCalibrator = getCalibrator(network, carrier, 4);
+		ExtendedCarrierPlan firstPlan = firstCalibrator.run(initialPlan, referencePlan);
+		//A different number of threads must not change the result
+		ReplicaExchangeCalibrator secondCalibrator = getCalibrator(network, carrier, 1);
+		ExtendedCarrierPlan secondPlan = secondCalibrator.run(initialPlan, referencePlan);
+
+		assertEquals(Double.doubleToLongBits(firstCalibrator.getBestDistance()), Double.doubleToLongBits(secondCalibrator.getBestDistance()));
+		assertEquals(firstCalibrator.getNumberOfSwaps(), secondCalibrator.getNumberOfSwaps());
+		assertEquals(firstPlan.getScheduledTours().size(), secondPlan.getScheduledTours().size());
+		assertTrue(firstCalibrator.getTemperatures()[0] >= firstCalibrator.getTemperatures()[3]);
+
+		int numberOfServices = 0;
+		for(ScheduledTour scheduledTour : firstPlan.getScheduledTours()) {
+			for(TourElement element : scheduledTour.getTour().getTourElements()) {
+				if(element instanceof ServiceActivity) {
+					numberOfServices++;
+				}
+			}
+		}
+		assertEquals(carrier.getServices().size(), numberOfServices);
+	}
+
+	private ReplicaExchangeCalibrator getCalibrator(Network network, Carrier carrier, int numberOfThreads) {
+		ReplicaExchangeCalibrator calibrator = new ReplicaExchangeCalibrator(network, new DefaultTourRouterFactory(network, carrier), 42);
+		calibrator.setNumberOfReplicas(4);
+		calibrator.setNumberOfThreads(numberOfThreads);
+		calibrator.setWarmupIterations(10);
+		calibrator.setIterationsPerExchange(10);
+		calibrator.setMaxExchanges(10);
+		return calibrator;
+	}
+
+}
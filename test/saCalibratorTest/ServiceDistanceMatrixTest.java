@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibratorTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Random;
+
+import org.junit.Test;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.freight.carrier.Carrier;
+import org.matsim.contrib.freight.carrier.CarrierPlan;
+import org.matsim.contrib.freight.carrier.ScheduledTour;
+import org.matsim.contrib.freight.carrier.Tour.Leg;
+import org.matsim.contrib.freight.carrier.Tour.TourElement;
+import org.matsim.contrib.freight.router.TimeAndSpaceTourRouter;
+import org.matsim.core.population.routes.NetworkRoute;
+import org.matsim.vehicles.VehicleType;
+
+import saCalibrator.CarrierPlanEvaluator;
+import saCalibrator.DefaultTourRouterFactory;
+import saCalibrator.ExtendedCarrierPlan;
+import saCalibrator.MatrixTourRouter;
+import saCalibrator.PlanCopier;
+import saCalibrator.ServiceDistanceMatrix;
+
+public class ServiceDistanceMatrixTest {
+
+	@Test
+	public void testMatrixRoutesEqualNetworkRoutes() {
+		Random random = new Random(1);
+		GridReferenceCase referenceCase = new GridReferenceCase();
+		Network network = referenceCase.getNetwork();
+		Carrier carrier = referenceCase.getReferenceCarrier(network, random);
+		CarrierPlan plan = referenceCase.getRealisticPlan(carrier, network, random);
+		
+		//The matrix is the same for every number of threads
+		ServiceDistanceMatrix matrix = ServiceDistanceMatrix.create(network, carrier, 4);
+		ServiceDistanceMatrix sequentialMatrix = ServiceDistanceMatrix.create(network, carrier, 1);
+		
+		DefaultTourRouterFactory routerFactory = new DefaultTourRouterFactory(network, carrier);
+		TimeAndSpaceTourRouter networkRouter = routerFactory.createTourRouter();
+		routerFactory.setDistanceMatrix(matrix);
+		MatrixTourRouter matrixRouter = (MatrixTourRouter) routerFactory.createTourRouter();
+		
+		for(ScheduledTour scheduledTour : plan.getScheduledTours()) {
+			ScheduledTour networkTour = PlanCopier.copyScheduledTour(scheduledTour);
+			networkRouter.route(networkTour);
+			ScheduledTour matrixTour = PlanCopier.copyScheduledTour(scheduledTour);
+			matrixRouter.route(matrixTour);
+			Id<Link> from = matrixTour.getTour().getStartLinkId();
+			Iterator<TourElement> networkElements = networkTour.getTour().getTourElements().iterator();
+			for(TourElement element : matrixTour.getTour().getTourElements()) {
+				TourElement networkElement = networkElements.next();
+				if(element instanceof Leg) {
+					Leg leg = (Leg) element;
+					Id<Link> to = leg.getRoute().getEndLinkId();
+					double networkDistance = 0;
+					for(Id<Link> linkId : ((NetworkRoute) ((Leg) networkElement).getRoute()).getLinkIds()) {
+						networkDistance = networkDistance + network.getLinks().get(linkId).getLength();
+					}
+					assertEquals(networkDistance, leg.getRoute().getDistance(), 1e-6);
+					if(!from.equals(to)) {
+						Id<VehicleType> typeId = matrixTour.getVehicle().getVehicleType().getId();
+						assertEquals(matrix.getDistance(from, to, typeId), sequentialMatrix.getDistance(from, to, typeId), 0);
+					}
+					from = to;
+				}
+			}
+		}
+		
+		//Plans routed on the matrix are evaluated like plans routed on the network
+		CarrierPlanEvaluator evaluator = new CarrierPlanEvaluator();
+		CarrierPlan matrixPlan = routeAll(plan, matrixRouter);
+		ExtendedCarrierPlan evaluatedMatrixPlan = evaluator.evaluateCarrierPlan(matrixPlan, network);
+		ExtendedCarrierPlan evaluatedNetworkPlan = evaluator.evaluateCarrierPlan(matrixRouter.routeOnNetwork(matrixPlan), network);
+		assertTrue(evaluatedMatrixPlan.getOverallLength() > 0);
+		assertEquals(evaluatedNetworkPlan.getOverallLength(), evaluatedMatrixPlan.getOverallLength(), 1e-6);
+		assertEquals(evaluatedNetworkPlan.getAverageDistanceBetweenStops(), evaluatedMatrixPlan.getAverageDistanceBetweenStops(), 1e-6);
+	}
+	
+	private CarrierPlan routeAll(CarrierPlan plan, TimeAndSpaceTourRouter router) {
+		ArrayList<ScheduledTour> tours = new ArrayList<>();
+		for(ScheduledTour scheduledTour : plan.getScheduledTours()) {
+			ScheduledTour copy = PlanCopier.copyScheduledTour(scheduledTour);
+			router.route(copy);
+			tours.add(copy);
+		}
+		return new CarrierPlan(plan.getCarrier(), tours);
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibratorTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.contrib.freight.carrier.Carrier;
+import org.matsim.contrib.freight.carrier.CarrierService;
+import org.matsim.contrib.freight.carrier.CarrierVehicleType;
+import org.matsim.vehicles.VehicleType;
+
+import saCalibrator.SyntheticScenarioGenerator;
+
+public class SyntheticScenarioGeneratorTest {
+
+	@Test
+	public void testServicesAreSeeded() {
+		Network network = SyntheticScenarioGenerator.createGridNetwork(10, 10, 1000);
+		assertEquals(100, network.getNodes().size());
+		assertEquals(360, network.getLinks().size());
+
+		Iterator<CarrierService> firstServices = new SyntheticScenarioGenerator(7).getServices(network, 1000);
+		Iterator<CarrierService> secondServices = new SyntheticScenarioGenerator(7).getServices(network, 1000);
+		int numberOfServices = 0;
+		while(firstServices.hasNext()) {
+			CarrierService firstService = firstServices.next();
+			CarrierService secondService = secondServices.next();
+			assertEquals(firstService.getId(), secondService.getId());
+			assertEquals(firstService.getLocationLinkId(), secondService.getLocationLinkId());
+			assertEquals(firstService.getCapacityDemand(), secondService.getCapacityDemand());
+			numberOfServices++;
+		}
+		assertFalse(secondServices.hasNext());
+		assertEquals(1000, numberOfServices);
+
+		List<Id<Link>> firstLocations = new SyntheticScenarioGenerator(7).streamServices(network, 100).map(CarrierService::getLocationLinkId).collect(Collectors.toList());
+		List<Id<Link>> otherLocations = new SyntheticScenarioGenerator(8).streamServices(network, 100).map(CarrierService::getLocationLinkId).collect(Collectors.toList());
+		assertNotEquals(firstLocations, otherLocations);
+
+		//Demands without weight are never drawn
+		SyntheticScenarioGenerator generator = new SyntheticScenarioGenerator(7);
+		generator.setDemandDistribution(new int[] {500, 9000, 2500}, new double[] {3, 0, 1});
+		Set<Integer> demands = generator.streamServices(network, 1000).map(CarrierService::getCapacityDemand).collect(Collectors.toSet());
+		assertEquals(new HashSet<>(Arrays.asList(500, 2500)), demands);
+	}
+
+	@Test
+	public void testCarrierWithSeveralDepots() {
+		Network network = SyntheticScenarioGenerator.createGridNetwork(20, 5, 500);
+		CarrierVehicleType.Builder typeBuilder = CarrierVehicleType.Builder.newInstance(Id.create("6_tonner", VehicleType.class));
+		typeBuilder.setCapacity(6000);
+		CarrierVehicleType sechsTonnerType = typeBuilder.build();
+		typeBuilder = CarrierVehicleType.Builder.newInstance(Id.create("7_tonner", VehicleType.class));
+		typeBuilder.setCapacity(7000);
+		CarrierVehicleType siebenTonnerType = typeBuilder.build();
+
+		Carrier carrier = new SyntheticScenarioGenerator(3).createCarrier(network, Arrays.asList(sechsTonnerType, siebenTonnerType), 250, 3);
+		assertEquals(250, carrier.getServices().size());
+		assertEquals(2, carrier.getCarrierCapabilities().getVehicleTypes().size());
+		assertEquals(6, carrier.getCarrierCapabilities().getCarrierVehicles().size());
+	}
+
+	@Test
+	public void testRandomGeometricNetworkIsConnected() {
+		Network network = new SyntheticScenarioGenerator(11).createRandomGeometricNetwork(500, 10000, 300);
+		assertEquals(500, network.getNodes().size());
+		for(Link link : network.getLinks().values()) {
+			assertEquals(Math.max(1, Math.hypot(link.getFromNode().getCoord().getX() - link.getToNode().getCoord().getX(),
+					link.getFromNode().getCoord().getY() - link.getToNode().getCoord().getY())), link.getLength(), 1e-9);
+		}
+
+		//Every node can be reached from the first one
+		Node start = network.getNodes().get(Id.createNodeId("n0"));
+		Set<Node> reached = new HashSet<>();
+		ArrayDeque<Node> queue = new ArrayDeque<>();
+		reached.add(start);
+		queue.add(start);
+		while(!queue.isEmpty()) {
+			for(Link link : queue.poll().getOutLinks().values()) {
+				if(reached.add(link.getToNode())) {
+					queue.add(link.getToNode());
+				}
+			}
+		}
+		assertEquals(500, reached.size());
+	}
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibratorTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.Iterator;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.core.router.util.LeastCostPathCalculator.Path;
+
+import saCalibrator.LegRouteCache;
+import saCalibrator.TimeBinnedTravelTime;
+
+public class TimeBinnedTravelTimeTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testSpeedProfilesSurviveFiles() throws Exception {
+		Network network = new GridReferenceCase().getNetwork();
+		Iterator<Link> links = network.getLinks().values().iterator();
+		Link congestedLink = links.next();
+		Link freeLink = links.next();
+
+		File csvFile = folder.newFile("speeds.csv");
+		try(PrintWriter writer = new PrintWriter(csvFile, "UTF-8")) {
+			writer.println("Link;Bin;Speed");
+			writer.println(congestedLink.getId() + ";32;5.0");
+			writer.println(congestedLink.getId() + ";33;2.5");
+			writer.println("unknownLink;32;5.0");
+		}
+		TimeBinnedTravelTime travelTime = TimeBinnedTravelTime.readCsv(network, csvFile, 900, 96);
+
+		//The morning peak from 8:00 is slower on the congested link, all other bins and links drive at freespeed
+		double length = congestedLink.getLength();
+		assertEquals(length / congestedLink.getFreespeed(), travelTime.getLinkTravelTime(congestedLink, 7.9 * 3600, null, null), 1e-3);
+		assertEquals(length / 5.0, travelTime.getLinkTravelTime(congestedLink, 8 * 3600, null, null), 1e-9);
+		assertEquals(length / 2.5, travelTime.getLinkTravelTime(congestedLink, 8.3 * 3600, null, null), 1e-9);
+		assertEquals(freeLink.getLength() / freeLink.getFreespeed(), travelTime.getLinkTravelTime(freeLink, 8 * 3600, null, null), 1e-3);
+		assertEquals(95, travelTime.getBin(30 * 3600));
+		assertEquals(0, travelTime.getBin(Double.NEGATIVE_INFINITY));
+		//A profiled speed above the freespeed is capped at the freespeed
+		travelTime.setSpeed(freeLink.getId(), 40, 2 * freeLink.getFreespeed());
+		assertEquals(freeLink.getLength() / freeLink.getFreespeed(), travelTime.getLinkTravelTime(freeLink, 10 * 3600, null, null), 1e-9);
+
+		File binaryFile = folder.newFile("speeds.bin");
+		travelTime.write(binaryFile);
+		TimeBinnedTravelTime readTravelTime = TimeBinnedTravelTime.read(network, binaryFile);
+		assertEquals(96, readTravelTime.getNumberOfBins());
+		assertEquals(900, readTravelTime.getBinSize(), 0);
+		for(Link link : network.getLinks().values()) {
+			for(int bin = 0; bin < 96; bin++) {
+				assertEquals(travelTime.getSpeed(link.getId(), bin), readTravelTime.getSpeed(link.getId(), bin), 0);
+			}
+		}
+	}
+
+	@Test
+	public void testRouteCacheKeepsPathsPerTimeBin() {
+		Network network = new GridReferenceCase().getNetwork();
+		Link link = network.getLinks().values().iterator().next();
+		Path morningPath = new Path(null, null, 1, 1);
+		Path noonPath = new Path(null, null, 2, 2);
+
+		LegRouteCache cache = new LegRouteCache(10, 900);
+		cache.putPath(link.getFromNode(), link.getToNode(), null, 8 * 3600, morningPath);
+		cache.putPath(link.getFromNode(), link.getToNode(), null, 12 * 3600, noonPath);
+		assertSame(morningPath, cache.getPath(link.getFromNode(), link.getToNode(), null, 8 * 3600 + 100));
+		assertSame(noonPath, cache.getPath(link.getFromNode(), link.getToNode(), null, 12 * 3600));
+		assertNotSame(morningPath, cache.getPath(link.getFromNode(), link.getToNode(), null, 9 * 3600));
+		assertEquals(2, cache.getSize());
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2022 DLR Institute of Transport Research
+ * All rights reserved.
+ *
+ * This file is part of the "TourCalibration" tool
+ * http://github.com/DLR-VF/TourCalibration
+ * Licensed under the GNU General Public License v3.0
+ *
+ * German Aerospace Center (DLR)
+ * Institute of Transport Research (VF)
+ * Rudower Chaussee 7
+ * 12489 Berlin
+ * Germany
+ * http://www.dlr.de/vf
+ */
+
+
+package saCalibratorTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.freight.carrier.Carrier;
+
+import saCalibrator.Calibrator;
+import saCalibrator.CarrierPlanComparator;
+import saCalibrator.CarrierPlanEvaluator;
+import saCalibrator.DefaultTourRouterFactory;
+import saCalibrator.ExtendedCarrierPlan;
+import saCalibrator.IterationInformation;
+import saCalibrator.RingBufferTraceSink;
+import saCalibrator.StreamingTraceSink;
+
+public class TraceSinkTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testRingBufferKeepsLastIterations() {
+		RingBufferTraceSink sink = new RingBufferTraceSink(3);
+		for(int i = 0; i < 10; i++) {
+			IterationInformation information = new IterationInformation(false);
+			information.setNumber(i);
+			sink.addIteration(information);
+		}
+		assertEquals(3, sink.getSize());
+		int expectedNumber = 7;
+		for(IterationInformation information : sink.getIterations()) {
+			assertEquals(expectedNumber, information.getNumber());
+			expectedNumber++;
+		}
+	}
+
+	@Test
+	public void testStreamedTraceKeepsKeyFigures() throws Exception {
+		Random random = new Random(1);
+		GridReferenceCase referenceCase = new GridReferenceCase();
+		Network network = referenceCase.getNetwork();
+		Carrier carrier = referenceCase.getReferenceCarrier(network, random);
+		CarrierPlanEvaluator evaluator = new CarrierPlanEvaluator();
+		ExtendedCarrierPlan referencePlan = evaluator.evaluateCarrierPlan(referenceCase.getRealisticPlan(carrier, network, random), network);
+		ExtendedCarrierPlan initialPlan = evaluator.evaluateCarrierPlan(referenceCase.getRealisticPlan(carrier, network, random), network);
+
+		File snapshotFile = folder.newFile("snapshots.txt");
+		StreamingTraceSink sink = new StreamingTraceSink(folder.newFile("trace.csv"), snapshotFile, 10);
+		Calibrator calibrator = new Calibrator(network, new DefaultTourRouterFactory(network, carrier).createTourRouter(), random);
+		calibrator.setWarmupIterations(10);
+		calibrator.setMaxIterations(50);
+		calibrator.setRecordIterations(true);
+		ArrayList<IterationInformation> infoList = new ArrayList<>();
+		calibrator.setTraceSink(new RecordingTraceSink(sink, infoList));
+		calibrator.run(initialPlan, referencePlan);
+		sink.close();
+		//With a sink the calibrator does not keep the iterations itself
+		assertTrue(calibrator.getIterationInformation().isEmpty());
+
+		//The streamed key figures give the same distances as the plans kept in memory
+		CarrierPlanComparator comparator = new CarrierPlanComparator();
+		comparator.setIncumbentPlan(referencePlan);
+		try(StreamingTraceSink.TraceIterator streamedIterations = sink.openIterations()) {
+			for(IterationInformation information : infoList) {
+				IterationInformation streamedInformation = streamedIterations.next();
+				assertEquals(information.getNumber(), streamedInformation.getNumber());
+				assertEquals(information.getInnerTemperature(), streamedInformation.getInnerTemperature(), 0);
+				assertEquals(information.getInnerStrategy(), streamedInformation.getInnerStrategy());
+				assertEquals(information.getOuterStrategy(), streamedInformation.getOuterStrategy());
+				comparator.setEntrantPlan(information.getBestPlan());
+				double distance = comparator.getDistanceToBestPlan();
+				comparator.setEntrantPlan(streamedInformation.getBestPlan());
+				assertEquals(distance, comparator.getDistanceToBestPlan(), 1e-12);
+				if(information.getNeighborPlan() == null) {
+					assertNull(streamedInformation.getNeighborPlan());
+				}
+				else {
+					assertEquals(information.getNeighborPlan().getOverallLength(), streamedInformation.getNeighborPlan().getOverallLength(), 0);
+				}
+			}
+			assertTrue(!streamedIterations.hasNext());
+		}
+		//An iteration that is stopped early is closed and has no further iterations
+		StreamingTraceSink.TraceIterator stoppedIterations = sink.openIterations();
+		stoppedIterations.next();
+		stoppedIterations.close();
+		assertTrue(!stoppedIterations.hasNext());
+		assertTrue(snapshotFile.length() > 0);
+	}
+
+}